@@ -0,0 +1,51 @@
+package montecarlo;
+
+import org.openjdk.jmh.annotations.*;
+import statistics.BernoulliCollector;
+
+import java.util.concurrent.TimeUnit;
+import java.util.random.RandomGenerator;
+
+/**
+ * Coût d'une réalisation de BirthdayExperiment selon (K, Y, M) et la manière de tirer les jours.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BirthdayExperimentBenchmark {
+    private static final int BATCH = 1000;
+
+    @Param({"23:365:2", "88:365:3", "50:1000:2", "200:365:4"})
+    public String parameters; // K:Y:M
+
+    @Param({"false", "true"})
+    public boolean packedDraws;
+
+    private BirthdayExperiment experiment;
+    private RandomGenerator random;
+    private BernoulliCollector stat;
+
+    @Setup
+    public void setUp() {
+        String[] values = parameters.split(":");
+        experiment = new BirthdayExperiment(Integer.parseInt(values[0]), Integer.parseInt(values[1]),
+                Integer.parseInt(values[2]), packedDraws);
+        random = RandomStreams.create(RandomStreams.DEFAULT_ALGORITHM, 0x134D6EE);
+        stat = new BernoulliCollector();
+    }
+
+    @Benchmark
+    public double execute() {
+        return experiment.execute(random);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public BernoulliCollector executeBatch() {
+        experiment.executeBatch(random, BATCH, stat);
+        return stat;
+    }
+}
@@ -0,0 +1,54 @@
+package montecarlo;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.random.RandomGenerator;
+
+/**
+ * Coût du tirage d'un jour : nextInt(Y) du générateur contre PackedUniformSampler.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DaySamplingBenchmark {
+    private static final int DRAWS = 1000;
+
+    @Param({"365", "1000"})
+    public int days;
+
+    @Param({"Random", "L64X128MixRandom", "Xoroshiro128PlusPlus"})
+    public String algorithm;
+
+    private RandomGenerator random;
+    private PackedUniformSampler sampler;
+
+    @Setup
+    public void setUp() {
+        random = RandomStreams.create(algorithm, 0x134D6EE);
+        sampler = new PackedUniformSampler(days);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DRAWS)
+    public int nextInt() {
+        int sum = 0;
+        for (int i = 0; i < DRAWS; i++) {
+            sum += random.nextInt(days);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DRAWS)
+    public int packed() {
+        int sum = 0;
+        for (int i = 0; i < DRAWS; i++) {
+            sum += sampler.next(random);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,53 @@
+package montecarlo;
+
+import org.openjdk.jmh.annotations.*;
+import statistics.BernoulliCollector;
+import statistics.StatCollector;
+
+import java.util.concurrent.TimeUnit;
+import java.util.random.RandomGenerator;
+
+/**
+ * Débit de bout en bout de MonteCarloSimulation.simulateNRuns pour p23, selon l'algorithme du générateur.
+ * Le temps est donné par réalisation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SimulationBenchmark {
+    private static final int RUNS = 100_000;
+
+    @Param({"Random", "L64X128MixRandom", "Xoroshiro128PlusPlus", "SplittableRandom"})
+    public String algorithm;
+
+    @Param({"false", "true"})
+    public boolean packedDraws;
+
+    private BirthdayExperiment experiment;
+    private RandomGenerator random;
+
+    @Setup
+    public void setUp() {
+        experiment = new BirthdayExperiment(23, 365, 2, packedDraws);
+        random = RandomStreams.create(algorithm, 0x134D6EE);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RUNS)
+    public StatCollector statCollector() {
+        StatCollector stat = new StatCollector();
+        MonteCarloSimulation.simulateNRuns(experiment, RUNS, random, stat);
+        return stat;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RUNS)
+    public BernoulliCollector bernoulliCollector() {
+        BernoulliCollector stat = new BernoulliCollector();
+        MonteCarloSimulation.simulateNRuns(experiment, RUNS, random, stat);
+        return stat;
+    }
+}
@@ -0,0 +1,58 @@
+package montecarlo;
+
+import org.openjdk.jmh.annotations.*;
+import statistics.BernoulliCollector;
+
+import java.util.concurrent.TimeUnit;
+import java.util.random.RandomGenerator;
+
+/**
+ * Coût d'une réalisation simulée par lots, avec la boucle scalaire (tirages groupés) ou avec le noyau SIMD de
+ * VectorBirthdayExperiment. Le fork est lancé avec le module jdk.incubator.vector, sans quoi les deux variantes
+ * seraient scalaires.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@State(Scope.Thread)
+public class VectorBirthdayBenchmark {
+    private static final int BATCH = 4096;
+
+    @Param({"23:365:2", "88:365:3", "5:7:2", "40:365:2"})
+    public String parameters; // K:Y:M
+
+    @Param({"false", "true"})
+    public boolean vectorized;
+
+    private BirthdayExperiment experiment;
+    private RandomGenerator random;
+    private BernoulliCollector stat;
+
+    @Setup
+    public void setUp() {
+        String[] values = parameters.split(":");
+        int K = Integer.parseInt(values[0]);
+        int Y = Integer.parseInt(values[1]);
+        int M = Integer.parseInt(values[2]);
+        if (vectorized) {
+            VectorBirthdayExperiment vector = new VectorBirthdayExperiment(K, Y, M);
+            if (!vector.isVectorized()) {
+                throw new IllegalStateException("Vector kernel is not available.");
+            }
+            experiment = vector;
+        } else {
+            experiment = new BirthdayExperiment(K, Y, M, true);
+        }
+        random = RandomStreams.create(RandomStreams.DEFAULT_ALGORITHM, 0x134D6EE);
+        stat = new BernoulliCollector();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public BernoulliCollector executeBatch() {
+        experiment.executeBatch(random, BATCH, stat);
+        return stat;
+    }
+}
@@ -0,0 +1,49 @@
+package statistics;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût de l'ajout d'une observation de Bernoulli à StatCollector et à BernoulliCollector.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CollectorBenchmark {
+    private static final int OBSERVATIONS = 1024;
+
+    private final double[] observations = new double[OBSERVATIONS];
+    private final StatCollector stat = new StatCollector();
+    private final BernoulliCollector bernoulli = new BernoulliCollector();
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(0x134D6EE);
+        for (int i = 0; i < OBSERVATIONS; i++) {
+            observations[i] = random.nextBoolean() ? 1.0 : 0.0;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OBSERVATIONS)
+    public StatCollector statCollectorAdd() {
+        for (double x : observations) {
+            stat.add(x);
+        }
+        return stat;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OBSERVATIONS)
+    public BernoulliCollector bernoulliCollectorAdd() {
+        for (double x : observations) {
+            bernoulli.add(x);
+        }
+        return bernoulli;
+    }
+}
@@ -0,0 +1,53 @@
+package statistics;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût d'un ajout partagé par plusieurs threads : ConcurrentStatCollector contre un StatCollector protégé par un
+ * verrou. Le nombre de threads se change avec l'option -t de JMH.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class ConcurrentCollectorBenchmark {
+    private static final int OBSERVATIONS = 1024;
+
+    private final ConcurrentStatCollector concurrent = new ConcurrentStatCollector();
+    private final StatCollector locked = new StatCollector();
+
+    @State(Scope.Thread)
+    public static class Observations {
+        final double[] values = new double[OBSERVATIONS];
+
+        @Setup
+        public void setUp() {
+            for (int i = 0; i < OBSERVATIONS; i++) {
+                values[i] = i % 7;
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OBSERVATIONS)
+    public void concurrentAdd(Observations observations) {
+        for (double x : observations.values) {
+            concurrent.add(x);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OBSERVATIONS)
+    public void lockedAdd(Observations observations) {
+        for (double x : observations.values) {
+            synchronized (locked) {
+                locked.add(x);
+            }
+        }
+    }
+}
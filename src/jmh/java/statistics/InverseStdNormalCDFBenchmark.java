@@ -0,0 +1,59 @@
+package statistics;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût de InverseStdNormalCDF.getQuantile pour un niveau en cache et pour des probabilités toujours nouvelles,
+ * comparé à l'ancienne table interpolée.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class InverseStdNormalCDFBenchmark {
+    private double level = 0.975;
+    private double prob = 0.6;
+    private boolean other;
+
+    @Benchmark
+    public double cachedLevel() {
+        return InverseStdNormalCDF.getQuantile(level);
+    }
+
+    @Benchmark
+    public double tableLevel() {
+        return TableInverseStdNormalCDF.getQuantile(level);
+    }
+
+    @Benchmark
+    public double alternatingLevels() {
+        // Deux niveaux en alternance manquent le dernier niveau et passent par la table de hachage
+        other = !other;
+        return InverseStdNormalCDF.getQuantile(other ? 0.995 : level);
+    }
+
+    @Benchmark
+    public double uncachedProbability() {
+        prob = prob < 0.999 ? prob + 1e-9 : 0.001;
+        return InverseStdNormalCDF.getQuantile(prob);
+    }
+
+    @Benchmark
+    public double confidenceIntervalHalfWidth(CollectorState state) {
+        return state.stat.getConfidenceIntervalHalfWidth(0.95);
+    }
+
+    @State(Scope.Thread)
+    public static class CollectorState {
+        private final StatCollector stat = new StatCollector();
+
+        @Setup
+        public void setUp() {
+            stat.addAll(1_000_000, 0.5073, 249_994.7);
+        }
+    }
+}
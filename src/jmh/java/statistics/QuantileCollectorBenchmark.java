@@ -0,0 +1,81 @@
+package statistics;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Erreur contre mémoire de QuantileCollector : coût d'un ajout pour chaque précision et nombre maximal de cases, et,
+ * en fin d'essai, erreur relative des quantiles et octets occupés par les cases, affichés dans la sortie de JMH.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class QuantileCollectorBenchmark {
+    private static final int OBSERVATIONS = 1 << 21;
+    private static final int BATCH = 1024;
+    private static final double[] ORDERS = {0.5, 0.9, 0.99, 0.999, 0.9999};
+
+    @Param({"0.05", "0.01", "0.002"})
+    public double relativeAccuracy;
+
+    @Param({"128", "2048"})
+    public int maxBins;
+
+    // Temps d'attente exponentiels, et loi log-normale qui couvre une dizaine d'ordres de grandeur
+    @Param({"exponential", "lognormal"})
+    public String distribution;
+
+    private final double[] observations = new double[OBSERVATIONS];
+    private QuantileCollector sketch;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(0x134D6EE);
+        for (int i = 0; i < OBSERVATIONS; i++) {
+            observations[i] = distribution.equals("exponential")
+                    ? -Math.log(1.0 - random.nextDouble())
+                    : Math.exp(4 * random.nextGaussian());
+        }
+        sketch = new QuantileCollector(relativeAccuracy, maxBins);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public QuantileCollector add() {
+        for (int i = 0; i < BATCH; i++) {
+            sketch.add(observations[next]);
+            next = (next + 1) & (OBSERVATIONS - 1);
+        }
+        return sketch;
+    }
+
+    @Benchmark
+    public double quantile() {
+        return sketch.getQuantile(0.99);
+    }
+
+    @TearDown(Level.Trial)
+    public void reportError() {
+        QuantileCollector fresh = new QuantileCollector(relativeAccuracy, maxBins);
+        for (double x : observations) {
+            fresh.add(x);
+        }
+        double[] sorted = observations.clone();
+        Arrays.sort(sorted);
+
+        StringBuilder errors = new StringBuilder();
+        for (double p : ORDERS) {
+            double exact = sorted[(int) Math.floor(p * (OBSERVATIONS - 1))];
+            errors.append(String.format(" q%s=%.2e", p, Math.abs(fresh.getQuantile(p) - exact) / exact));
+        }
+        System.out.printf("%nError vs memory: %s alpha=%s maxBins=%d: %d bytes,%s%n", distribution,
+                relativeAccuracy, maxBins, fresh.getNumberOfBins() * Long.BYTES, errors);
+    }
+}
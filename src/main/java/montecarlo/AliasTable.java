@@ -0,0 +1,150 @@
+package montecarlo;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Draws integers in [0, n) with given weights in constant time, with the alias method of Walker as built by Vose.
+ * <p>
+ * The table has one column per value, each split between the value itself and one alias: a draw picks a column
+ * uniformly, then keeps its value or takes its alias by comparing a random number with the threshold of the column.
+ * Both are taken from a single 64-bit word: its 32 high bits pick the column with Lemire's multiply-shift method,
+ * with rejection so that every column has exactly the same probability, and its 32 low bits are compared with the
+ * threshold. The thresholds are therefore rounded to multiples of 2^-32, and {@link #probability(int)} gives the
+ * probabilities actually drawn. The threshold and the alias of a column are packed in one long, so that a draw reads
+ * a single entry of the table.
+ * <p>
+ * A table is immutable once built: it can be shared by all the threads of a simulation.
+ */
+public final class AliasTable {
+
+    private static final long LOW_32_BITS = 0xFFFFFFFFL;
+    private static final long ONE = 1L << 32;   // Seuil d'une colonne qui garde toujours sa valeur
+    private static final int ALIAS_SHIFT = 33;  // Le seuil occupe les 33 bits de poids faible d'une entrée
+
+    private final long[] entries;       // alias << 33 | seuil sur 2^32
+    private final long rejection;       // Les produits dont les 32 bits de poids faible sont sous ce seuil sont rejetés
+    private final double[] probabilities;
+
+    /**
+     * Builds the table of the given weights.
+     *
+     * @param weights weights of the values 0 to weights.length - 1, proportional to their probabilities
+     * @throws IllegalArgumentException if there are no weights, a weight is negative or not finite, or all the
+     *                                  weights are zero
+     */
+    public AliasTable(double[] weights) {
+        int n = weights.length;
+        if (n == 0) {
+            throw new IllegalArgumentException("Weights should not be empty.");
+        }
+        double total = 0.0;
+        for (double weight : weights) {
+            if (!(weight >= 0.0 && weight < Double.POSITIVE_INFINITY)) {
+                throw new IllegalArgumentException("Weights should be finite and non-negative.");
+            }
+            total += weight;
+        }
+        if (!(total > 0.0 && total < Double.POSITIVE_INFINITY)) {
+            throw new IllegalArgumentException("Sum of the weights should be positive and finite.");
+        }
+
+        // Algorithme de Vose : les colonnes sous la moyenne sont complétées par une colonne au-dessus
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int i = 0; i < n; i++) {
+            scaled[i] = weights[i] * n / total;
+            if (scaled[i] < 1.0) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+
+        entries = new long[n];
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+            entries[less] = (long) more << ALIAS_SHIFT | Math.round(scaled[less] * ONE);
+            scaled[more] = (scaled[more] + scaled[less]) - 1.0;
+            if (scaled[more] < 1.0) {
+                small[smallCount++] = more;
+            } else {
+                large[largeCount++] = more;
+            }
+        }
+        // Colonnes restantes : pleines, aux erreurs d'arrondi près
+        while (largeCount > 0) {
+            int column = large[--largeCount];
+            entries[column] = (long) column << ALIAS_SHIFT | ONE;
+        }
+        while (smallCount > 0) {
+            int column = small[--smallCount];
+            entries[column] = (long) column << ALIAS_SHIFT | ONE;
+        }
+
+        rejection = ONE % n;
+        probabilities = new double[n];
+        for (int column = 0; column < n; column++) {
+            long threshold = entries[column] & (ONE | LOW_32_BITS);
+            probabilities[column] += (double) threshold / ONE / n;
+            probabilities[(int) (entries[column] >>> ALIAS_SHIFT)] += (double) (ONE - threshold) / ONE / n;
+        }
+    }
+
+    /**
+     * Returns the number of values of the table.
+     *
+     * @return n
+     */
+    public int size() {
+        return entries.length;
+    }
+
+    /**
+     * Returns the probability with which the given value is drawn, which differs from its normalized weight by less
+     * than 2^-32.
+     *
+     * @param value a value between 0 and n - 1
+     * @return the probability of value
+     */
+    public double probability(int value) {
+        return probabilities[value];
+    }
+
+    /**
+     * Returns the probability that two independent draws give the same value, sum of the squared probabilities.
+     *
+     * @return the collision probability of the table
+     */
+    public double collisionProbability() {
+        double sum = 0.0;
+        for (double p : probabilities) {
+            sum += p * p;
+        }
+        return sum;
+    }
+
+    /**
+     * Returns an integer drawn in [0, n) with the probabilities of the table.
+     *
+     * @param rnd random source providing the 64-bit words
+     * @return the integer drawn
+     */
+    public int next(RandomGenerator rnd) {
+        while (true) {
+            long word = rnd.nextLong();
+            long product = (word >>> 32) * entries.length;
+            if ((product & LOW_32_BITS) >= rejection) {
+                // Choix sans branchement entre la colonne et son alias, imprévisible pour des poids inégaux :
+                // keep vaut -1 si les 32 bits de poids faible sont sous le seuil, 0 sinon
+                long column = product >>> 32;
+                long entry = entries[(int) column];
+                long keep = ((word & LOW_32_BITS) - (entry & (ONE | LOW_32_BITS))) >> 63;
+                return (int) (column & keep | (entry >>> ALIAS_SHIFT) & ~keep);
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package montecarlo;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Source of pseudo-random numbers producing antithetic pairs of realizations: while recording, the 64-bit words of
+ * the underlying source are passed through and kept; while replaying, the same words are returned complemented, so
+ * that a uniform U drawn in the first realization becomes about 1 - U in the second one. Once the recorded words are
+ * exhausted, the replay continues with fresh words of the underlying source.
+ * <p>
+ * All the methods of RandomGenerator derive their values from {@link #nextLong()}. An instance must only be used by
+ * one thread.
+ */
+final class AntitheticGenerator implements RandomGenerator {
+    private final RandomGenerator source;
+
+    private long[] recorded = new long[64]; // Mots tirés pendant l'enregistrement
+    private int size;                       // Nombre de mots enregistrés
+    private int position;                   // Prochain mot à rejouer
+    private boolean replaying;
+
+    AntitheticGenerator(RandomGenerator source) {
+        this.source = source;
+    }
+
+    /**
+     * Starts the first realization of a pair: the words drawn from now on are recorded.
+     */
+    void record() {
+        size = 0;
+        replaying = false;
+    }
+
+    /**
+     * Starts the second realization of a pair: the recorded words are returned complemented.
+     */
+    void replay() {
+        position = 0;
+        replaying = true;
+    }
+
+    @Override
+    public long nextLong() {
+        if (replaying) {
+            return position < size ? ~recorded[position++] : source.nextLong();
+        }
+
+        long word = source.nextLong();
+        if (size == recorded.length) {
+            recorded = Arrays.copyOf(recorded, 2 * size);
+        }
+        recorded[size++] = word;
+        return word;
+    }
+}
@@ -0,0 +1,244 @@
+package montecarlo;
+
+import statistics.Estimator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.LongConsumer;
+
+/**
+ * Append-only binary log of the batches of a simulation, written through a memory-mapped file so that post-hoc
+ * analyses (convergence plots, batch means) do not require running the simulation again.
+ * <p>
+ * The log wraps the simulator performing the batches of runs, as a {@link SimulationMonitor} does (see
+ * {@link #instrument(LongConsumer, Estimator)}): a record is appended at the end of each batch, with a few absolute
+ * writes into the mapped region, so that neither the runs nor the batches allocate or perform system calls. The
+ * file grows by regions of {@link #RECORDS_PER_REGION} records, which are mapped one at a time.
+ * <p>
+ * The file starts with a header of {@value #HEADER_BYTES} bytes: magic number, version, record size and number of
+ * records written, updated after each record so that the records before a crash can still be read. Each record has
+ * the fixed width of {@value #RECORD_BYTES} bytes and holds, in big-endian order:
+ * <ul>
+ *     <li>the number of runs of the batch (long),</li>
+ *     <li>the number of observations collected at the end of the batch (long),</li>
+ *     <li>the average of the observations collected at the end of the batch (double),</li>
+ *     <li>the sum of squared deviations of the observations collected at the end of the batch (double),</li>
+ *     <li>the wall-clock time of the end of the batch, in milliseconds since the epoch (long),</li>
+ *     <li>the duration of the batch, in nanoseconds (long).</li>
+ * </ul>
+ * The state of the collector is stored rather than the sum and the sum of squares of the batch, which would lose
+ * the variance to cancellation: the state after any prefix of the batches is read as is, and the summary of each
+ * batch is recovered by difference (see {@link BatchLogReader}). The number of successes of a batch of Bernoulli
+ * observations is its number of runs times its average, rounded. The records of a log must therefore all describe
+ * the same collector: a simulation which extends an existing log must first restore its collector from it (see
+ * {@link BatchLogReader#restore(statistics.Collector, long)}).
+ * <p>
+ * A log must be used by a single thread at a time.
+ */
+public final class BatchLog implements AutoCloseable {
+
+    /**
+     * Size of the header of the file, in bytes.
+     */
+    public static final int HEADER_BYTES = 32;
+
+    /**
+     * Size of a record, in bytes.
+     */
+    public static final int RECORD_BYTES = 48;
+
+    /**
+     * Number of records of the regions by which the file grows.
+     */
+    public static final int RECORDS_PER_REGION = 1 << 14;
+
+    static final int MAGIC = 0x4D43424C; // "MCBL"
+    static final int VERSION = 1;
+    static final int COUNT_OFFSET = 16;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private MappedByteBuffer region;    // Région contenant le prochain enregistrement
+    private long regionStart;           // Numéro du premier enregistrement de la région
+    private long records;
+    private long numberOfObs;           // Nombre d'observations du dernier enregistrement
+
+    private BatchLog(Path file, FileChannel channel, MappedByteBuffer header, long records) throws IOException {
+        this.file = file;
+        this.channel = channel;
+        this.header = header;
+        this.records = records;
+        mapRegion(records);
+        if (records > 0) {
+            ByteBuffer last = ByteBuffer.allocate(Long.BYTES);
+            BatchLogReader.readFully(channel, last, HEADER_BYTES + (records - 1) * RECORD_BYTES + 8);
+            numberOfObs = last.getLong(0);
+        }
+    }
+
+    /**
+     * Opens the log stored in file, creating it if it does not exist. The records of an existing log are kept and
+     * the new records are appended after them, so that a resumed simulation extends its log. The collector of the
+     * resumed simulation must hold the observations of the last record, restored with
+     * {@link BatchLogReader#restore(statistics.Collector, long)}.
+     *
+     * @param file file of the log
+     * @return the log
+     * @throws UncheckedIOException     if the log cannot be opened
+     * @throws IllegalArgumentException if file exists and is not a valid log
+     */
+    public static BatchLog open(Path file) {
+        try {
+            FileChannel channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            try {
+                boolean created = channel.size() == 0;
+                MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+                header.order(ByteOrder.BIG_ENDIAN);
+                long records;
+                if (created) {
+                    header.putInt(0, MAGIC);
+                    header.putInt(4, VERSION);
+                    header.putInt(8, RECORD_BYTES);
+                    header.putLong(COUNT_OFFSET, 0L);
+                    records = 0L;
+                } else {
+                    records = checkHeader(header, file);
+                }
+                return new BatchLog(file, channel, header, records);
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Batch log " + file + " could not be opened.", e);
+        }
+    }
+
+    /**
+     * Checks the header of a log and returns its number of records.
+     *
+     * @throws IllegalArgumentException if the header is not the one of a valid log
+     */
+    static long checkHeader(ByteBuffer header, Path file) {
+        if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION || header.getInt(8) != RECORD_BYTES
+                || header.getLong(COUNT_OFFSET) < 0) {
+            throw new IllegalArgumentException("File " + file + " is not a valid batch log.");
+        }
+        return header.getLong(COUNT_OFFSET);
+    }
+
+    /**
+     * Returns the number of records of this log.
+     *
+     * @return the number of batches logged
+     */
+    public long size() {
+        return records;
+    }
+
+    /**
+     * Wraps simulator so that a record is appended to this log after each batch it performs. The returned simulator
+     * can be given to {@link SequentialStoppingRule#simulate(LongConsumer, long, Estimator)}, or be wrapped in turn
+     * by a {@link SimulationMonitor}.
+     *
+     * @param simulator performs the given number of runs and collects their results in stat
+     * @param stat      collector in which the results of each experiment are collected
+     * @return the instrumented simulator
+     */
+    public LongConsumer instrument(LongConsumer simulator, Estimator stat) {
+        return n -> {
+            long start = System.nanoTime();
+            simulator.accept(n);
+            long end = System.nanoTime();
+            append(n, stat, System.currentTimeMillis(), end - start);
+        };
+    }
+
+    /**
+     * Appends the record of a batch of n runs, at the end of which stat holds the observations collected.
+     *
+     * @param n               number of runs of the batch
+     * @param stat            collector in which the results of the runs are collected
+     * @param endEpochMillis  wall-clock time of the end of the batch, in milliseconds since the epoch
+     * @param durationNanos   duration of the batch, in nanoseconds
+     * @throws UncheckedIOException  if the file cannot grow
+     * @throws IllegalStateException if this log is closed, or if stat holds fewer observations than at the previous
+     *                               record, as a fresh collector appending to a reopened log does
+     */
+    public void append(long n, Estimator stat, long endEpochMillis, long durationNanos) {
+        if (!channel.isOpen()) {
+            throw new IllegalStateException("Batch log " + file + " is closed.");
+        }
+        if (stat.getNumberOfObs() < numberOfObs) {
+            throw new IllegalStateException("Collector holds fewer observations than the last record of batch log "
+                    + file + ": it should be restored from the log before extending it.");
+        }
+        if (records - regionStart == RECORDS_PER_REGION) {
+            try {
+                region.force();
+                mapRegion(records);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Batch log " + file + " could not grow.", e);
+            }
+        }
+
+        int offset = (int) (records - regionStart) * RECORD_BYTES;
+        region.putLong(offset, n);
+        region.putLong(offset + 8, stat.getNumberOfObs());
+        region.putDouble(offset + 16, stat.getAverage());
+        region.putDouble(offset + 24, stat.getSumOfSquaredDev());
+        region.putLong(offset + 32, endEpochMillis);
+        region.putLong(offset + 40, durationNanos);
+        numberOfObs = stat.getNumberOfObs();
+
+        // Le compteur de l'en-tête n'avance qu'une fois l'enregistrement complet
+        records++;
+        header.putLong(COUNT_OFFSET, records);
+    }
+
+    /**
+     * Maps the region of the file whose first record is the given one, extending the file if needed.
+     */
+    private void mapRegion(long firstRecord) throws IOException {
+        regionStart = firstRecord;
+        region = channel.map(FileChannel.MapMode.READ_WRITE, HEADER_BYTES + firstRecord * RECORD_BYTES,
+                (long) RECORDS_PER_REGION * RECORD_BYTES);
+        region.order(ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * Forces the records written so far to the storage device. The log does it when it is closed; calling it after
+     * each batch would slow the simulation down.
+     */
+    public void force() {
+        region.force();
+        header.force();
+    }
+
+    /**
+     * Forces the records to the storage device and closes the file. The mapped regions are released by the garbage
+     * collector.
+     *
+     * @throws UncheckedIOException if the file cannot be closed
+     */
+    @Override
+    public void close() {
+        if (!channel.isOpen()) {
+            return;
+        }
+        force();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Batch log " + file + " could not be closed.", e);
+        }
+    }
+}
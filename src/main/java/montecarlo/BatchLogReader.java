@@ -0,0 +1,204 @@
+package montecarlo;
+
+import statistics.Collector;
+import statistics.StatCollector;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reader of the records of a {@link BatchLog}, from which the state of the collector after any prefix of the
+ * batches, or the observations of each batch alone, can be rebuilt.
+ * <p>
+ * The number of records is read from the header when the reader is opened: the records appended afterwards by a
+ * simulation still running are ignored. The records must all describe the same collector, as {@link BatchLog} ensures
+ * as far as it can: a log whose number of observations decreases from one record to the next, extended by a fresh
+ * collector for instance, cannot be read by batch or by prefix.
+ */
+public final class BatchLogReader implements AutoCloseable {
+
+    private final Path file;
+    private final FileChannel channel;
+    private final long records;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BatchLog.RECORD_BYTES);
+    private long checkedRecords;    // Nombre d'enregistrements dont le nombre d'observations est croissant
+
+    private BatchLogReader(Path file, FileChannel channel, long records) {
+        this.file = file;
+        this.channel = channel;
+        this.records = records;
+    }
+
+    /**
+     * Opens the log stored in file for reading.
+     *
+     * @param file file of the log
+     * @return the reader
+     * @throws UncheckedIOException     if the log cannot be read
+     * @throws IllegalArgumentException if file is not a valid log
+     */
+    public static BatchLogReader open(Path file) {
+        try {
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+            try {
+                ByteBuffer header = ByteBuffer.allocate(BatchLog.HEADER_BYTES);
+                readFully(channel, header, 0L);
+                long records = BatchLog.checkHeader(header, file);
+                if (channel.size() < BatchLog.HEADER_BYTES + records * BatchLog.RECORD_BYTES) {
+                    throw new IllegalArgumentException("File " + file + " is not a valid batch log.");
+                }
+                return new BatchLogReader(file, channel, records);
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Batch log " + file + " could not be read.", e);
+        }
+    }
+
+    /**
+     * Returns the number of records of the log.
+     *
+     * @return the number of batches logged
+     */
+    public long size() {
+        return records;
+    }
+
+    /**
+     * Returns the record of the given batch.
+     *
+     * @param batch index of the batch, between 0 and size() - 1
+     * @return the record of the batch
+     * @throws IndexOutOfBoundsException if there is no such batch
+     * @throws UncheckedIOException      if the log cannot be read
+     */
+    public BatchLogRecord get(long batch) {
+        if (batch < 0 || batch >= records) {
+            throw new IndexOutOfBoundsException("Batch " + batch + " is not in the log of " + records + " batches.");
+        }
+        try {
+            readFully(channel, buffer.clear(), BatchLog.HEADER_BYTES + batch * BatchLog.RECORD_BYTES);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Batch log " + file + " could not be read.", e);
+        }
+        return new BatchLogRecord(buffer.getLong(0), buffer.getLong(8), buffer.getDouble(16), buffer.getDouble(24),
+                buffer.getLong(32), buffer.getLong(40));
+    }
+
+    /**
+     * Replaces the content of stat by the observations collected during the first batches of the log.
+     *
+     * @param stat    collector to be restored, which must support {@link Collector#addAll(long, double, double)}
+     * @param batches number of batches of the prefix, between 0 and size()
+     * @throws IllegalStateException if the number of observations decreases within the prefix
+     */
+    public void restore(Collector stat, long batches) {
+        checkNumberOfObs(batches);
+        stat.init();
+        if (batches > 0) {
+            BatchLogRecord last = get(batches - 1);
+            stat.addAll(last.numberOfObs(), last.average(), last.sumOfSquaredDev());
+        }
+    }
+
+    /**
+     * Returns the observations collected during the first batches of the log.
+     *
+     * @param batches number of batches of the prefix, between 0 and size()
+     * @return a new collector holding the observations of the prefix
+     * @throws IllegalStateException if the number of observations decreases within the prefix
+     */
+    public StatCollector prefix(long batches) {
+        StatCollector stat = new StatCollector();
+        restore(stat, batches);
+        return stat;
+    }
+
+    /**
+     * Returns the observations collected during the given batch alone, recovered from the states of the collector
+     * before and after the batch, for batch means diagnostics for instance. The recovered sum of squared deviations
+     * loses the relative precision of the collector when the batch is much smaller than the observations collected
+     * before it.
+     *
+     * @param batch index of the batch, between 0 and size() - 1
+     * @return a new collector holding the observations of the batch
+     * @throws IllegalStateException if the number of observations decreases during the batch
+     */
+    public StatCollector batch(long batch) {
+        BatchLogRecord after = get(batch);
+        StatCollector stat = new StatCollector();
+        if (batch == 0 || get(batch - 1).numberOfObs() == 0) {
+            stat.addAll(after.numberOfObs(), after.average(), after.sumOfSquaredDev());
+            return stat;
+        }
+
+        // Inversion de la fusion de Chan et al. : n = n1 + n2, m = m1 + δ n2 / n, S = S1 + S2 + δ² n1 n2 / n
+        BatchLogRecord before = get(batch - 1);
+        long n = after.numberOfObs();
+        long n1 = before.numberOfObs();
+        long n2 = n - n1;
+        if (n2 < 0) {
+            throw decreasingNumberOfObs(batch);
+        }
+        if (n2 == 0) {
+            return stat;
+        }
+        double delta = (after.average() - before.average()) * n / n2;
+        double sumOfSquaredDev = after.sumOfSquaredDev() - before.sumOfSquaredDev()
+                - delta * delta * ((double) n1 * n2 / n);
+        stat.addAll(n2, before.average() + delta, Math.max(sumOfSquaredDev, 0.0));
+        return stat;
+    }
+
+    /**
+     * Checks that the number of observations does not decrease within the first batches of the log. Each record is
+     * checked once, so that rebuilding every prefix in turn stays linear in the number of records.
+     */
+    private void checkNumberOfObs(long batches) {
+        if (batches <= checkedRecords) {
+            return;
+        }
+        long previous = checkedRecords > 0 ? get(checkedRecords - 1).numberOfObs() : 0L;
+        for (long i = checkedRecords; i < batches; i++) {
+            long numberOfObs = get(i).numberOfObs();
+            if (numberOfObs < previous) {
+                throw decreasingNumberOfObs(i);
+            }
+            previous = numberOfObs;
+            checkedRecords = i + 1;
+        }
+    }
+
+    private IllegalStateException decreasingNumberOfObs(long batch) {
+        return new IllegalStateException("Batch " + batch + " of log " + file + " holds fewer observations than the "
+                + "previous one: the log was extended by another collector.");
+    }
+
+    /**
+     * Closes the file.
+     *
+     * @throws UncheckedIOException if the file cannot be closed
+     */
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Batch log " + file + " could not be closed.", e);
+        }
+    }
+
+    static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IllegalArgumentException("Batch log ends before its last record.");
+            }
+        }
+    }
+}
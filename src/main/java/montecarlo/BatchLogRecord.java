@@ -0,0 +1,28 @@
+package montecarlo;
+
+/**
+ * Record of a batch of runs read from a {@link BatchLog}.
+ *
+ * @param batchRuns       number of runs of the batch
+ * @param numberOfObs     number of observations collected at the end of the batch
+ * @param average         average of the observations collected at the end of the batch
+ * @param sumOfSquaredDev sum of squared deviations of the observations collected at the end of the batch
+ * @param endEpochMillis  wall-clock time of the end of the batch, in milliseconds since the epoch
+ * @param durationNanos   duration of the batch, in nanoseconds
+ */
+public record BatchLogRecord(long batchRuns,
+                             long numberOfObs,
+                             double average,
+                             double sumOfSquaredDev,
+                             long endEpochMillis,
+                             long durationNanos) {
+
+    /**
+     * Returns the throughput of the batch.
+     *
+     * @return the number of runs of the batch per second
+     */
+    public double runsPerSecond() {
+        return durationNanos > 0 ? batchRuns * 1e9 / durationNanos : Double.NaN;
+    }
+}
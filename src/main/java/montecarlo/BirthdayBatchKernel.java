@@ -0,0 +1,19 @@
+package montecarlo;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Loop simulating many realizations of a birthday experiment at once. An instance keeps working memory between
+ * calls and must only be used by one thread.
+ */
+interface BirthdayBatchKernel {
+
+    /**
+     * Simulates n realizations and returns the number of successes.
+     *
+     * @param rnd random source from which the random numbers of the batch are derived
+     * @param n   number of realizations
+     * @return the number of realizations in which at least M people share the same birthday
+     */
+    long countSuccesses(RandomGenerator rnd, long n);
+}
@@ -1,24 +1,77 @@
 package montecarlo;
 
-import java.util.Random;
+import statistics.Collector;
+import statistics.ControlVariateCollector;
+
+import java.util.random.RandomGenerator;
 
 /**
  * Classe implémentant une expérience de Bernoulli simulant le paradoxe des anniversaires.
  * Cette classe permet de simuler une expérience où un groupe de K personnes choisit
  * aléatoirement leurs dates d'anniversaire parmi Y jours possibles. L'expérience retourne
  * un succès (1.0) si au moins une date est choisie M fois ou plus, et un échec (0.0) sinon.
+ * Les jours sont équiprobables, ou tirés selon des poids donnés par une {@link AliasTable}.
+ * <p>
+ * L'expérience peut aussi fournir comme variable de contrôle le nombre de paires de personnes nées le même jour,
+ * dont l'espérance vaut K(K-1)/(2Y).
  * @author Jarod Streckeisen, Timothée Van Hove
  */
-public class BirthdayExperiment implements Experiment {
+public class BirthdayExperiment implements ControlVariateExperiment {
     private final int K; // Nombre de personnes
     private final int Y; // Nombre de jours dans une année
     private final int M; // Nombre minimum d'occurrences pour succès
 
+    // Compteurs de jours réutilisés d'une exécution à l'autre, un jeu par thread : les plus compacts qui détectent
+    // M occurrences, et pour les variables de contrôle des compteurs exacts jusqu'à K
+    private final ThreadLocal<DayCounter> counters;
+    private final ThreadLocal<DayCounter> exactCounters;
+
+    // Tireurs de jours par mots de 64 bits découpés, un par thread (null si les jours sont tirés avec nextInt)
+    private final ThreadLocal<PackedUniformSampler> samplers;
+
+    // Table des jours pondérés, partagée en lecture seule par tous les threads (null si les jours sont équiprobables)
+    private final AliasTable dayWeights;
+
 
     public BirthdayExperiment(int K, int Y, int M) {
+        this(K, Y, M, false);
+    }
+
+    /**
+     * Crée l'expérience en choisissant la manière de tirer les jours.
+     * @param K           le nombre de personnes.
+     * @param Y           le nombre de jours dans une année.
+     * @param M           le nombre minimum d'occurrences pour un succès.
+     * @param packedDraws true pour extraire plusieurs jours de chaque nombre aléatoire de 64 bits, sans division
+     *                    (voir {@link PackedUniformSampler}), false pour tirer chaque jour avec nextInt(Y), qui
+     *                    reproduit les séquences des versions précédentes.
+     */
+    public BirthdayExperiment(int K, int Y, int M, boolean packedDraws) {
         this.K = K;
         this.Y = Y;
         this.M = M;
+        this.counters = ThreadLocal.withInitial(() -> DayCounter.create(Y, M));
+        this.exactCounters = ThreadLocal.withInitial(() -> DayCounter.create(Y, Math.max(K, M)));
+        this.samplers = packedDraws ? ThreadLocal.withInitial(() -> new PackedUniformSampler(Y)) : null;
+        this.dayWeights = null;
+    }
+
+    /**
+     * Crée l'expérience avec des jours non équiprobables, par exemple les fréquences observées des naissances.
+     * Chaque jour est tiré en temps constant par la méthode des alias.
+     * @param K          le nombre de personnes.
+     * @param dayWeights la table des poids des Y jours, qui peut être partagée par plusieurs expériences.
+     * @param M          le nombre minimum d'occurrences pour un succès.
+     */
+    public BirthdayExperiment(int K, AliasTable dayWeights, int M) {
+        int Y = dayWeights.size();
+        this.K = K;
+        this.Y = Y;
+        this.M = M;
+        this.counters = ThreadLocal.withInitial(() -> DayCounter.create(Y, M));
+        this.exactCounters = ThreadLocal.withInitial(() -> DayCounter.create(Y, Math.max(K, M)));
+        this.samplers = null;
+        this.dayWeights = dayWeights;
     }
 
     /**
@@ -27,20 +80,151 @@ public class BirthdayExperiment implements Experiment {
      * @return 1.0 si au moins une date est choisie M fois ou plus (succès), 0.0 sinon (échec).
      */
     @Override
-    public double execute(Random rnd) {
-        // Tableau pour compter les occurrences de chaque jour
-        int[] dayCount = new int[Y];
+    public double execute(RandomGenerator rnd) {
+        // Les tirages restants d'une exécution précédente ne sont pas réutilisés : le résultat ne dépend que de rnd
+        PackedUniformSampler sampler = resetSampler();
+        return simulate(rnd, counters.get(), sampler);
+    }
+
+    /**
+     * Exécute l'expérience n fois et ajoute les résultats à sink.
+     * Les succès sont comptés dans une boucle sans appel virtuel, puis ajoutés au collecteur en une seule fois.
+     * Comme dans execute, les tirages restants sont abandonnés à chaque réalisation : les résultats sont ceux de n
+     * appels successifs à execute.
+     * @param rnd  un générateur de nombres pseudo-aléatoires utilisé pour simuler les anniversaires.
+     * @param n    le nombre de réalisations.
+     * @param sink le collecteur des résultats.
+     */
+    @Override
+    public void executeBatch(RandomGenerator rnd, long n, Collector sink) {
+        DayCounter dayCount = counters.get();
+        PackedUniformSampler sampler = resetSampler();
+        long successes = 0;
+        for (long run = 0; run < n; run++) {
+            if (sampler != null) {
+                sampler.reset();
+            }
+            successes += simulate(rnd, dayCount, sampler);
+        }
+
+        sink.addBernoulli(n, successes);
+    }
+
+    /**
+     * Retourne l'espérance du nombre de paires de personnes nées le même jour.
+     * Chacune des K(K-1)/2 paires partage le même jour avec une probabilité 1/Y, ou la somme des carrés des
+     * probabilités des jours s'ils sont pondérés.
+     * @return K(K-1)/(2Y) pour des jours équiprobables.
+     */
+    @Override
+    public double getControlExpectation() {
+        if (dayWeights != null) {
+            return (double) K * (K - 1) / 2.0 * dayWeights.collisionProbability();
+        }
+        return (double) K * (K - 1) / (2.0 * Y);
+    }
+
+    /**
+     * Exécute l'expérience n fois et ajoute à sink le résultat de chaque réalisation avec le nombre de paires de
+     * personnes nées le même jour. Les K anniversaires sont toujours tirés, même après un succès.
+     * @param rnd  un générateur de nombres pseudo-aléatoires utilisé pour simuler les anniversaires.
+     * @param n    le nombre de réalisations.
+     * @param sink le collecteur des résultats et des variables de contrôle.
+     */
+    @Override
+    public void executeWithControl(RandomGenerator rnd, long n, ControlVariateCollector sink) {
+        DayCounter dayCount = exactCounters.get();
+        PackedUniformSampler sampler = resetSampler();
+        for (long run = 0; run < n; run++) {
+            dayCount.reset();
+            int maxCount = 0;
+            long pairs = 0;
+            for (int i = 0; i < K; i++) {
+                int count = dayCount.increment(nextDay(rnd, sampler));
+
+                // La nouvelle personne forme une paire avec chacune des personnes déjà nées ce jour-là
+                pairs += count - 1;
+                maxCount = Math.max(maxCount, count);
+            }
+            sink.add(maxCount >= M ? 1.0 : 0.0, pairs);
+        }
+    }
+
+    /**
+     * Effectue une réalisation de l'expérience.
+     * @param rnd      un générateur de nombres pseudo-aléatoires utilisé pour simuler les anniversaires.
+     * @param dayCount les compteurs d'occurrences du thread courant.
+     * @param sampler  le tireur de jours du thread courant, null pour tirer les jours avec nextInt.
+     * @return 1 en cas de succès, 0 sinon.
+     */
+    private int simulate(RandomGenerator rnd, DayCounter dayCount, PackedUniformSampler sampler) {
+        // Compteurs des occurrences de chaque jour, remis à zéro par époque ou en quelques écritures
+        dayCount.reset();
+
+        // Une boucle par représentation des compteurs : chaque appel à increment ne voit qu'une classe et peut être
+        // inliné
+        return switch (dayCount) {
+            case DayBitSet seen -> simulate(rnd, seen, sampler);
+            case PackedDayCounter packed -> simulate(rnd, packed, sampler);
+            case EpochDayCounter counts -> simulate(rnd, counts, sampler);
+        };
+    }
+
+    /**
+     * Génère K anniversaires aléatoires et vérifie si une date atteint M occurrences, avec des compteurs remis à zéro.
+     * Une surcharge par représentation des compteurs.
+     * @return 1 en cas de succès, 0 sinon.
+     */
+    private int simulate(RandomGenerator rnd, DayBitSet seen, PackedUniformSampler sampler) {
+        for (int i = 0; i < K; i++) {
+            if (seen.increment(nextDay(rnd, sampler)) >= M) {
+                return 1;
+            }
+        }
+        return 0;
+    }
 
-        // Génère K anniversaires aléatoires
+    private int simulate(RandomGenerator rnd, PackedDayCounter packed, PackedUniformSampler sampler) {
         for (int i = 0; i < K; i++) {
-            int day = rnd.nextInt(Y); // Tirer un jour aléatoire entre 0 et Y-1
-            dayCount[day]++;
+            if (packed.increment(nextDay(rnd, sampler)) >= M) {
+                return 1;
+            }
+        }
+        return 0;
+    }
 
-            // Vérifie si une date atteint M occurrences
-            if (dayCount[day] >= M) {
-                return 1.0;
+    private int simulate(RandomGenerator rnd, EpochDayCounter counts, PackedUniformSampler sampler) {
+        for (int i = 0; i < K; i++) {
+            if (counts.increment(nextDay(rnd, sampler)) >= M) {
+                return 1;
             }
         }
-        return 0.0;
+        return 0;
+    }
+
+    /**
+     * Tire un jour aléatoire entre 0 et Y-1, selon les poids des jours s'ils sont pondérés.
+     * @param rnd     un générateur de nombres pseudo-aléatoires.
+     * @param sampler le tireur de jours du thread courant, null pour tirer les jours avec nextInt.
+     * @return le jour tiré.
+     */
+    private int nextDay(RandomGenerator rnd, PackedUniformSampler sampler) {
+        if (dayWeights != null) {
+            return dayWeights.next(rnd);
+        }
+        return sampler == null ? rnd.nextInt(Y) : sampler.next(rnd);
+    }
+
+    /**
+     * Retourne le tireur de jours du thread courant, vidé des tirages restants.
+     * @return le tireur, ou null si les jours sont tirés avec nextInt.
+     */
+    private PackedUniformSampler resetSampler() {
+        if (samplers == null) {
+            return null;
+        }
+        PackedUniformSampler sampler = samplers.get();
+        sampler.reset();
+        return sampler;
     }
-}
\ No newline at end of file
+}
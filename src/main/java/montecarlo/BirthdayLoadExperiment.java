@@ -0,0 +1,95 @@
+package montecarlo;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Classe implémentant une expérience qui tire les dates d'anniversaire de K personnes parmi Y jours équiprobables et
+ * mesure plusieurs grandeurs sur la même réalisation :
+ * <ul>
+ *     <li>{@link #MAX_LOAD} : le plus grand nombre de personnes nées le même jour ;</li>
+ *     <li>{@link #COLLIDING_DAYS} : le nombre de jours où sont nées au moins deux personnes ;</li>
+ *     <li>{@link #thresholdMetric(int)} : pour chaque seuil M donné, 1.0 si une date est choisie M fois ou plus,
+ *     0.0 sinon, comme {@link BirthdayExperiment}.</li>
+ * </ul>
+ * Une seule simulation estime ainsi toutes ces grandeurs. Les K anniversaires sont toujours tirés.
+ */
+public class BirthdayLoadExperiment implements MultiMetricExperiment {
+
+    /**
+     * Indice de la charge maximale d'un jour.
+     */
+    public static final int MAX_LOAD = 0;
+
+    /**
+     * Indice du nombre de jours partagés par au moins deux personnes.
+     */
+    public static final int COLLIDING_DAYS = 1;
+
+    private final int K;            // Nombre de personnes
+    private final int Y;            // Nombre de jours dans une année
+    private final int[] thresholds; // Nombres d'occurrences recherchés
+
+    // Compteurs de jours exacts jusqu'à K, réutilisés d'une exécution à l'autre, un jeu par thread
+    private final ThreadLocal<DayCounter> counters;
+
+    /**
+     * Crée l'expérience.
+     * @param K          le nombre de personnes.
+     * @param Y          le nombre de jours dans une année.
+     * @param thresholds les nombres minimaux d'occurrences d'une même date dont on estime la probabilité.
+     * @throws IllegalArgumentException si un seuil n'est pas positif.
+     */
+    public BirthdayLoadExperiment(int K, int Y, int... thresholds) {
+        for (int M : thresholds) {
+            if (M < 1) {
+                throw new IllegalArgumentException("Thresholds should be positive.");
+            }
+        }
+        this.K = K;
+        this.Y = Y;
+        this.thresholds = thresholds.clone();
+        this.counters = ThreadLocal.withInitial(() -> DayCounter.create(Y, Math.max(K, 2)));
+    }
+
+    @Override
+    public int getNumberOfMetrics() {
+        return 2 + thresholds.length;
+    }
+
+    /**
+     * Retourne l'indice de l'indicatrice du seuil donné.
+     * @param j l'indice du seuil, dans l'ordre donné au constructeur.
+     * @return l'indice de la grandeur « une date est choisie au moins thresholds[j] fois ».
+     */
+    public int thresholdMetric(int j) {
+        return 2 + j;
+    }
+
+    /**
+     * Exécute l'expérience
+     * @param rnd     un générateur de nombres pseudo-aléatoires utilisé pour simuler les anniversaires.
+     * @param metrics le tableau recevant les grandeurs mesurées, aux indices décrits plus haut.
+     */
+    @Override
+    public void execute(RandomGenerator rnd, double[] metrics) {
+        DayCounter dayCount = counters.get();
+        dayCount.reset();
+        int maxLoad = 0;
+        int collidingDays = 0;
+        for (int i = 0; i < K; i++) {
+            int count = dayCount.increment(rnd.nextInt(Y));
+            maxLoad = Math.max(maxLoad, count);
+
+            // Un jour ne compte qu'une fois, quand sa deuxième personne est tirée
+            if (count == 2) {
+                collidingDays++;
+            }
+        }
+
+        metrics[MAX_LOAD] = maxLoad;
+        metrics[COLLIDING_DAYS] = collidingDays;
+        for (int j = 0; j < thresholds.length; j++) {
+            metrics[2 + j] = maxLoad >= thresholds[j] ? 1.0 : 0.0;
+        }
+    }
+}
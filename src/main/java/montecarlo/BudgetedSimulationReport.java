@@ -0,0 +1,51 @@
+package montecarlo;
+
+import java.time.Duration;
+
+/**
+ * Summary of a simulation performed with a {@link SequentialStoppingRule} within a budget of time and runs.
+ *
+ * @param runs          total number of runs performed
+ * @param batches       number of batches of runs, the initial one included
+ * @param halfWidth     half width of the confidence interval reached
+ * @param projectedRuns number of runs that were needed to reach the maximal half width, according to the final
+ *                      estimate of the standard deviation
+ * @param stoppedBy     condition which stopped the simulation
+ * @param elapsed       duration of the simulation
+ * @param runsPerSecond number of runs performed per second
+ */
+public record BudgetedSimulationReport(long runs,
+                                       int batches,
+                                       double halfWidth,
+                                       long projectedRuns,
+                                       StopCondition stoppedBy,
+                                       Duration elapsed,
+                                       double runsPerSecond) {
+
+    /**
+     * Conditions which may stop a budgeted simulation.
+     */
+    public enum StopCondition {
+        /**
+         * The half width of the confidence interval reached its maximum.
+         */
+        TARGET_HALF_WIDTH,
+        /**
+         * The maximal number of runs was performed.
+         */
+        MAX_RUNS,
+        /**
+         * The time budget was spent, or too little of it was left for another batch.
+         */
+        DEADLINE
+    }
+
+    /**
+     * Returns whether the half width of the confidence interval reached its maximum.
+     *
+     * @return true if the simulation reached its target precision
+     */
+    public boolean targetReached() {
+        return stoppedBy == StopCondition.TARGET_HALF_WIDTH;
+    }
+}
@@ -0,0 +1,152 @@
+package montecarlo;
+
+import statistics.BernoulliCollector;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Histogram of the realizations of a {@link FirstCollisionTimeExperiment}, from which the probability that a date is
+ * chosen at least M times among K people is estimated for every K up to maxK at once.
+ * <p>
+ * The estimates for the different K are computed from the same realizations (common random numbers), so that their
+ * differences are estimated much more precisely than with independent simulations.
+ */
+public class CollisionTimeSweep {
+
+    private final int maxK;
+    private final long[] counts; // counts[t] : nombre de réalisations de résultat t, pour t de 1 à maxK + 1
+    private long numberOfRuns;
+
+    /**
+     * Creates an empty histogram for group sizes up to maxK.
+     *
+     * @param maxK largest group size considered
+     */
+    public CollisionTimeSweep(int maxK) {
+        this.maxK = maxK;
+        this.counts = new long[maxK + 2];
+    }
+
+    /**
+     * Simulates experiment exp n times, using rnd as a source of pseudo-random numbers, and returns the histogram
+     * of the results.
+     *
+     * @param exp experiment to be run each time
+     * @param n   number of runs to be performed
+     * @param rnd random source to be used to simulate the experiment
+     * @return the histogram of the n realizations
+     */
+    public static CollisionTimeSweep simulate(FirstCollisionTimeExperiment exp, long n, RandomGenerator rnd) {
+        CollisionTimeSweep sweep = new CollisionTimeSweep(exp.getMaxK());
+        exp.executeBatch(rnd, n, sweep);
+        return sweep;
+    }
+
+    /**
+     * Adds a realization to the histogram.
+     *
+     * @param time number of people drawn when a date reached M occurrences, maxK + 1 if it did not happen
+     * @throws IllegalArgumentException if time is not between 1 and maxK + 1
+     */
+    public void add(int time) {
+        if (time < 1 || time > maxK + 1) {
+            throw new IllegalArgumentException("Collision time should be between 1 and " + (maxK + 1) + ".");
+        }
+        counts[time]++;
+        numberOfRuns++;
+    }
+
+    /**
+     * Adds all the realizations of other to this histogram.
+     *
+     * @param other histogram with the same maxK
+     * @throws IllegalArgumentException if the histograms do not have the same maxK
+     */
+    public void merge(CollisionTimeSweep other) {
+        if (other.maxK != maxK) {
+            throw new IllegalArgumentException("Only histograms with the same maxK can be merged.");
+        }
+        for (int t = 1; t <= maxK + 1; t++) {
+            counts[t] += other.counts[t];
+        }
+        numberOfRuns += other.numberOfRuns;
+    }
+
+    /**
+     * Returns the number of realizations in the histogram.
+     *
+     * @return the number of runs
+     */
+    public long getNumberOfRuns() {
+        return numberOfRuns;
+    }
+
+    /**
+     * Returns the number of realizations in which a date was chosen M times among the first K people.
+     *
+     * @param K group size, between 1 and maxK
+     * @return the number of successes for K
+     * @throws IllegalArgumentException if K is not between 1 and maxK
+     */
+    public long getNumberOfSuccesses(int K) {
+        if (K < 1 || K > maxK) {
+            throw new IllegalArgumentException("Group size should be between 1 and " + maxK + ".");
+        }
+        long successes = 0;
+        for (int t = 1; t <= K; t++) {
+            successes += counts[t];
+        }
+        return successes;
+    }
+
+    /**
+     * Returns the results for group size K, as they would have been collected by simulating a
+     * {@link BirthdayExperiment} with K people on the same random numbers.
+     *
+     * @param K group size, between 1 and maxK
+     * @return a new collector of the results for K
+     */
+    public BernoulliCollector getCollector(int K) {
+        BernoulliCollector stat = new BernoulliCollector();
+        stat.addBernoulli(numberOfRuns, getNumberOfSuccesses(K));
+        return stat;
+    }
+
+    /**
+     * Returns the estimated probability that a date is chosen at least M times among K people.
+     *
+     * @param K group size, between 1 and maxK
+     * @return the estimated probability
+     */
+    public double getEstimate(int K) {
+        return getCollector(K).getAverage();
+    }
+
+    /**
+     * Returns the half width of the confidence interval with given level of the probability for K.
+     *
+     * @param K     group size, between 1 and maxK
+     * @param level the desired level of confidence of the C.I.
+     * @return the half-width of the C.I
+     */
+    public double getConfidenceIntervalHalfWidth(int K, double level) {
+        return getCollector(K).getConfidenceIntervalHalfWidth(level);
+    }
+
+    /**
+     * Returns the smallest group size whose estimated probability is greater than probability.
+     *
+     * @param probability threshold
+     * @return the minimal group size, or -1 if no group size up to maxK reaches the threshold
+     */
+    public int findMinimalK(double probability) {
+        long successes = 0;
+        for (int K = 1; K <= maxK; K++) {
+            successes += counts[K];
+            if ((double) successes / numberOfRuns > probability) {
+                return K;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,29 @@
+package montecarlo;
+
+import statistics.ControlVariateCollector;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Experiments which, besides their performance measure, report a correlated control variate of known expectation
+ * should implement this interface, so that they can be simulated with a control variate.
+ */
+public interface ControlVariateExperiment extends Experiment {
+
+	/**
+	 * Returns the exact expectation of the control variate reported by the experiment.
+	 *
+	 * @return the expectation of the control variate
+	 */
+	double getControlExpectation();
+
+	/**
+	 * Simulates the experiment n times, using rnd as a source of pseudo-random numbers, and collects the pairs
+	 * (performance measure, control variate) of each realization in sink.
+	 *
+	 * @param rnd  random source to be used to simulate the experiment
+	 * @param n    number of runs to be performed
+	 * @param sink collector to be used to collect the realizations
+	 */
+	void executeWithControl(RandomGenerator rnd, long n, ControlVariateCollector sink);
+}
@@ -0,0 +1,132 @@
+package montecarlo;
+
+import statistics.Collector;
+import statistics.StatCollector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGenerator.SplittableGenerator;
+
+/**
+ * This class provides methods for estimating the coverage of the confidence intervals computed by Monte Carlo
+ * simulations: many independent replications of a simulation are performed, and the proportion of their confidence
+ * intervals which contain the true value of the estimated quantity is measured.
+ * <p>
+ * The replications run concurrently, each on its own stream split from the given SplittableGenerator in the order
+ * of the replications, so that the result does not depend on the number of threads. The experiment is executed
+ * concurrently by several threads and must therefore be thread-safe. They may also run one after another on a single
+ * generator (see {@link #runSequentially(Experiment, double, double, long, int, RandomGenerator)}).
+ */
+public class CoverageStudy {
+
+    /**
+     * Private constructor. Makes it impossible to instantiate.
+     */
+    private CoverageStudy() {
+    }
+
+    /**
+     * Performs replications simulations of sampleSize runs of exp in the common ForkJoinPool, each collected in a
+     * StatCollector, and counts the confidence intervals of given level which contain trueValue.
+     *
+     * @param exp          experiment to be run each time
+     * @param trueValue    true value of the mean of the performance measure of exp
+     * @param level        confidence level of the confidence intervals
+     * @param sampleSize   number of runs of each replication
+     * @param replications number of replications
+     * @param rnd          random source from which the stream of each replication is split
+     * @return the number of replications and of intervals containing trueValue among them
+     */
+    public static CoverageStudyResult run(Experiment exp, double trueValue, double level, long sampleSize,
+                                          int replications, SplittableGenerator rnd) {
+        return run(exp, trueValue, level, sampleSize, replications, rnd, StatCollector::new,
+                ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Performs replications simulations of sampleSize runs of exp in executor, each collected in a new collector
+     * of collectors, and counts the confidence intervals of given level which contain trueValue.
+     *
+     * @param exp          experiment to be run each time
+     * @param trueValue    true value of the mean of the performance measure of exp
+     * @param level        confidence level of the confidence intervals
+     * @param sampleSize   number of runs of each replication
+     * @param replications number of replications
+     * @param rnd          random source from which the stream of each replication is split
+     * @param collectors   provides the collector of each replication
+     * @param executor     executor whose threads perform the replications
+     * @return the number of replications and of intervals containing trueValue among them
+     * @throws IllegalStateException if a replication fails or the calling thread is interrupted
+     */
+    public static CoverageStudyResult run(Experiment exp, double trueValue, double level, long sampleSize,
+                                          int replications, SplittableGenerator rnd,
+                                          Supplier<? extends Collector> collectors, ExecutorService executor) {
+        // Les flux sont dérivés dans l'ordre des répétitions par le thread appelant, donc de manière déterministe
+        List<Callable<Boolean>> tasks = new ArrayList<>(replications);
+        for (int i = 0; i < replications; i++) {
+            SplittableGenerator stream = rnd.split();
+            tasks.add(() -> containsTrueValue(exp, trueValue, level, sampleSize, stream, collectors.get()));
+        }
+
+        long intervalsContainingTrueValue = 0;
+        try {
+            for (Future<Boolean> result : executor.invokeAll(tasks)) {
+                if (result.get()) {
+                    intervalsContainingTrueValue++;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Coverage study interrupted.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A replication of the coverage study failed.", e.getCause());
+        }
+        return new CoverageStudyResult(replications, intervalsContainingTrueValue);
+    }
+
+    /**
+     * Performs replications simulations of sampleSize runs of exp one after another in the calling thread, all of
+     * them drawing from rnd, each collected in a StatCollector, and counts the confidence intervals of given level
+     * which contain trueValue. The replications are thus not independent of their order, but a given generator gives
+     * the same results as successive calls to {@link MonteCarloSimulation#simulateNRuns(Experiment, long,
+     * RandomGenerator, Collector)} on it.
+     *
+     * @param exp          experiment to be run each time
+     * @param trueValue    true value of the mean of the performance measure of exp
+     * @param level        confidence level of the confidence intervals
+     * @param sampleSize   number of runs of each replication
+     * @param replications number of replications
+     * @param rnd          random source shared by all the replications
+     * @return the number of replications and of intervals containing trueValue among them
+     */
+    public static CoverageStudyResult runSequentially(Experiment exp, double trueValue, double level,
+                                                      long sampleSize, int replications, RandomGenerator rnd) {
+        long intervalsContainingTrueValue = 0;
+        for (int i = 0; i < replications; i++) {
+            if (containsTrueValue(exp, trueValue, level, sampleSize, rnd, new StatCollector())) {
+                intervalsContainingTrueValue++;
+            }
+        }
+        return new CoverageStudyResult(replications, intervalsContainingTrueValue);
+    }
+
+    /**
+     * Performs one replication of sampleSize runs of exp collected in stat, and tells whether its confidence
+     * interval contains trueValue.
+     */
+    private static boolean containsTrueValue(Experiment exp, double trueValue, double level, long sampleSize,
+                                             RandomGenerator rnd, Collector stat) {
+        MonteCarloSimulation.simulateNRuns(exp, sampleSize, rnd, stat);
+
+        // Vérifier si l'intervalle contient la vraie valeur
+        double halfWidth = stat.getConfidenceIntervalHalfWidth(level);
+        return Math.abs(stat.getAverage() - trueValue) <= halfWidth;
+    }
+}
@@ -0,0 +1,43 @@
+package montecarlo;
+
+import statistics.BernoulliCollector;
+
+/**
+ * Result of a {@link CoverageStudy}.
+ *
+ * @param replications                 number of replications performed
+ * @param intervalsContainingTrueValue number of confidence intervals which contained the true value
+ */
+public record CoverageStudyResult(long replications, long intervalsContainingTrueValue) {
+
+    /**
+     * Returns the empirical coverage, i.e. the proportion of intervals which contained the true value.
+     *
+     * @return the empirical coverage
+     */
+    public double coverage() {
+        return (double) intervalsContainingTrueValue / replications;
+    }
+
+    /**
+     * Returns the replications as Bernoulli observations (1.0 when the interval contained the true value), from
+     * which confidence intervals for the coverage can be computed.
+     *
+     * @return a new collector of the replications
+     */
+    public BernoulliCollector collector() {
+        BernoulliCollector stat = new BernoulliCollector();
+        stat.addBernoulli(replications, intervalsContainingTrueValue);
+        return stat;
+    }
+
+    /**
+     * Returns the half width of the normal confidence interval with given level for the coverage.
+     *
+     * @param level the desired level of confidence of the C.I.
+     * @return the half-width of the C.I
+     */
+    public double confidenceIntervalHalfWidth(double level) {
+        return collector().getConfidenceIntervalHalfWidth(level);
+    }
+}
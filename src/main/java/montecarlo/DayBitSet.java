@@ -0,0 +1,44 @@
+package montecarlo;
+
+/**
+ * Ensemble des jours déjà tirés, un bit par jour : suffisant pour détecter le premier jour tiré deux fois. Pour
+ * Y = 365, l'ensemble tient dans six long, remis à zéro en six écritures.
+ */
+final class DayBitSet implements DayCounter {
+    private final long[] words; // Bit (day & 63) du mot day >>> 6 : jour déjà tiré
+
+    DayBitSet(int Y) {
+        words = new long[words(Y)];
+    }
+
+    /**
+     * Retourne le nombre de long nécessaires pour Y jours.
+     * @param Y le nombre de jours.
+     * @return le nombre de mots de l'ensemble.
+     */
+    static int words(int Y) {
+        return (Y + Long.SIZE - 1) / Long.SIZE;
+    }
+
+    @Override
+    public void reset() {
+        // Boucle simple plutôt qu'Arrays.fill, dont l'appel coûte plus que ces quelques écritures
+        for (int i = 0; i < words.length; i++) {
+            words[i] = 0L;
+        }
+    }
+
+    /**
+     * Ajoute le jour donné à l'ensemble.
+     * @param day le jour tiré, entre 0 et Y-1.
+     * @return 1 si le jour n'avait pas encore été tiré, 2 sinon.
+     */
+    @Override
+    public int increment(int day) {
+        // Le décalage d'un long ne garde que les 6 bits de poids faible de day
+        long bit = 1L << day;
+        long word = words[day >>> 6];
+        words[day >>> 6] = word | bit;
+        return (word & bit) == 0 ? 1 : 2;
+    }
+}
@@ -0,0 +1,49 @@
+package montecarlo;
+
+/**
+ * Compteurs d'occurrences par jour, réutilisés d'une exécution à l'autre. Un jeu de compteurs ne doit être utilisé
+ * que par un thread.
+ * <p>
+ * Les compteurs peuvent être plafonnés : une représentation prévue pour détecter M occurrences ne compte exactement
+ * que jusqu'à M au moins, puis reste à son plafond. {@link #create(int, int)} choisit la représentation la plus
+ * compacte pour (Y, M) : un ensemble de bits si M &le; 2, des compteurs de 2 ou 4 bits regroupés dans des long si
+ * M &le; 15, et sinon des compteurs int remis à zéro par époque. Les représentations compactes sont vidées mot par
+ * mot : elles ne sont choisies que si elles tiennent dans {@value #MAX_PACKED_WORDS} long.
+ */
+sealed interface DayCounter permits DayBitSet, PackedDayCounter, EpochDayCounter {
+
+    /**
+     * Nombre maximal de long d'une représentation compacte, qui sont tous remis à zéro à chaque exécution.
+     */
+    int MAX_PACKED_WORDS = 64;
+
+    /**
+     * Crée les compteurs les plus compacts capables de détecter M occurrences d'un même jour parmi Y.
+     * @param Y le nombre de jours.
+     * @param M le nombre d'occurrences qui doit être compté exactement.
+     * @return les compteurs.
+     */
+    static DayCounter create(int Y, int M) {
+        if (M <= 2 && DayBitSet.words(Y) <= MAX_PACKED_WORDS) {
+            return new DayBitSet(Y);
+        }
+        for (int bits : PackedDayCounter.COUNTER_BITS) {
+            if (M <= PackedDayCounter.capacity(bits) && PackedDayCounter.words(Y, bits) <= MAX_PACKED_WORDS) {
+                return new PackedDayCounter(Y, bits);
+            }
+        }
+        return new EpochDayCounter(Y);
+    }
+
+    /**
+     * Remet tous les compteurs à zéro.
+     */
+    void reset();
+
+    /**
+     * Incrémente le compteur du jour donné.
+     * @param day le jour tiré, entre 0 et Y-1.
+     * @return le nombre d'occurrences du jour après incrémentation, plafonné par la représentation.
+     */
+    int increment(int day);
+}
@@ -0,0 +1,48 @@
+package montecarlo;
+
+import java.util.Arrays;
+
+/**
+ * Compteurs d'occurrences par jour remis à zéro en temps constant, sans limite sur le nombre d'occurrences.
+ * Chaque compteur est associé à l'époque de sa dernière écriture : un compteur dont l'époque
+ * n'est pas l'époque courante vaut zéro. Seuls les jours tirés sont donc touchés à chaque exécution,
+ * et aucune allocation n'a lieu après la création. Un jeu de compteurs ne doit être utilisé que par un thread.
+ */
+final class EpochDayCounter implements DayCounter {
+    private final int[] counts; // Occurrences de chaque jour
+    private final int[] epochs; // Époque de la dernière écriture de chaque compteur
+    private int epoch;          // Époque courante
+
+    EpochDayCounter(int Y) {
+        counts = new int[Y];
+        epochs = new int[Y];
+    }
+
+    /**
+     * Remet tous les compteurs à zéro en passant à l'époque suivante.
+     */
+    @Override
+    public void reset() {
+        epoch++;
+        // Après un dépassement, les époques stockées pourraient être confondues avec la courante
+        if (epoch == 0) {
+            Arrays.fill(epochs, 0);
+            epoch = 1;
+        }
+    }
+
+    /**
+     * Incrémente le compteur du jour donné.
+     * @param day le jour tiré, entre 0 et Y-1.
+     * @return le nombre d'occurrences du jour après incrémentation.
+     */
+    @Override
+    public int increment(int day) {
+        if (epochs[day] != epoch) {
+            epochs[day] = epoch;
+            counts[day] = 1;
+            return 1;
+        }
+        return ++counts[day];
+    }
+}
@@ -1,6 +1,8 @@
 package montecarlo;
 
-import java.util.Random;
+import statistics.Collector;
+
+import java.util.random.RandomGenerator;
 
 /**
  * Classes to be used for Monte Carlo simulations should implement this interface.
@@ -13,5 +15,25 @@ public interface Experiment {
 	 * @param rnd random source to be used to simulate the experiment
 	 * @return realization of the performance measure for the experiment (of type double)
 	 */
-	double execute(Random rnd);
+	double execute(RandomGenerator rnd);
+
+	/**
+	 * Simulates the experiment n times, using rnd as a source of pseudo-random numbers, and collects the
+	 * realizations in sink.
+	 * <p>
+	 * The default implementation calls {@link #execute(RandomGenerator)} n times. Implementations may override it with a
+	 * specialized loop, as long as the collected results have the same distribution as those of n successive calls to
+	 * execute and are reproducible: the same state of rnd and the same n give the same results. An implementation may
+	 * draw the numbers of rnd in another order or quantity than execute, so that the results may differ from those of
+	 * n successive calls, as for {@link VectorBirthdayExperiment}.
+	 *
+	 * @param rnd  random source to be used to simulate the experiment
+	 * @param n    number of runs to be performed
+	 * @param sink collector to be used to collect the realizations
+	 */
+	default void executeBatch(RandomGenerator rnd, long n, Collector sink) {
+		for (long run = 0; run < n; ++run) {
+			sink.add(execute(rnd));
+		}
+	}
 }
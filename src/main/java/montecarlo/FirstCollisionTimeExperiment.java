@@ -0,0 +1,78 @@
+package montecarlo;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Classe implémentant une expérience qui tire des dates d'anniversaire parmi Y jours possibles, personne après
+ * personne, jusqu'à ce qu'une date soit choisie M fois. Le résultat est le nombre T de personnes tirées à ce
+ * moment-là.
+ * <p>
+ * Une seule réalisation répond ainsi à la question de {@link BirthdayExperiment} pour tous les K à la fois :
+ * parmi les K premières personnes, une date est choisie M fois ou plus si et seulement si T &le; K.
+ * Les tirages s'arrêtent après maxK personnes : T vaut alors maxK + 1.
+ */
+public class FirstCollisionTimeExperiment implements Experiment {
+    private final int Y;    // Nombre de jours dans une année
+    private final int M;    // Nombre d'occurrences recherché
+    private final int maxK; // Nombre maximal de personnes tirées
+
+    // Compteurs de jours réutilisés d'une exécution à l'autre, un jeu par thread, les plus compacts qui détectent
+    // M occurrences
+    private final ThreadLocal<DayCounter> counters;
+
+    /**
+     * Crée l'expérience.
+     * @param Y    le nombre de jours dans une année.
+     * @param M    le nombre d'occurrences d'une même date recherché.
+     * @param maxK le plus grand nombre de personnes considéré.
+     */
+    public FirstCollisionTimeExperiment(int Y, int M, int maxK) {
+        this.Y = Y;
+        this.M = M;
+        this.maxK = maxK;
+        this.counters = ThreadLocal.withInitial(() -> DayCounter.create(Y, M));
+    }
+
+    /**
+     * Exécute l'expérience
+     * @param rnd un générateur de nombres pseudo-aléatoires utilisé pour simuler les anniversaires.
+     * @return le nombre de personnes tirées lorsqu'une date atteint M occurrences, maxK + 1 si cela n'arrive pas
+     * parmi les maxK premières personnes.
+     */
+    @Override
+    public double execute(RandomGenerator rnd) {
+        return drawCollisionTime(rnd, counters.get());
+    }
+
+    /**
+     * Exécute l'expérience n fois et ajoute les résultats à l'histogramme sweep.
+     * @param rnd   un générateur de nombres pseudo-aléatoires utilisé pour simuler les anniversaires.
+     * @param n     le nombre de réalisations.
+     * @param sweep l'histogramme des résultats, couvrant au moins les valeurs 1 à maxK + 1.
+     */
+    public void executeBatch(RandomGenerator rnd, long n, CollisionTimeSweep sweep) {
+        DayCounter dayCount = counters.get();
+        for (long run = 0; run < n; run++) {
+            sweep.add(drawCollisionTime(rnd, dayCount));
+        }
+    }
+
+    /**
+     * Retourne le plus grand nombre de personnes considéré.
+     * @return maxK.
+     */
+    public int getMaxK() {
+        return maxK;
+    }
+
+    private int drawCollisionTime(RandomGenerator rnd, DayCounter dayCount) {
+        dayCount.reset();
+        for (int i = 1; i <= maxK; i++) {
+            int day = rnd.nextInt(Y); // Tirer un jour aléatoire entre 0 et Y-1
+            if (dayCount.increment(day) >= M) {
+                return i;
+            }
+        }
+        return maxK + 1;
+    }
+}
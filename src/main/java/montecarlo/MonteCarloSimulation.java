@@ -1,20 +1,51 @@
 package montecarlo;
 
+import statistics.Collector;
+import statistics.ControlVariateCollector;
+import statistics.Estimator;
 import statistics.InverseStdNormalCDF;
+import statistics.MultiStatCollector;
 import statistics.StatCollector;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Random;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongConsumer;
+import java.util.function.LongSupplier;
+import java.util.random.RandomGenerator;
 
 /**
  * This class provides methods for simple Monte Carlo simulations.
  */
 public class MonteCarloSimulation {
+
+    /**
+     * Number of runs between two possible checkpoints of a checkpointed simulation.
+     */
+    public static final long RUNS_PER_SEGMENT = 1L << 20;
+
     /**
      * Private constructor. Makes it impossible to instantiate.
      */
     private MonteCarloSimulation() {
     }
 
+    /**
+     * Same as {@link #simulateNRuns(Experiment, long, RandomGenerator, Collector)}, for a java.util.Random source.
+     *
+     * @param exp  experiment to be run each time
+     * @param n    number of runs to be performed
+     * @param rnd  random source to be used to simulate the experiment
+     * @param stat collector to be used to collect the results of each experiment
+     */
+    public static void simulateNRuns(Experiment exp, long n, Random rnd, Collector stat) {
+        simulateNRuns(exp, n, (RandomGenerator) rnd, stat);
+    }
+
     /**
      * Simulates experiment exp n times, using rnd as a source of pseudo-random numbers and collect
      * the results in stat.
@@ -24,10 +55,32 @@ public class MonteCarloSimulation {
      * @param rnd  random source to be used to simulate the experiment
      * @param stat collector to be used to collect the results of each experiment
      */
-    public static void simulateNRuns(Experiment exp, long n, Random rnd, StatCollector stat) {
-        for (long run = 0; run < n; ++run) {
-            stat.add(exp.execute(rnd));
-        }
+    public static void simulateNRuns(Experiment exp, long n, RandomGenerator rnd, Collector stat) {
+        // Un seul appel pour tout le lot : l'expérience peut fournir une boucle spécialisée
+        exp.executeBatch(rnd, n, stat);
+    }
+
+    /**
+     * Same as {@link #simulateTillGivenCIHalfWidth(Experiment, double, double, long, long, RandomGenerator, Collector)},
+     * for a java.util.Random source.
+     *
+     * @param exp                    experiment to be run each time
+     * @param level                  confidence level of the confidence interval
+     * @param maxHalfWidth           maximal half width of the confidence interval
+     * @param initialNumberOfRuns    initial number of runs to be performed
+     * @param additionalNumberOfRuns additional number of runs to be performed if C.I. is too wide
+     * @param rnd                    random source to be used to simulate the experiment
+     * @param stat                   collector to be used to collect the results of each experiment
+     */
+    public static void simulateTillGivenCIHalfWidth(Experiment exp,
+                                                    double level,
+                                                    double maxHalfWidth,
+                                                    long initialNumberOfRuns,
+                                                    long additionalNumberOfRuns,
+                                                    Random rnd,
+                                                    Collector stat) {
+        simulateTillGivenCIHalfWidth(exp, level, maxHalfWidth, initialNumberOfRuns, additionalNumberOfRuns,
+                (RandomGenerator) rnd, stat);
     }
 
     /**
@@ -45,48 +98,410 @@ public class MonteCarloSimulation {
      * @param additionalNumberOfRuns additional number of runs to be performed if C.I. is too wide
      * @param rnd                    random source to be used to simulate the experiment
      * @param stat                   collector to be used to collect the results of each experiment
+     * @throws IllegalArgumentException if initialNumberOfRuns or additionalNumberOfRuns is not positive
      */
     public static void simulateTillGivenCIHalfWidth(Experiment exp,
                                                     double level,
                                                     double maxHalfWidth,
                                                     long initialNumberOfRuns,
                                                     long additionalNumberOfRuns,
-                                                    Random rnd,
-                                                    StatCollector stat) {
+                                                    RandomGenerator rnd,
+                                                    Collector stat) {
+        simulateTillGivenCIHalfWidth(n -> simulateNRuns(exp, n, rnd, stat),
+                level, maxHalfWidth, initialNumberOfRuns, additionalNumberOfRuns, stat);
+    }
 
-        // Exécuter les réalisations initiales
-        simulateNRuns(exp, initialNumberOfRuns, rnd, stat);
+    /**
+     * Same as {@link #simulateTillGivenCIHalfWidth(Experiment, double, double, long, long, RandomGenerator, Collector)},
+     * publishing the progress of the simulation through monitor after each batch of runs.
+     *
+     * @param exp                    experiment to be run each time
+     * @param level                  confidence level of the confidence interval
+     * @param maxHalfWidth           maximal half width of the confidence interval
+     * @param initialNumberOfRuns    initial number of runs to be performed
+     * @param additionalNumberOfRuns additional number of runs to be performed if C.I. is too wide
+     * @param rnd                    random source to be used to simulate the experiment
+     * @param stat                   collector to be used to collect the results of each experiment
+     * @param monitor                monitor updated after each batch
+     */
+    public static void simulateTillGivenCIHalfWidth(Experiment exp,
+                                                    double level,
+                                                    double maxHalfWidth,
+                                                    long initialNumberOfRuns,
+                                                    long additionalNumberOfRuns,
+                                                    RandomGenerator rnd,
+                                                    Collector stat,
+                                                    SimulationMonitor monitor) {
+        simulateTillGivenCIHalfWidth(monitor.instrument(n -> simulateNRuns(exp, n, rnd, stat), stat),
+                level, maxHalfWidth, initialNumberOfRuns, additionalNumberOfRuns, stat);
+    }
+
+    /**
+     * Same as {@link #simulateTillGivenCIHalfWidth(Experiment, double, double, long, long, RandomGenerator, Collector)},
+     * appending a record of each batch of runs to log, from which the state of stat after any batch can be rebuilt
+     * with a {@link BatchLogReader}.
+     *
+     * @param exp                    experiment to be run each time
+     * @param level                  confidence level of the confidence interval
+     * @param maxHalfWidth           maximal half width of the confidence interval
+     * @param initialNumberOfRuns    initial number of runs to be performed
+     * @param additionalNumberOfRuns additional number of runs to be performed if C.I. is too wide
+     * @param rnd                    random source to be used to simulate the experiment
+     * @param stat                   collector to be used to collect the results of each experiment
+     * @param log                    log to which a record is appended after each batch
+     */
+    public static void simulateTillGivenCIHalfWidth(Experiment exp,
+                                                    double level,
+                                                    double maxHalfWidth,
+                                                    long initialNumberOfRuns,
+                                                    long additionalNumberOfRuns,
+                                                    RandomGenerator rnd,
+                                                    Collector stat,
+                                                    BatchLog log) {
+        simulateTillGivenCIHalfWidth(log.instrument(n -> simulateNRuns(exp, n, rnd, stat), stat),
+                level, maxHalfWidth, initialNumberOfRuns, additionalNumberOfRuns, stat);
+    }
+
+    /**
+     * Simulates experiment exp until the confidence interval has a half width no more than maxHalfWidth, the time
+     * budget is spent or maxRuns runs are performed, whichever comes first, with a {@link SequentialStoppingRule}.
+     * The returned report tells which condition stopped the simulation, the half width reached and the throughput.
+     *
+     * @param exp                 experiment to be run each time
+     * @param level               confidence level of the confidence interval
+     * @param maxHalfWidth        maximal half width of the confidence interval
+     * @param initialNumberOfRuns initial number of runs to be performed, at least 2
+     * @param rnd                 random source to be used to simulate the experiment
+     * @param stat                collector to be used to collect the results of each experiment
+     * @param timeBudget          maximal duration of the simulation
+     * @param maxRuns             maximal number of runs collected in stat
+     * @return the summary of the simulation
+     */
+    public static BudgetedSimulationReport simulateWithinBudget(Experiment exp,
+                                                                double level,
+                                                                double maxHalfWidth,
+                                                                long initialNumberOfRuns,
+                                                                RandomGenerator rnd,
+                                                                Collector stat,
+                                                                Duration timeBudget,
+                                                                long maxRuns) {
+        return new SequentialStoppingRule(level, maxHalfWidth)
+                .simulate(exp, initialNumberOfRuns, rnd, stat, timeBudget, maxRuns);
+    }
+
+    /**
+     * Same as {@link #simulateTillGivenCIHalfWidth(Experiment, double, double, long, long, RandomGenerator, Collector)},
+     * using antithetic variates: the runs are performed in pairs, the second run of each pair using the complements of
+     * the random words drawn by the first one, and the mean of the two realizations of each pair is collected in stat.
+     * The numbers of runs are rounded up to even numbers. As the means of pairs may be 0.5, stat cannot be a
+     * BernoulliCollector.
+     * <p>
+     * Antithetic variates only reduce the variance when the performance measure is monotone in the random numbers
+     * drawn. The returned report tells whether it was the case.
+     *
+     * @param exp                    experiment to be run each time
+     * @param level                  confidence level of the confidence interval
+     * @param maxHalfWidth           maximal half width of the confidence interval
+     * @param initialNumberOfRuns    initial number of runs to be performed
+     * @param additionalNumberOfRuns additional number of runs to be performed if C.I. is too wide
+     * @param rnd                    random source to be used to simulate the experiment
+     * @param stat                   collector to be used to collect the mean of each pair of runs
+     * @return the variance reduction achieved compared to independent runs
+     */
+    public static VarianceReductionReport simulateTillGivenCIHalfWidthAntithetic(Experiment exp,
+                                                                                double level,
+                                                                                double maxHalfWidth,
+                                                                                long initialNumberOfRuns,
+                                                                                long additionalNumberOfRuns,
+                                                                                RandomGenerator rnd,
+                                                                                Collector stat) {
+        AntitheticGenerator antithetic = new AntitheticGenerator(rnd);
+        StatCollector singles = new StatCollector(); // Réalisations individuelles, pour la variance sans réduction
+
+        simulateTillGivenCIHalfWidth(pairs -> simulateNAntitheticPairs(exp, pairs, antithetic, stat, singles),
+                level, maxHalfWidth, Math.ceilDiv(initialNumberOfRuns, 2), Math.ceilDiv(additionalNumberOfRuns, 2), stat);
+
+        // Une paire coûte deux réalisations : la variance par réalisation de l'estimateur vaut 2 Var((Y1 + Y2) / 2)
+        return new VarianceReductionReport(singles.getNumberOfObs(), singles.getVariance(), 2 * stat.getVariance());
+    }
+
+    /**
+     * Same as {@link #simulateTillGivenCIHalfWidth(Experiment, double, double, long, long, RandomGenerator, Collector)},
+     * using the control variate reported by the experiment: the C.I. and the run count projections are based on the
+     * residual variance of the controlled estimator.
+     *
+     * @param exp                    experiment to be run each time
+     * @param level                  confidence level of the confidence interval
+     * @param maxHalfWidth           maximal half width of the confidence interval
+     * @param initialNumberOfRuns    initial number of runs to be performed
+     * @param additionalNumberOfRuns additional number of runs to be performed if C.I. is too wide
+     * @param rnd                    random source to be used to simulate the experiment
+     * @param stat                   collector of the control variate of exp, whose expectation is
+     *                               {@link ControlVariateExperiment#getControlExpectation()}
+     * @return the variance reduction achieved compared to crude Monte Carlo
+     */
+    public static VarianceReductionReport simulateTillGivenCIHalfWidthWithControlVariate(ControlVariateExperiment exp,
+                                                                                        double level,
+                                                                                        double maxHalfWidth,
+                                                                                        long initialNumberOfRuns,
+                                                                                        long additionalNumberOfRuns,
+                                                                                        RandomGenerator rnd,
+                                                                                        ControlVariateCollector stat) {
+        simulateTillGivenCIHalfWidth(n -> exp.executeWithControl(rnd, n, stat),
+                level, maxHalfWidth, initialNumberOfRuns, additionalNumberOfRuns, stat);
+
+        return new VarianceReductionReport(stat.getNumberOfObs(), stat.getCrudeVariance(), stat.getVariance());
+    }
+
+    /**
+     * Simulates the multi-metric experiment exp n times, using rnd as a source of pseudo-random numbers and collect
+     * the realizations of all its metrics in stat.
+     *
+     * @param exp  experiment to be run each time
+     * @param n    number of runs to be performed
+     * @param rnd  random source to be used to simulate the experiment
+     * @param stat collector with one metric per performance measure of exp
+     */
+    public static void simulateNRuns(MultiMetricExperiment exp, long n, RandomGenerator rnd, MultiStatCollector stat) {
+        exp.executeBatch(rnd, n, stat);
+    }
+
+    /**
+     * Same as {@link #simulateTillGivenCIHalfWidth(Experiment, double, double, long, long, RandomGenerator, Collector)},
+     * for all the metrics of a multi-metric experiment at once: the runs go on until the confidence interval of each
+     * metric has a half width no more than its own maximal half width. A metric whose maximal half width is
+     * Double.POSITIVE_INFINITY is estimated without constraining the number of runs.
+     * <p>
+     * After the initial runs, the number of runs is estimated for the metric requiring the most of them.
+     *
+     * @param exp                    experiment to be run each time
+     * @param level                  confidence level of the confidence intervals
+     * @param maxHalfWidths          maximal half width of the confidence interval of each metric
+     * @param initialNumberOfRuns    initial number of runs to be performed
+     * @param additionalNumberOfRuns additional number of runs to be performed if a C.I. is too wide
+     * @param rnd                    random source to be used to simulate the experiment
+     * @param stat                   collector with one metric per performance measure of exp
+     * @throws IllegalArgumentException if maxHalfWidths or stat do not have one entry per metric of exp, or if
+     *                                  initialNumberOfRuns or additionalNumberOfRuns is not positive
+     */
+    public static void simulateTillGivenCIHalfWidth(MultiMetricExperiment exp,
+                                                    double level,
+                                                    double[] maxHalfWidths,
+                                                    long initialNumberOfRuns,
+                                                    long additionalNumberOfRuns,
+                                                    RandomGenerator rnd,
+                                                    MultiStatCollector stat) {
+        int metrics = exp.getNumberOfMetrics();
+        if (maxHalfWidths.length != metrics || stat.getNumberOfMetrics() != metrics) {
+            throw new IllegalArgumentException("Half widths and collector should have one entry per metric.");
+        }
 
-        // Calculer la demi-largeur initiale de l'intervalle de confiance
-        double initialHalfWidth = stat.getConfidenceIntervalHalfWidth(level);
+        simulateTillGivenCIHalfWidth(n -> simulateNRuns(exp, n, rnd, stat), initialNumberOfRuns,
+                additionalNumberOfRuns, () -> allHalfWidthsReached(stat, level, maxHalfWidths),
+                () -> calculateAdditionalSim(stat, level, maxHalfWidths, initialNumberOfRuns, additionalNumberOfRuns));
+    }
+
+    /**
+     * Same as {@link #simulateTillGivenCIHalfWidth(Experiment, double, double, long, long, RandomGenerator, Collector)},
+     * the stopping rule being applied to a single metric of a multi-metric experiment: the other metrics are
+     * estimated from the same runs, whatever the width of their confidence intervals.
+     *
+     * @param exp                    experiment to be run each time
+     * @param metric                 index of the metric whose C.I. stops the simulation
+     * @param level                  confidence level of the confidence interval
+     * @param maxHalfWidth           maximal half width of the confidence interval of metric
+     * @param initialNumberOfRuns    initial number of runs to be performed
+     * @param additionalNumberOfRuns additional number of runs to be performed if C.I. is too wide
+     * @param rnd                    random source to be used to simulate the experiment
+     * @param stat                   collector with one metric per performance measure of exp
+     */
+    public static void simulateTillGivenCIHalfWidth(MultiMetricExperiment exp,
+                                                    int metric,
+                                                    double level,
+                                                    double maxHalfWidth,
+                                                    long initialNumberOfRuns,
+                                                    long additionalNumberOfRuns,
+                                                    RandomGenerator rnd,
+                                                    MultiStatCollector stat) {
+        simulateTillGivenCIHalfWidth(n -> simulateNRuns(exp, n, rnd, stat),
+                level, maxHalfWidth, initialNumberOfRuns, additionalNumberOfRuns, stat.column(metric));
+    }
+
+    /**
+     * Stopping rule shared by the sequential and parallel simulations: runs the batches through simulator,
+     * which must collect the results of the runs it performs in stat.
+     *
+     * @param simulator              performs the given number of runs and collects their results in stat
+     * @param level                  confidence level of the confidence interval
+     * @param maxHalfWidth           maximal half width of the confidence interval
+     * @param initialNumberOfRuns    initial number of runs to be performed
+     * @param additionalNumberOfRuns additional number of runs to be performed if C.I. is too wide
+     * @param stat                   estimator of the results collected by simulator
+     * @throws IllegalArgumentException if initialNumberOfRuns or additionalNumberOfRuns is not positive
+     */
+    static void simulateTillGivenCIHalfWidth(LongConsumer simulator,
+                                             double level,
+                                             double maxHalfWidth,
+                                             long initialNumberOfRuns,
+                                             long additionalNumberOfRuns,
+                                             Estimator stat) {
+        simulateTillGivenCIHalfWidth(simulator, initialNumberOfRuns, additionalNumberOfRuns,
+                () -> stat.getConfidenceIntervalHalfWidth(level) <= maxHalfWidth,
+                () -> calculateAdditionalSim(stat, level, maxHalfWidth, initialNumberOfRuns, additionalNumberOfRuns));
+    }
+
+    /**
+     * Loop of the stopping rule: runs initialNumberOfRuns runs through simulator, then, if the target is not
+     * reached, the additional runs projected from them, then batches of additionalNumberOfRuns runs until the target
+     * is reached.
+     *
+     * @param simulator              performs the given number of runs and collects their results
+     * @param initialNumberOfRuns    initial number of runs to be performed
+     * @param additionalNumberOfRuns additional number of runs to be performed per batch if the target is not reached
+     * @param targetReached          tells whether the results collected so far are precise enough
+     * @param additionalRuns         projects the number of runs to be performed after the initial ones
+     * @throws IllegalArgumentException if initialNumberOfRuns or additionalNumberOfRuns is not positive
+     */
+    static void simulateTillGivenCIHalfWidth(LongConsumer simulator,
+                                             long initialNumberOfRuns,
+                                             long additionalNumberOfRuns,
+                                             BooleanSupplier targetReached,
+                                             LongSupplier additionalRuns) {
+        checkNumbersOfRuns(initialNumberOfRuns, additionalNumberOfRuns);
+
+        // Exécuter les réalisations initiales
+        simulator.accept(initialNumberOfRuns);
 
         // Si la précision souhaitée est déjà atteinte, arrêter
-        if (initialHalfWidth <= maxHalfWidth) {
+        if (targetReached.getAsBoolean()) {
             return;
         }
 
-        // Calculer le nombre total de réalisations nécessaires
-        long additionalSim = calculateAdditionalSim(stat, level, maxHalfWidth, initialNumberOfRuns, additionalNumberOfRuns);
+        // Exécuter les réalisations supplémentaires estimées à partir des réalisations initiales
+        simulator.accept(additionalRuns.getAsLong());
 
-        // Exécuter les réalisations supplémentaires calculées
-        simulateNRuns(exp, additionalSim, rnd, stat);
+        // Répéter des lots de Nadd simulations jusqu'à atteindre la précision souhaitée
+        while (!targetReached.getAsBoolean()) {
+            simulator.accept(additionalNumberOfRuns);
+        }
+    }
+
+    /**
+     * Checks the numbers of runs of a simulation: with no additional runs, a C.I. too wide would never narrow.
+     *
+     * @throws IllegalArgumentException if initialNumberOfRuns or additionalNumberOfRuns is not positive
+     */
+    private static void checkNumbersOfRuns(long initialNumberOfRuns, long additionalNumberOfRuns) {
+        if (initialNumberOfRuns <= 0) {
+            throw new IllegalArgumentException("Initial number of runs should be positive.");
+        }
+        if (additionalNumberOfRuns <= 0) {
+            throw new IllegalArgumentException("Additional number of runs should be positive.");
+        }
+    }
+
+    /**
+     * Same as {@link #simulateTillGivenCIHalfWidth(Experiment, double, double, long, long, Random, Collector)},
+     * writing a checkpoint of the simulation to checkpointFile every checkpointInterval, so that it can be resumed
+     * after a crash. If checkpointFile already exists, the simulation is resumed from it: stat is restored from the
+     * checkpoint and the runs continue with the random source saved in it. The checkpoint must have been written by
+     * a simulation of the same experiment class with the same experimentKey, started with rnd in the same state and
+     * with the same parameters. The checkpoint is deleted when the simulation ends, so that a further call runs a
+     * new simulation.
+     * <p>
+     * The batches are cut into segments of {@link #RUNS_PER_SEGMENT} runs and the checkpoints are written between
+     * segments, so that the results do not depend on the interval nor on the interruptions: a resumed simulation
+     * ends with the same results as an uninterrupted one.
+     *
+     * @param exp                    experiment to be run each time
+     * @param experimentKey          key identifying the parameters of exp, such as "K=23,Y=365,M=2", checked with
+     *                               the class of exp when the simulation is resumed
+     * @param level                  confidence level of the confidence interval
+     * @param maxHalfWidth           maximal half width of the confidence interval
+     * @param initialNumberOfRuns    initial number of runs to be performed
+     * @param additionalNumberOfRuns additional number of runs to be performed if C.I. is too wide
+     * @param rnd                    random source to be used to simulate the experiment, which must be a
+     *                               java.util.Random and not one of its subclasses; when the simulation is resumed,
+     *                               its state must be the one it had when the simulation started
+     * @param stat                   collector to be used to collect the results of each experiment, which must
+     *                               support {@link Collector#addAll(long, double, double)}
+     * @param checkpointFile         file of the checkpoint
+     * @param checkpointInterval     minimal time between two checkpoints
+     * @throws IllegalArgumentException if rnd is not a java.util.Random, if initialNumberOfRuns or
+     *                                  additionalNumberOfRuns is not positive, or if checkpointFile is not a valid
+     *                                  checkpoint of a simulation of the same experiment, started from the same
+     *                                  state of rnd, with the same parameters
+     * @throws UncheckedIOException     if a checkpoint cannot be read, written or deleted
+     */
+    public static void simulateTillGivenCIHalfWidth(Experiment exp,
+                                                    String experimentKey,
+                                                    double level,
+                                                    double maxHalfWidth,
+                                                    long initialNumberOfRuns,
+                                                    long additionalNumberOfRuns,
+                                                    Random rnd,
+                                                    Collector stat,
+                                                    Path checkpointFile,
+                                                    Duration checkpointInterval) {
+        if (rnd.getClass() != Random.class) {
+            throw new IllegalArgumentException("Only the state of a java.util.Random can be checkpointed.");
+        }
+        checkNumbersOfRuns(initialNumberOfRuns, additionalNumberOfRuns);
+
+        // Identité de la simulation : classe et paramètres de l'expérience, état initial de la source
+        String experiment = exp.getClass().getName() + ":" + experimentKey;
+        byte[] initialRandomState = SimulationCheckpoint.stateOf(rnd);
+
+        // Reprise depuis le point de contrôle s'il existe, sinon début du lot initial
+        boolean initialBatch = true;
+        long remainingRuns = initialNumberOfRuns;
+        if (Files.exists(checkpointFile)) {
+            SimulationCheckpoint checkpoint = SimulationCheckpoint.read(checkpointFile);
+            checkpoint.checkParameters(experiment, initialRandomState, level, maxHalfWidth, initialNumberOfRuns,
+                    additionalNumberOfRuns);
+            checkpoint.restore(stat);
+            initialBatch = checkpoint.initialBatch();
+            remainingRuns = checkpoint.remainingRuns();
+            rnd = checkpoint.random();
+        }
+
+        long intervalNanos = checkpointInterval.toNanos();
+        long lastCheckpoint = System.nanoTime();
 
-        // Répéter les simulations additionnelles jusqu'à atteindre la précision souhaitée
         while (true) {
-            // Recalculer la demi-largeur de l'intervalle de confiance après les nouvelles réalisations
-            double currentHalfWidth = stat.getConfidenceIntervalHalfWidth(level);
+            // Terminer le lot courant par segments, avec un point de contrôle entre deux segments si l'intervalle est écoulé
+            while (remainingRuns > 0) {
+                long runs = Math.min(remainingRuns, RUNS_PER_SEGMENT);
+                simulateNRuns(exp, runs, rnd, stat);
+                remainingRuns -= runs;
 
-            // Vérifier si la demi-largeur est inférieure ou égale à Δmax
-            if (currentHalfWidth <= maxHalfWidth) {
+                if (System.nanoTime() - lastCheckpoint >= intervalNanos) {
+                    SimulationCheckpoint.of(experiment, initialRandomState, level, maxHalfWidth, initialNumberOfRuns,
+                            additionalNumberOfRuns, stat, initialBatch, remainingRuns, rnd).write(checkpointFile);
+                    lastCheckpoint = System.nanoTime();
+                }
+            }
+
+            if (stat.getConfidenceIntervalHalfWidth(level) <= maxHalfWidth) {
                 break; // Précision atteinte
             }
 
-            // Si non, effectuer un lot supplémentaire de Nadd simulations
-            simulateNRuns(exp, additionalNumberOfRuns, rnd, stat);
+            // Après le lot initial, le nombre de réalisations est estimé ; ensuite, lots de Nadd simulations
+            remainingRuns = initialBatch
+                    ? calculateAdditionalSim(stat, level, maxHalfWidth, initialNumberOfRuns, additionalNumberOfRuns)
+                    : additionalNumberOfRuns;
+            initialBatch = false;
+        }
+
+        // Simulation terminée : le point de contrôle ne doit pas être repris par un autre appel
+        try {
+            Files.deleteIfExists(checkpointFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Checkpoint " + checkpointFile + " could not be deleted.", e);
         }
     }
 
-    private static long calculateAdditionalSim(StatCollector stat,
+    private static long calculateAdditionalSim(Estimator stat,
                                                double level,
                                                double maxHalfWidth,
                                                long initialNumberOfRuns,
@@ -105,4 +520,51 @@ public class MonteCarloSimulation {
         long roundedTotalRuns = Math.ceilDiv((long) estimatedRequiredRuns, additionalNumberOfRuns) * additionalNumberOfRuns;
         return roundedTotalRuns - initialNumberOfRuns;
     }
+
+    private static long calculateAdditionalSim(MultiStatCollector stat,
+                                               double level,
+                                               double[] maxHalfWidths,
+                                               long initialNumberOfRuns,
+                                               long additionalNumberOfRuns) {
+
+        // Nombre de réalisations supplémentaires estimé pour la métrique la plus exigeante
+        long additionalSim = 0;
+        for (int metric = 0; metric < maxHalfWidths.length; metric++) {
+            if (!(stat.getConfidenceIntervalHalfWidth(metric, level) <= maxHalfWidths[metric])) {
+                additionalSim = Math.max(additionalSim, calculateAdditionalSim(stat.column(metric), level,
+                        maxHalfWidths[metric], initialNumberOfRuns, additionalNumberOfRuns));
+            }
+        }
+        return additionalSim;
+    }
+
+    private static boolean allHalfWidthsReached(MultiStatCollector stat, double level, double[] maxHalfWidths) {
+        for (int metric = 0; metric < maxHalfWidths.length; metric++) {
+            if (!(stat.getConfidenceIntervalHalfWidth(metric, level) <= maxHalfWidths[metric])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Simulates pairs antithetic pairs of runs of exp and collects the mean of each pair in stat and each run in
+     * singles.
+     */
+    private static void simulateNAntitheticPairs(Experiment exp,
+                                                 long pairs,
+                                                 AntitheticGenerator antithetic,
+                                                 Collector stat,
+                                                 Collector singles) {
+        for (long pair = 0; pair < pairs; ++pair) {
+            antithetic.record();
+            double first = exp.execute(antithetic);
+            antithetic.replay();
+            double second = exp.execute(antithetic);
+
+            stat.add((first + second) / 2);
+            singles.add(first);
+            singles.add(second);
+        }
+    }
 }
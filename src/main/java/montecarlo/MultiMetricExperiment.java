@@ -0,0 +1,48 @@
+package montecarlo;
+
+import statistics.MultiStatCollector;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Classes to be used for Monte Carlo simulations measuring several performance measures on each realization should
+ * implement this interface: one simulation then estimates all of them, instead of one simulation per measure.
+ */
+public interface MultiMetricExperiment {
+
+	/**
+	 * Returns the number of performance measures reported by each realization.
+	 *
+	 * @return the number of metrics
+	 */
+	int getNumberOfMetrics();
+
+	/**
+	 * Simulates the experiment once, using rnd as a source of pseudo-random numbers, and writes the realization of
+	 * each performance measure into metrics.
+	 *
+	 * @param rnd     random source to be used to simulate the experiment
+	 * @param metrics array of length {@link #getNumberOfMetrics()} receiving the realizations, which may hold those
+	 *                of a previous run
+	 */
+	void execute(RandomGenerator rnd, double[] metrics);
+
+	/**
+	 * Simulates the experiment n times, using rnd as a source of pseudo-random numbers, and collects the
+	 * realizations in sink.
+	 * <p>
+	 * The default implementation calls {@link #execute(RandomGenerator, double[])} n times with a single array
+	 * allocated for the whole batch.
+	 *
+	 * @param rnd  random source to be used to simulate the experiment
+	 * @param n    number of runs to be performed
+	 * @param sink collector to be used to collect the realizations, with {@link #getNumberOfMetrics()} metrics
+	 */
+	default void executeBatch(RandomGenerator rnd, long n, MultiStatCollector sink) {
+		double[] metrics = new double[getNumberOfMetrics()];
+		for (long run = 0; run < n; ++run) {
+			execute(rnd, metrics);
+			sink.add(metrics);
+		}
+	}
+}
@@ -0,0 +1,76 @@
+package montecarlo;
+
+/**
+ * Compteurs d'occurrences de 2 ou 4 bits regroupés dans des long, plafonnés à 3 ou 15. Pour Y = 365, les
+ * compteurs de 2 bits tiennent dans 12 long et ceux de 4 bits dans 23 long.
+ */
+final class PackedDayCounter implements DayCounter {
+
+    /**
+     * Largeurs possibles d'un compteur (bits), de la plus compacte à la plus large.
+     */
+    static final int[] COUNTER_BITS = {2, 4};
+
+    private final long[] words;
+    private final int logBits;     // Log en base 2 de la largeur d'un compteur
+    private final int capacity;    // Plafond d'un compteur, qui sert aussi de masque
+
+    /**
+     * Crée Y compteurs de la largeur donnée.
+     * @param Y    le nombre de jours.
+     * @param bits la largeur d'un compteur, 2 ou 4.
+     */
+    PackedDayCounter(int Y, int bits) {
+        if (bits != 2 && bits != 4) {
+            throw new IllegalArgumentException("Counter width should be 2 or 4 bits.");
+        }
+        this.words = new long[words(Y, bits)];
+        this.logBits = Integer.numberOfTrailingZeros(bits);
+        this.capacity = capacity(bits);
+    }
+
+    /**
+     * Retourne le plafond d'un compteur de la largeur donnée.
+     * @param bits la largeur d'un compteur.
+     * @return 2^bits - 1.
+     */
+    static int capacity(int bits) {
+        return (1 << bits) - 1;
+    }
+
+    /**
+     * Retourne le nombre de long nécessaires pour Y compteurs de la largeur donnée.
+     * @param Y    le nombre de jours.
+     * @param bits la largeur d'un compteur.
+     * @return le nombre de mots.
+     */
+    static int words(int Y, int bits) {
+        int perWord = Long.SIZE / bits;
+        return (Y + perWord - 1) / perWord;
+    }
+
+    @Override
+    public void reset() {
+        for (int i = 0; i < words.length; i++) {
+            words[i] = 0L;
+        }
+    }
+
+    /**
+     * Incrémente le compteur du jour donné, sauf s'il a atteint son plafond.
+     * @param day le jour tiré, entre 0 et Y-1.
+     * @return le nombre d'occurrences du jour après incrémentation, au plus 3 ou 15.
+     */
+    @Override
+    public int increment(int day) {
+        int index = day >>> (6 - logBits);
+        int shift = (day << logBits) & (Long.SIZE - 1);
+        long word = words[index];
+        int count = (int) (word >>> shift) & capacity;
+        if (count == capacity) {
+            return count;
+        }
+        words[index] = word + (1L << shift);
+        return count + 1;
+    }
+}
@@ -0,0 +1,98 @@
+package montecarlo;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Draws integers uniformly in [0, bound) by cutting each 64-bit random word into several fields and mapping each
+ * field into [0, bound) with Lemire's multiply-shift method, which involves no division.
+ * <p>
+ * A field r of b bits is mapped to (r * bound) >> b. The fields whose low product bits fall below 2^b mod bound are
+ * rejected and the next field is used instead, so that every value has exactly the same probability. The field width
+ * is chosen such that at most 1 field out of 128 is rejected: for bound = 365, four 16-bit fields are taken from
+ * each word.
+ * <p>
+ * The fields not yet used are kept between calls: an instance must only be used by one thread, and the sequence
+ * produced depends on the calls to {@link #reset()}.
+ */
+final class PackedUniformSampler {
+
+    // Largeur des champs possibles (bits) et nombre de champs correspondants par mot de 64 bits
+    private static final int[] FIELD_BITS = {16, 21, 32};
+    private static final int[] FIELDS_PER_WORD = {4, 3, 2};
+
+    // Au plus un champ sur 2^REJECTION_BITS est rejeté
+    private static final int REJECTION_BITS = 7;
+
+    private final int bound;
+    private final int fieldBits;      // Largeur d'un champ, 0 si les tirages sont délégués au générateur
+    private final int fieldsPerWord;
+    private final long fieldMask;
+    private final long threshold;     // Les produits dont les bits de poids faible sont sous ce seuil sont rejetés
+
+    private long word;                // Mot aléatoire en cours de découpage
+    private int remainingFields;      // Nombre de champs encore disponibles dans word
+
+    /**
+     * Creates a sampler of integers in [0, bound).
+     *
+     * @param bound upper bound (exclusive) of the integers drawn
+     * @throws IllegalArgumentException if bound is not positive
+     */
+    PackedUniformSampler(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("Bound should be positive.");
+        }
+        this.bound = bound;
+
+        // Choisir les champs les plus étroits qui gardent un taux de rejet acceptable
+        int bits = 0;
+        int fields = 1;
+        for (int i = 0; i < FIELD_BITS.length; i++) {
+            if (bound <= 1L << (FIELD_BITS[i] - REJECTION_BITS)) {
+                bits = FIELD_BITS[i];
+                fields = FIELDS_PER_WORD[i];
+                break;
+            }
+        }
+        this.fieldBits = bits;
+        this.fieldsPerWord = fields;
+        this.fieldMask = (1L << bits) - 1;
+        this.threshold = bits == 0 ? 0 : (1L << bits) % bound;
+    }
+
+    /**
+     * Discards the fields not yet used, so that the next draw starts from a new random word.
+     */
+    void reset() {
+        remainingFields = 0;
+    }
+
+    /**
+     * Returns an integer drawn uniformly in [0, bound).
+     *
+     * @param rnd random source providing the 64-bit words
+     * @return the integer drawn
+     */
+    int next(RandomGenerator rnd) {
+        // Borne trop grande pour découper les mots : tirage classique
+        if (fieldBits == 0) {
+            return rnd.nextInt(bound);
+        }
+
+        while (true) {
+            if (remainingFields == 0) {
+                word = rnd.nextLong();
+                remainingFields = fieldsPerWord;
+            }
+            long field = word & fieldMask;
+            word >>>= fieldBits;
+            remainingFields--;
+
+            // Multiplication-décalage de Lemire : les bits de poids fort donnent la valeur
+            long product = field * bound;
+            if ((product & fieldMask) >= threshold) {
+                return (int) (product >>> fieldBits);
+            }
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package montecarlo;
+
+import statistics.Collector;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.random.RandomGenerator.SplittableGenerator;
+
+/**
+ * This class provides methods for Monte Carlo simulations spread over the threads of a ForkJoinPool.
+ * <p>
+ * The runs are cut into chunks of fixed size, independently of the number of threads. Each chunk is simulated with
+ * its own stream split from the given SplittableGenerator (for instance a SplittableRandom or one of the LXM
+ * generators) and collected in its own collector, created by {@link Collector#createEmpty()}, and the partial
+ * collectors are merged following a tree which only depends on the number of chunks. For a given seed, the results
+ * are therefore bit-for-bit identical whatever the parallelism of the pool.
+ * <p>
+ * The experiment is executed concurrently by several threads and must therefore be thread-safe.
+ */
+public class ParallelMonteCarloSimulation {
+
+    /**
+     * Number of runs simulated by each chunk (the last chunk of a batch may be smaller).
+     */
+    static final long RUNS_PER_CHUNK = 1L << 16;
+
+    /**
+     * Private constructor. Makes it impossible to instantiate.
+     */
+    private ParallelMonteCarloSimulation() {
+    }
+
+    /**
+     * Simulates experiment exp n times in the common ForkJoinPool, using streams split from rnd as sources of
+     * pseudo-random numbers and collect the results in stat.
+     *
+     * @param exp  experiment to be run each time
+     * @param n    number of runs to be performed
+     * @param rnd  random source from which the stream of each chunk is split
+     * @param stat collector to be used to collect the results of each experiment
+     */
+    public static void simulateNRuns(Experiment exp, long n, SplittableGenerator rnd, Collector stat) {
+        simulateNRuns(exp, n, rnd, stat, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Simulates experiment exp n times in pool, using streams split from rnd as sources of pseudo-random numbers
+     * and collect the results in stat.
+     *
+     * @param exp  experiment to be run each time
+     * @param n    number of runs to be performed
+     * @param rnd  random source from which the stream of each chunk is split
+     * @param stat collector to be used to collect the results of each experiment
+     * @param pool pool whose threads perform the runs
+     */
+    public static void simulateNRuns(Experiment exp, long n, SplittableGenerator rnd, Collector stat,
+                                     ForkJoinPool pool) {
+        if (n <= 0) {
+            return;
+        }
+
+        // Les flux sont dérivés dans l'ordre des morceaux par le thread appelant, donc de manière déterministe
+        int chunks = Math.toIntExact(Math.ceilDiv(n, RUNS_PER_CHUNK));
+        SplittableGenerator[] streams = new SplittableGenerator[chunks];
+        for (int i = 0; i < chunks; i++) {
+            streams[i] = rnd.split();
+        }
+
+        stat.merge(pool.invoke(new ChunkTask(exp, n, streams, stat, 0, chunks)));
+    }
+
+    /**
+     * Parallel version of {@link MonteCarloSimulation#simulateTillGivenCIHalfWidth}: each batch of runs is spread
+     * over the threads of pool.
+     *
+     * @param exp                    experiment to be run each time
+     * @param level                  confidence level of the confidence interval
+     * @param maxHalfWidth           maximal half width of the confidence interval
+     * @param initialNumberOfRuns    initial number of runs to be performed
+     * @param additionalNumberOfRuns additional number of runs to be performed if C.I. is too wide
+     * @param rnd                    random source from which the stream of each chunk is split
+     * @param stat                   collector to be used to collect the results of each experiment
+     * @param pool                   pool whose threads perform the runs
+     */
+    public static void simulateTillGivenCIHalfWidth(Experiment exp,
+                                                    double level,
+                                                    double maxHalfWidth,
+                                                    long initialNumberOfRuns,
+                                                    long additionalNumberOfRuns,
+                                                    SplittableGenerator rnd,
+                                                    Collector stat,
+                                                    ForkJoinPool pool) {
+        MonteCarloSimulation.simulateTillGivenCIHalfWidth(n -> simulateNRuns(exp, n, rnd, stat, pool),
+                level, maxHalfWidth, initialNumberOfRuns, additionalNumberOfRuns, stat);
+    }
+
+    /**
+     * Simulates the chunks [from, to) of a batch and returns their merged results. The tasks are never serialized.
+     */
+    @SuppressWarnings("serial")
+    private static final class ChunkTask extends RecursiveTask<Collector> {
+        private final Experiment exp;
+        private final long n;
+        private final SplittableGenerator[] streams;
+        private final Collector prototype;
+        private final int from;
+        private final int to;
+
+        ChunkTask(Experiment exp, long n, SplittableGenerator[] streams, Collector prototype, int from, int to) {
+            this.exp = exp;
+            this.n = n;
+            this.streams = streams;
+            this.prototype = prototype;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Collector compute() {
+            if (to - from == 1) {
+                Collector partial = prototype.createEmpty();
+                long first = from * RUNS_PER_CHUNK;
+                long runs = Math.min(RUNS_PER_CHUNK, n - first);
+                MonteCarloSimulation.simulateNRuns(exp, runs, streams[from], partial);
+                return partial;
+            }
+
+            // Découpage en deux moitiés : la forme de l'arbre ne dépend que du nombre de morceaux
+            int mid = (from + to) >>> 1;
+            ChunkTask left = new ChunkTask(exp, n, streams, prototype, from, mid);
+            ChunkTask right = new ChunkTask(exp, n, streams, prototype, mid, to);
+            left.fork();
+            Collector rightResult = right.compute();
+            Collector leftResult = left.join();
+            leftResult.merge(rightResult);
+            return leftResult;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package montecarlo;
+
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGenerator.JumpableGenerator;
+import java.util.random.RandomGenerator.SplittableGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+/**
+ * This class provides methods for creating sources of pseudo-random numbers from the name of their algorithm, as
+ * listed by {@link RandomGeneratorFactory#all()} (for instance "L64X128MixRandom", "Xoroshiro128PlusPlus" or
+ * "SplittableRandom"), and for deriving independent streams from a single seed.
+ */
+public class RandomStreams {
+
+    /**
+     * Algorithm used when none is specified: fast, of good statistical quality and splittable.
+     */
+    public static final String DEFAULT_ALGORITHM = "L64X128MixRandom";
+
+    /**
+     * Private constructor. Makes it impossible to instantiate.
+     */
+    private RandomStreams() {
+    }
+
+    /**
+     * Creates a source of pseudo-random numbers of the given algorithm, initialized with seed.
+     *
+     * @param algorithm name of the algorithm
+     * @param seed      seed of the source
+     * @return the new source
+     * @throws IllegalArgumentException if the algorithm is unknown
+     */
+    public static RandomGenerator create(String algorithm, long seed) {
+        return RandomGeneratorFactory.of(algorithm).create(seed);
+    }
+
+    /**
+     * Creates a splittable source of pseudo-random numbers of the given algorithm, initialized with seed, for
+     * instance to be used by {@link ParallelMonteCarloSimulation}.
+     *
+     * @param algorithm name of the algorithm
+     * @param seed      seed of the source
+     * @return the new source
+     * @throws IllegalArgumentException if the algorithm is unknown or not splittable
+     */
+    public static SplittableGenerator createSplittable(String algorithm, long seed) {
+        if (!(create(algorithm, seed) instanceof SplittableGenerator splittable)) {
+            throw new IllegalArgumentException("Algorithm " + algorithm + " is not splittable.");
+        }
+        return splittable;
+    }
+
+    /**
+     * Derives count streams of pseudo-random numbers from a single seed. The streams are obtained by splitting a
+     * source of the given algorithm if it is splittable, or by jumping ahead in it if it is jumpable, so that they
+     * do not overlap. For a given algorithm and seed, the same streams are returned.
+     *
+     * @param algorithm name of the algorithm
+     * @param seed      seed from which the streams are derived
+     * @param count     number of streams
+     * @return the count streams
+     * @throws IllegalArgumentException if the algorithm is unknown or neither splittable nor jumpable
+     */
+    public static RandomGenerator[] independentStreams(String algorithm, long seed, int count) {
+        RandomGenerator root = create(algorithm, seed);
+        RandomGenerator[] streams = new RandomGenerator[count];
+
+        if (root instanceof SplittableGenerator splittable) {
+            for (int i = 0; i < count; i++) {
+                streams[i] = splittable.split();
+            }
+        } else if (root instanceof JumpableGenerator jumpable) {
+            // Chaque copie est suivie d'un saut : les flux sont séparés par la distance de saut de l'algorithme
+            for (int i = 0; i < count; i++) {
+                streams[i] = jumpable.copyAndJump();
+            }
+        } else {
+            throw new IllegalArgumentException("Algorithm " + algorithm + " is neither splittable nor jumpable.");
+        }
+        return streams;
+    }
+}
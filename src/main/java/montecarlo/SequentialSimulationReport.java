@@ -0,0 +1,22 @@
+package montecarlo;
+
+/**
+ * Summary of a simulation performed with a {@link SequentialStoppingRule}.
+ *
+ * @param runs          total number of runs performed
+ * @param batches       number of batches of runs, the initial one included
+ * @param halfWidth     half width of the confidence interval reached
+ * @param projectedRuns number of runs that were needed to reach the maximal half width, according to the final
+ *                      estimate of the standard deviation
+ */
+public record SequentialSimulationReport(long runs, int batches, double halfWidth, long projectedRuns) {
+
+    /**
+     * Returns the number of runs performed past the projected target.
+     *
+     * @return the number of wasted runs, 0 if the target was not exceeded
+     */
+    public long wastedRuns() {
+        return Math.max(0, runs - projectedRuns);
+    }
+}
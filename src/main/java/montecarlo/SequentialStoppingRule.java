@@ -0,0 +1,278 @@
+package montecarlo;
+
+import statistics.Collector;
+import statistics.Estimator;
+import statistics.InverseStdNormalCDF;
+
+import java.time.Duration;
+import java.util.function.LongConsumer;
+import java.util.function.LongSupplier;
+import java.util.random.RandomGenerator;
+
+/**
+ * Sequential stopping rule simulating an experiment until the confidence interval of the mean has a half width no
+ * more than a given maximum.
+ * <p>
+ * After every batch of runs, the total number of runs needed is re-projected from the current estimate of the
+ * standard deviation, and the next batch covers the runs still missing, within two bounds:
+ * <ul>
+ *     <li>the total number of runs grows at most geometrically, by growthFactor per batch, so that a projection
+ *     based on few runs cannot commit a huge batch;</li>
+ *     <li>a batch contains at least overshootBound times the runs already performed, so that the number of batches
+ *     stays logarithmic, and the runs performed past the projected target are at most that fraction of the total.</li>
+ * </ul>
+ * The normal quantile of the confidence level is computed once, when the rule is created.
+ * <p>
+ * The simulation may also be bounded by a time budget and a maximal number of runs, in which case it stops at the
+ * first of the three conditions met.
+ */
+public class SequentialStoppingRule {
+
+    /**
+     * Default maximal growth of the total number of runs per batch.
+     */
+    public static final double DEFAULT_GROWTH_FACTOR = 2.0;
+
+    /**
+     * Default minimal size of a batch, relative to the runs already performed.
+     */
+    public static final double DEFAULT_OVERSHOOT_BOUND = 0.001;
+
+    private final double level;
+    private final double maxHalfWidth;
+    private final double growthFactor;
+    private final double overshootBound;
+    private final double zQuantile; // Quantile Z_{1-α/2} de la loi normale standard
+    private final LongSupplier nanoTime; // Horloge du budget de temps, System.nanoTime hors des tests
+
+    /**
+     * Creates a rule with the default growth factor and overshoot bound.
+     *
+     * @param level        confidence level of the confidence interval
+     * @param maxHalfWidth maximal half width of the confidence interval
+     * @throws IllegalArgumentException if level is not between 0 and 1 or maxHalfWidth is not positive
+     */
+    public SequentialStoppingRule(double level, double maxHalfWidth) {
+        this(level, maxHalfWidth, DEFAULT_GROWTH_FACTOR, DEFAULT_OVERSHOOT_BOUND);
+    }
+
+    /**
+     * Creates a rule.
+     *
+     * @param level          confidence level of the confidence interval
+     * @param maxHalfWidth   maximal half width of the confidence interval
+     * @param growthFactor   maximal factor by which the total number of runs grows per batch
+     * @param overshootBound minimal size of a batch, relative to the runs already performed, which bounds the
+     *                       relative number of runs performed past the target
+     * @throws IllegalArgumentException if level is not between 0 and 1, maxHalfWidth is not positive,
+     *                                  growthFactor is not greater than 1 or overshootBound is not between 0 and 1
+     */
+    public SequentialStoppingRule(double level, double maxHalfWidth, double growthFactor, double overshootBound) {
+        this(level, maxHalfWidth, growthFactor, overshootBound, System::nanoTime);
+    }
+
+    /**
+     * Same as {@link #SequentialStoppingRule(double, double, double, double)}, measuring the time budget with the
+     * given clock, so that the shortening of the batches can be tested without depending on the machine.
+     *
+     * @param nanoTime clock returning a time in nanoseconds, as System.nanoTime
+     */
+    SequentialStoppingRule(double level, double maxHalfWidth, double growthFactor, double overshootBound,
+                           LongSupplier nanoTime) {
+        // Check arguments
+        if (level < 0.0 || level > 1.0) {
+            throw new IllegalArgumentException("Confidence level should be between 0 and 1.");
+        }
+        if (!(maxHalfWidth > 0.0)) {
+            throw new IllegalArgumentException("Maximal half width should be positive.");
+        }
+        if (!(growthFactor > 1.0)) {
+            throw new IllegalArgumentException("Growth factor should be greater than 1.");
+        }
+        if (overshootBound < 0.0 || overshootBound > 1.0) {
+            throw new IllegalArgumentException("Overshoot bound should be between 0 and 1.");
+        }
+
+        this.level = level;
+        this.maxHalfWidth = maxHalfWidth;
+        this.growthFactor = growthFactor;
+        this.overshootBound = overshootBound;
+        this.zQuantile = InverseStdNormalCDF.getQuantile(0.5 + level / 2.0);
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * Simulates experiment exp initialNumberOfRuns times, then by batches until the C.I. is narrow enough, using rnd
+     * as a source of pseudo-random numbers and collecting the results in stat.
+     *
+     * @param exp                 experiment to be run each time
+     * @param initialNumberOfRuns initial number of runs to be performed, at least 2
+     * @param rnd                 random source to be used to simulate the experiment
+     * @param stat                collector to be used to collect the results of each experiment
+     * @return the summary of the simulation
+     */
+    public SequentialSimulationReport simulate(Experiment exp, long initialNumberOfRuns, RandomGenerator rnd,
+                                               Collector stat) {
+        return simulate(n -> MonteCarloSimulation.simulateNRuns(exp, n, rnd, stat), initialNumberOfRuns, stat);
+    }
+
+    /**
+     * Runs initialNumberOfRuns runs through simulator, then batches until the C.I. is narrow enough. simulator may
+     * for instance spread the runs over several threads with {@link ParallelMonteCarloSimulation}.
+     *
+     * @param simulator           performs the given number of runs and collects their results in stat
+     * @param initialNumberOfRuns initial number of runs to be performed, at least 2
+     * @param stat                collector in which the results of each experiment are collected
+     * @return the summary of the simulation
+     * @throws IllegalArgumentException if initialNumberOfRuns is less than 2
+     */
+    public SequentialSimulationReport simulate(LongConsumer simulator, long initialNumberOfRuns, Estimator stat) {
+        BudgetedSimulationReport report = simulate(simulator, initialNumberOfRuns, stat, Long.MAX_VALUE,
+                Long.MAX_VALUE);
+        return new SequentialSimulationReport(report.runs(), report.batches(), report.halfWidth(),
+                report.projectedRuns());
+    }
+
+    /**
+     * Same as {@link #simulate(Experiment, long, RandomGenerator, Collector)}, stopping at whichever comes first:
+     * the maximal half width, the end of the time budget or the maximal number of runs.
+     *
+     * @param exp                 experiment to be run each time
+     * @param initialNumberOfRuns initial number of runs to be performed, at least 2
+     * @param rnd                 random source to be used to simulate the experiment
+     * @param stat                collector to be used to collect the results of each experiment
+     * @param timeBudget          maximal duration of the simulation
+     * @param maxRuns             maximal number of runs collected in stat
+     * @return the summary of the simulation
+     */
+    public BudgetedSimulationReport simulate(Experiment exp, long initialNumberOfRuns, RandomGenerator rnd,
+                                             Collector stat, Duration timeBudget, long maxRuns) {
+        return simulate(n -> MonteCarloSimulation.simulateNRuns(exp, n, rnd, stat), initialNumberOfRuns, stat,
+                timeBudget, maxRuns);
+    }
+
+    /**
+     * Same as {@link #simulate(LongConsumer, long, Estimator)}, stopping at whichever comes first: the maximal half
+     * width, the end of the time budget or the maximal number of runs.
+     * <p>
+     * The budget is checked between batches, and the batches are shortened so as not to exceed it: a batch
+     * performs at most the runs still allowed, and at most the runs that fit in the remaining time at the
+     * throughput observed so far. The simulation stops when less than a minimal batch fits in the remaining time.
+     * The budget may still be exceeded by the initial batch, or if the throughput drops.
+     *
+     * @param simulator           performs the given number of runs and collects their results in stat
+     * @param initialNumberOfRuns initial number of runs to be performed, at least 2
+     * @param stat                collector in which the results of each experiment are collected
+     * @param timeBudget          maximal duration of the simulation
+     * @param maxRuns             maximal number of runs collected in stat
+     * @return the summary of the simulation
+     * @throws IllegalArgumentException if initialNumberOfRuns is less than 2, timeBudget is negative or maxRuns
+     *                                  is less than initialNumberOfRuns
+     */
+    public BudgetedSimulationReport simulate(LongConsumer simulator, long initialNumberOfRuns, Estimator stat,
+                                             Duration timeBudget, long maxRuns) {
+        if (timeBudget.isNegative()) {
+            throw new IllegalArgumentException("Time budget should not be negative.");
+        }
+        long budgetNanos = timeBudget.compareTo(Duration.ofNanos(Long.MAX_VALUE)) < 0
+                ? timeBudget.toNanos()
+                : Long.MAX_VALUE;
+        return simulate(simulator, initialNumberOfRuns, stat, budgetNanos, maxRuns);
+    }
+
+    /**
+     * Boucle commune : un budget de temps de Long.MAX_VALUE ns n'est pas limitant et ne raccourcit pas les lots.
+     */
+    private BudgetedSimulationReport simulate(LongConsumer simulator, long initialNumberOfRuns, Estimator stat,
+                                              long budgetNanos, long maxRuns) {
+        if (initialNumberOfRuns < 2) {
+            throw new IllegalArgumentException("At least two initial runs are needed to estimate the variance.");
+        }
+        if (maxRuns < initialNumberOfRuns) {
+            throw new IllegalArgumentException("Maximal number of runs should be at least the initial number of runs.");
+        }
+
+        long start = nanoTime.getAsLong();
+        long runsBefore = stat.getNumberOfObs();
+        simulator.accept(initialNumberOfRuns);
+        int batches = 1;
+
+        while (true) {
+            long runs = stat.getNumberOfObs();
+            double halfWidth = getHalfWidth(stat);
+            long requiredRuns = projectRequiredRuns(stat);
+            long elapsed = nanoTime.getAsLong() - start;
+            double runsPerNano = (runs - runsBefore) / (double) Math.max(1, elapsed);
+
+            // Réalisations manquantes selon la projection courante, bornées par la croissance et le dépassement admis
+            long minBatch = Math.max(1, (long) Math.ceil(overshootBound * runs));
+            long maxBatch = Math.max(1, (long) ((growthFactor - 1.0) * runs));
+            long batch = Math.min(Math.max(requiredRuns - runs, minBatch), maxBatch);
+
+            BudgetedSimulationReport.StopCondition stop = null;
+            if (halfWidth <= maxHalfWidth) {
+                stop = BudgetedSimulationReport.StopCondition.TARGET_HALF_WIDTH;
+            } else if (runs >= maxRuns) {
+                stop = BudgetedSimulationReport.StopCondition.MAX_RUNS;
+            } else if (budgetNanos != Long.MAX_VALUE) {
+                // Réalisations qui tiennent dans le temps restant au débit observé
+                double affordable = (budgetNanos - elapsed) * runsPerNano;
+                if (affordable < minBatch) {
+                    stop = BudgetedSimulationReport.StopCondition.DEADLINE;
+                } else {
+                    batch = Math.min(batch, (long) affordable);
+                }
+            }
+
+            if (stop != null) {
+                return new BudgetedSimulationReport(runs, batches, halfWidth, requiredRuns, stop,
+                        Duration.ofNanos(elapsed), runsPerNano * 1e9);
+            }
+
+            simulator.accept(Math.min(batch, maxRuns - runs));
+            batches++;
+        }
+    }
+
+    /**
+     * Returns the half width of the C.I. of the mean of the observations collected in stat, at the level of this
+     * rule.
+     *
+     * @param stat collector of the observations
+     * @return the half-width of the C.I
+     */
+    public double getHalfWidth(Estimator stat) {
+        return zQuantile * stat.getStandardDeviation() / Math.sqrt(stat.getNumberOfObs());
+    }
+
+    /**
+     * Returns the total number of runs needed for the half width of the C.I. to reach the maximum of this rule,
+     * according to the standard deviation estimated from the observations collected in stat.
+     *
+     * @param stat collector of the observations
+     * @return the projected total number of runs
+     */
+    public long projectRequiredRuns(Estimator stat) {
+        // Rapport normalisé : Z_{1-α/2} * S / Δmax
+        double normalizedErrorFactor = zQuantile * stat.getStandardDeviation() / maxHalfWidth;
+        return (long) Math.ceil(normalizedErrorFactor * normalizedErrorFactor);
+    }
+
+    /**
+     * Returns the confidence level of this rule.
+     *
+     * @return the confidence level of the C.I.
+     */
+    public double getLevel() {
+        return level;
+    }
+
+    /**
+     * Returns the maximal half width of this rule.
+     *
+     * @return the maximal half width of the C.I.
+     */
+    public double getMaxHalfWidth() {
+        return maxHalfWidth;
+    }
+}
@@ -0,0 +1,38 @@
+package montecarlo;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event recorded by a {@link SimulationMonitor} for each batch of runs. Its duration is the
+ * duration of the batch.
+ */
+@Name("montecarlo.SimulationBatch")
+@Label("Simulation Batch")
+@Category("Monte Carlo")
+@Description("Batch of runs of a Monte Carlo simulation")
+@StackTrace(false)
+class SimulationBatchEvent extends Event {
+
+    @Label("Simulation")
+    String simulation;
+
+    @Label("Batch Runs")
+    long batchRuns;
+
+    @Label("Total Runs")
+    long totalRuns;
+
+    @Label("Estimate")
+    double estimate;
+
+    @Label("Half Width")
+    double halfWidth;
+
+    @Label("Runs Per Second")
+    double runsPerSecond;
+}
@@ -0,0 +1,238 @@
+package montecarlo;
+
+import statistics.Collector;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.CRC32;
+
+/**
+ * State of a simulation run by
+ * {@link MonteCarloSimulation#simulateTillGivenCIHalfWidth(Experiment, String, double, double, long, long, Random, Collector, Path, java.time.Duration)},
+ * from which it can be resumed: identity of the experiment, initial state of the random source, parameters of the
+ * stopping rule, state of the collector, position in the loop of batches and current state of the random source.
+ * <p>
+ * The checkpoint is stored in a small binary file, written in a temporary file of the same directory which then
+ * replaces the previous checkpoint atomically, so that a crash while writing leaves the previous checkpoint intact.
+ * The file ends with a CRC-32 of its content. The random source must be a java.util.Random, whose state is stored
+ * in its serialized form: the other algorithms of the JDK do not give access to their state.
+ *
+ * @param experiment             class of the experiment followed by the key given by the caller
+ * @param initialRandomState     serialized state of the random source when the simulation started
+ * @param level                  confidence level of the confidence interval
+ * @param maxHalfWidth           maximal half width of the confidence interval
+ * @param initialNumberOfRuns    initial number of runs of the simulation
+ * @param additionalNumberOfRuns additional number of runs of the simulation
+ * @param numberOfObs            number of observations collected
+ * @param average                average of the observations collected
+ * @param sumOfSquaredDev        sum of squared deviations to the average of the observations collected
+ * @param initialBatch           whether the current batch is the initial one
+ * @param remainingRuns          number of runs of the current batch not yet performed
+ * @param random                 random source, in the state reached after the runs performed
+ */
+record SimulationCheckpoint(String experiment,
+                            byte[] initialRandomState,
+                            double level,
+                            double maxHalfWidth,
+                            long initialNumberOfRuns,
+                            long additionalNumberOfRuns,
+                            long numberOfObs,
+                            double average,
+                            double sumOfSquaredDev,
+                            boolean initialBatch,
+                            long remainingRuns,
+                            Random random) {
+
+    private static final int MAGIC = 0x4D43434B; // "MCCK"
+    private static final int VERSION = 2;
+    private static final ObjectInputFilter RANDOM_ONLY = ObjectInputFilter.Config.createFilter("java.util.Random;!*");
+
+    /**
+     * Creates the checkpoint of a simulation whose results are collected in stat.
+     */
+    static SimulationCheckpoint of(String experiment, byte[] initialRandomState, double level, double maxHalfWidth,
+                                   long initialNumberOfRuns, long additionalNumberOfRuns, Collector stat,
+                                   boolean initialBatch, long remainingRuns, Random random) {
+        return new SimulationCheckpoint(experiment, initialRandomState, level, maxHalfWidth, initialNumberOfRuns,
+                additionalNumberOfRuns, stat.getNumberOfObs(), stat.getAverage(), stat.getSumOfSquaredDev(),
+                initialBatch, remainingRuns, random);
+    }
+
+    /**
+     * Returns the serialized state of random, as stored in a checkpoint.
+     *
+     * @throws UncheckedIOException if random cannot be serialized
+     */
+    static byte[] stateOf(Random random) {
+        try {
+            return serialize(random);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Random source could not be serialized.", e);
+        }
+    }
+
+    /**
+     * Checks that this checkpoint was written by a simulation of the same experiment, started from the same state
+     * of the random source, with the same parameters.
+     *
+     * @throws IllegalArgumentException if the experiment, the initial random state or the parameters differ
+     */
+    void checkParameters(String experiment, byte[] initialRandomState, double level, double maxHalfWidth,
+                         long initialNumberOfRuns, long additionalNumberOfRuns) {
+        if (!this.experiment.equals(experiment)) {
+            throw new IllegalArgumentException("Checkpoint was written by a simulation of another experiment.");
+        }
+        if (!Arrays.equals(this.initialRandomState, initialRandomState)) {
+            throw new IllegalArgumentException("Checkpoint was written by a simulation with another random source.");
+        }
+        if (this.level != level || this.maxHalfWidth != maxHalfWidth
+                || this.initialNumberOfRuns != initialNumberOfRuns
+                || this.additionalNumberOfRuns != additionalNumberOfRuns) {
+            throw new IllegalArgumentException("Checkpoint was written by a simulation with other parameters.");
+        }
+    }
+
+    /**
+     * Replaces the content of stat by the observations of this checkpoint.
+     *
+     * @param stat collector to be restored, which must support {@link Collector#addAll(long, double, double)}
+     */
+    void restore(Collector stat) {
+        stat.init();
+        stat.addAll(numberOfObs, average, sumOfSquaredDev);
+    }
+
+    /**
+     * Writes this checkpoint to file, atomically replacing the previous one.
+     *
+     * @param file file of the checkpoint
+     * @throws UncheckedIOException if the checkpoint cannot be written
+     */
+    void write(Path file) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeUTF(experiment);
+            out.writeInt(initialRandomState.length);
+            out.write(initialRandomState);
+            out.writeDouble(level);
+            out.writeDouble(maxHalfWidth);
+            out.writeLong(initialNumberOfRuns);
+            out.writeLong(additionalNumberOfRuns);
+            out.writeLong(numberOfObs);
+            out.writeDouble(average);
+            out.writeDouble(sumOfSquaredDev);
+            out.writeBoolean(initialBatch);
+            out.writeLong(remainingRuns);
+            byte[] randomState = serialize(random);
+            out.writeInt(randomState.length);
+            out.write(randomState);
+
+            CRC32 crc = new CRC32();
+            crc.update(bytes.toByteArray());
+            out.writeLong(crc.getValue());
+            out.flush();
+
+            // Écriture dans un fichier temporaire forcée sur disque, puis remplacement atomique
+            Path directory = file.toAbsolutePath().getParent();
+            Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            try {
+                try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                    ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                    channel.force(true);
+                }
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Checkpoint " + file + " could not be written.", e);
+        }
+    }
+
+    /**
+     * Reads the checkpoint stored in file.
+     *
+     * @param file file of the checkpoint
+     * @return the checkpoint
+     * @throws UncheckedIOException     if the checkpoint cannot be read
+     * @throws IllegalArgumentException if file does not contain a valid checkpoint
+     */
+    static SimulationCheckpoint read(Path file) {
+        try {
+            byte[] content = Files.readAllBytes(file);
+            if (content.length < Long.BYTES) {
+                throw new IllegalArgumentException("File " + file + " is not a valid checkpoint.");
+            }
+            CRC32 crc = new CRC32();
+            crc.update(content, 0, content.length - Long.BYTES);
+            if (crc.getValue() != ByteBuffer.wrap(content, content.length - Long.BYTES, Long.BYTES).getLong()) {
+                throw new IllegalArgumentException("File " + file + " is not a valid checkpoint.");
+            }
+
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(content));
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IllegalArgumentException("File " + file + " is not a valid checkpoint.");
+            }
+            String experiment = in.readUTF();
+            byte[] initialRandomState = new byte[in.readInt()];
+            in.readFully(initialRandomState);
+            double level = in.readDouble();
+            double maxHalfWidth = in.readDouble();
+            long initialNumberOfRuns = in.readLong();
+            long additionalNumberOfRuns = in.readLong();
+            long numberOfObs = in.readLong();
+            double average = in.readDouble();
+            double sumOfSquaredDev = in.readDouble();
+            boolean initialBatch = in.readBoolean();
+            long remainingRuns = in.readLong();
+            byte[] randomState = new byte[in.readInt()];
+            in.readFully(randomState);
+
+            return new SimulationCheckpoint(experiment, initialRandomState, level, maxHalfWidth, initialNumberOfRuns,
+                    additionalNumberOfRuns, numberOfObs, average, sumOfSquaredDev, initialBatch, remainingRuns,
+                    deserialize(randomState));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Checkpoint " + file + " could not be read.", e);
+        }
+    }
+
+    private static byte[] serialize(Random random) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(random);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Random deserialize(byte[] state) throws IOException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(state))) {
+            // Seul un java.util.Random peut être reconstruit depuis le fichier
+            in.setObjectInputFilter(RANDOM_ONLY);
+            return (Random) in.readObject();
+        } catch (ClassNotFoundException | InvalidClassException e) {
+            throw new IllegalArgumentException("Checkpoint does not contain a valid random source.", e);
+        }
+    }
+}
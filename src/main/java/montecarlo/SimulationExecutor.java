@@ -0,0 +1,141 @@
+package montecarlo;
+
+import statistics.Collector;
+import statistics.Estimator;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
+import java.util.random.RandomGenerator;
+
+/**
+ * Runs simulations asynchronously: each submitted simulation is a job whose result is returned as a
+ * CompletableFuture, so that many independent simulations can be run at once.
+ * <p>
+ * Each job is driven by its own virtual thread, which applies the stopping rule and waits for the batches, while the
+ * batches themselves are performed by a bounded pool of platform threads: the number of jobs is not limited, but no
+ * more batches than workers run at the same time.
+ * <p>
+ * A job stops at the next batch boundary once its future is completed, whether it was cancelled with
+ * {@link CompletableFuture#cancel(boolean)} or timed out, for instance with
+ * {@link CompletableFuture#orTimeout(long, TimeUnit)} or the deadline given at submission. The batch running at
+ * that moment is completed: its results are collected in the collector of the job, but not reported.
+ */
+public class SimulationExecutor implements AutoCloseable {
+
+    private final ExecutorService jobs = Executors.newVirtualThreadPerTaskExecutor();
+    private final ExecutorService workers;
+
+    /**
+     * Creates an executor with one worker per available processor.
+     */
+    public SimulationExecutor() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates an executor with the given number of workers.
+     *
+     * @param numberOfWorkers maximal number of batches performed at the same time
+     * @throws IllegalArgumentException if numberOfWorkers is not positive
+     */
+    public SimulationExecutor(int numberOfWorkers) {
+        if (numberOfWorkers <= 0) {
+            throw new IllegalArgumentException("Number of workers should be positive.");
+        }
+        this.workers = Executors.newFixedThreadPool(numberOfWorkers);
+    }
+
+    /**
+     * Submits the simulation of experiment exp with rule, using rnd as a source of pseudo-random numbers and
+     * collecting the results in stat. The experiment, rnd and stat are used by one thread at a time.
+     *
+     * @param exp                 experiment to be run each time
+     * @param rule                rule deciding when the simulation stops
+     * @param initialNumberOfRuns initial number of runs to be performed, at least 2
+     * @param rnd                 random source to be used to simulate the experiment
+     * @param stat                collector to be used to collect the results of each experiment
+     * @return the future summary of the simulation
+     */
+    public CompletableFuture<SequentialSimulationReport> submit(Experiment exp,
+                                                                SequentialStoppingRule rule,
+                                                                long initialNumberOfRuns,
+                                                                RandomGenerator rnd,
+                                                                Collector stat) {
+        return submit(n -> MonteCarloSimulation.simulateNRuns(exp, n, rnd, stat), rule, initialNumberOfRuns, stat);
+    }
+
+    /**
+     * Same as {@link #submit(Experiment, SequentialStoppingRule, long, RandomGenerator, Collector)}, the job
+     * completing exceptionally with a {@link java.util.concurrent.TimeoutException} and stopping at the next batch
+     * boundary if it is not done within timeout.
+     *
+     * @param exp                 experiment to be run each time
+     * @param rule                rule deciding when the simulation stops
+     * @param initialNumberOfRuns initial number of runs to be performed, at least 2
+     * @param rnd                 random source to be used to simulate the experiment
+     * @param stat                collector to be used to collect the results of each experiment
+     * @param timeout             time after which the job is abandoned
+     * @return the future summary of the simulation
+     */
+    public CompletableFuture<SequentialSimulationReport> submit(Experiment exp,
+                                                                SequentialStoppingRule rule,
+                                                                long initialNumberOfRuns,
+                                                                RandomGenerator rnd,
+                                                                Collector stat,
+                                                                Duration timeout) {
+        return submit(exp, rule, initialNumberOfRuns, rnd, stat).orTimeout(timeout.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Submits a simulation whose batches are performed by simulator, for instance to collect the results in a
+     * {@link statistics.ControlVariateCollector} or to monitor the simulation with a {@link SimulationMonitor}.
+     *
+     * @param simulator           performs the given number of runs and collects their results in stat
+     * @param rule                rule deciding when the simulation stops
+     * @param initialNumberOfRuns initial number of runs to be performed, at least 2
+     * @param stat                estimator of the results collected by simulator
+     * @return the future summary of the simulation
+     */
+    public CompletableFuture<SequentialSimulationReport> submit(LongConsumer simulator,
+                                                                SequentialStoppingRule rule,
+                                                                long initialNumberOfRuns,
+                                                                Estimator stat) {
+        CompletableFuture<SequentialSimulationReport> result = new CompletableFuture<>();
+
+        // Chaque lot est confié aux travailleurs ; le thread virtuel du travail attend sa fin
+        LongConsumer batches = n -> {
+            if (result.isDone()) {
+                throw new CancellationException(); // Annulé ou expiré : arrêt à la frontière du lot
+            }
+            CompletableFuture.runAsync(() -> simulator.accept(n), workers).join();
+        };
+
+        jobs.execute(() -> {
+            try {
+                result.complete(rule.simulate(batches, initialNumberOfRuns, stat));
+            } catch (CancellationException e) {
+                // Le résultat est déjà fixé
+            } catch (CompletionException e) {
+                result.completeExceptionally(e.getCause());
+            } catch (RuntimeException | Error e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Stops accepting jobs and waits for the submitted ones to stop.
+     */
+    @Override
+    public void close() {
+        jobs.close();
+        workers.close();
+    }
+}
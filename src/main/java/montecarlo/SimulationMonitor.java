@@ -0,0 +1,265 @@
+package montecarlo;
+
+import statistics.Estimator;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.function.LongConsumer;
+
+/**
+ * Publishes the progress of a simulation while it runs: runs completed, throughput, current estimate, current half
+ * width of the confidence interval and projected time to reach the target half width.
+ * <p>
+ * The monitor wraps the simulator performing the batches of runs (see {@link #instrument(LongConsumer, Estimator)}):
+ * the metrics are only updated at the end of each batch, so that the runs themselves are not slowed down. They can
+ * be read through JMX once the monitor is registered (see {@link #register()}), and a
+ * {@code montecarlo.SimulationBatch} Java Flight Recorder event is recorded for each batch when that event is
+ * enabled.
+ * <p>
+ * The batches must be performed by a single thread at a time; the metrics may be read by any thread.
+ */
+public class SimulationMonitor implements SimulationMonitorMXBean, AutoCloseable {
+
+    /**
+     * Domain of the names under which the monitors are registered.
+     */
+    public static final String JMX_DOMAIN = "montecarlo";
+
+    private final String name;
+    private final double level;
+    private final double targetHalfWidth;
+    private final ObjectName objectName;
+
+    private volatile long startNanos;   // Début du premier lot
+    private volatile boolean started;
+    private volatile Progress progress = new Progress(0L, 0L, 0L, 0L, Double.NaN, Double.NaN, Double.NaN,
+            -1L);
+    private boolean registered;
+
+    /**
+     * État publié à la fin de chaque lot, remplacé d'un bloc pour que les lectures concurrentes restent cohérentes.
+     * monitoredRuns ne compte que les réalisations des lots instrumentés, sans celles déjà présentes dans le
+     * collecteur (reprise, collecteur réutilisé), pour que le débit ne soit pas surestimé.
+     */
+    private record Progress(long runs, long monitoredRuns, long batches, long lastBatchEndNanos,
+                            double lastBatchRunsPerSecond, double estimate, double halfWidth, long projectedRuns) {
+    }
+
+    /**
+     * Creates a monitor, not yet registered with JMX.
+     *
+     * @param name            name of the monitored simulation
+     * @param level           confidence level of the confidence interval
+     * @param targetHalfWidth half width of the confidence interval to be reached
+     * @throws IllegalArgumentException if level is not between 0 and 1, targetHalfWidth is not positive or name
+     *                                  cannot be part of a JMX object name
+     */
+    public SimulationMonitor(String name, double level, double targetHalfWidth) {
+        // Check arguments
+        if (level < 0.0 || level > 1.0) {
+            throw new IllegalArgumentException("Confidence level should be between 0 and 1.");
+        }
+        if (!(targetHalfWidth > 0.0)) {
+            throw new IllegalArgumentException("Target half width should be positive.");
+        }
+
+        this.name = name;
+        this.level = level;
+        this.targetHalfWidth = targetHalfWidth;
+        try {
+            this.objectName = new ObjectName(JMX_DOMAIN, "name", ObjectName.quote(name));
+        } catch (JMException e) {
+            throw new IllegalArgumentException("Invalid simulation name: " + name, e);
+        }
+    }
+
+    /**
+     * Creates a monitor for simulations stopped by rule.
+     *
+     * @param name name of the monitored simulation
+     * @param rule stopping rule giving the confidence level and the target half width
+     */
+    public SimulationMonitor(String name, SequentialStoppingRule rule) {
+        this(name, rule.getLevel(), rule.getMaxHalfWidth());
+    }
+
+    /**
+     * Registers this monitor with the platform MBean server, under the name montecarlo:name="name of the
+     * simulation".
+     *
+     * @return this monitor
+     * @throws IllegalStateException if another monitor is already registered under the same name
+     */
+    public synchronized SimulationMonitor register() {
+        if (!registered) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+            } catch (JMException e) {
+                throw new IllegalStateException("Monitor " + objectName + " could not be registered.", e);
+            }
+            registered = true;
+        }
+        return this;
+    }
+
+    /**
+     * Unregisters this monitor from the platform MBean server, if it was registered.
+     */
+    @Override
+    public synchronized void close() {
+        if (registered) {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            try {
+                server.unregisterMBean(objectName);
+            } catch (JMException e) {
+                throw new IllegalStateException("Monitor " + objectName + " could not be unregistered.", e);
+            }
+            registered = false;
+        }
+    }
+
+    /**
+     * Returns the name under which this monitor is registered with JMX.
+     *
+     * @return the JMX object name of this monitor
+     */
+    public ObjectName getObjectName() {
+        return objectName;
+    }
+
+    /**
+     * Wraps simulator so that the metrics of this monitor are updated after each batch it performs. The returned
+     * simulator can be given to {@link SequentialStoppingRule#simulate(LongConsumer, long, Estimator)}, for
+     * instance.
+     *
+     * @param simulator performs the given number of runs and collects their results in stat
+     * @param stat      collector in which the results of each experiment are collected
+     * @return the instrumented simulator
+     */
+    public LongConsumer instrument(LongConsumer simulator, Estimator stat) {
+        return n -> {
+            SimulationBatchEvent event = new SimulationBatchEvent();
+            event.begin();
+            long start = System.nanoTime();
+            if (!started) {
+                startNanos = start;
+                started = true;
+            }
+            simulator.accept(n);
+            long end = System.nanoTime();
+            event.end();
+
+            batchCompleted(n, start, end, stat);
+
+            if (event.shouldCommit()) {
+                Progress current = progress;
+                event.simulation = name;
+                event.batchRuns = n;
+                event.totalRuns = current.runs();
+                event.estimate = current.estimate();
+                event.halfWidth = current.halfWidth();
+                event.runsPerSecond = current.lastBatchRunsPerSecond();
+                event.commit();
+            }
+        };
+    }
+
+    /**
+     * Publishes the state of stat at the end of a batch of n runs performed between start and end.
+     */
+    private void batchCompleted(long n, long start, long end, Estimator stat) {
+        Progress previous = progress;
+
+        long runs = stat.getNumberOfObs();
+        double halfWidth = stat.getConfidenceIntervalHalfWidth(level);
+
+        // Projection du nombre total de réalisations : la demi-largeur décroît en 1/√n
+        long projectedRuns;
+        if (Double.isNaN(halfWidth)) {
+            projectedRuns = -1L;
+        } else if (halfWidth <= targetHalfWidth) {
+            projectedRuns = runs;
+        } else {
+            double ratio = halfWidth / targetHalfWidth;
+            projectedRuns = (long) Math.ceil(runs * ratio * ratio);
+        }
+
+        progress = new Progress(runs, previous.monitoredRuns() + n, previous.batches() + 1, end,
+                perSecond(n, end - start),
+                stat.getAverage(), halfWidth, projectedRuns);
+    }
+
+    private static double perSecond(long runs, long nanos) {
+        return nanos > 0 ? runs * 1e9 / nanos : Double.NaN;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public long getRunsCompleted() {
+        return progress.runs();
+    }
+
+    @Override
+    public long getBatchesCompleted() {
+        return progress.batches();
+    }
+
+    @Override
+    public double getRunsPerSecond() {
+        return runsPerSecond(progress);
+    }
+
+    private double runsPerSecond(Progress current) {
+        return perSecond(current.monitoredRuns(), current.lastBatchEndNanos() - startNanos);
+    }
+
+    @Override
+    public double getLastBatchRunsPerSecond() {
+        return progress.lastBatchRunsPerSecond();
+    }
+
+    @Override
+    public double getCurrentEstimate() {
+        return progress.estimate();
+    }
+
+    @Override
+    public double getCurrentHalfWidth() {
+        return progress.halfWidth();
+    }
+
+    @Override
+    public double getTargetHalfWidth() {
+        return targetHalfWidth;
+    }
+
+    @Override
+    public long getProjectedRuns() {
+        return progress.projectedRuns();
+    }
+
+    @Override
+    public double getProjectedSecondsToTarget() {
+        Progress current = progress;
+        if (current.projectedRuns() < 0) {
+            return Double.NaN;
+        }
+        // Un seul état lu : le débit et les réalisations restantes décrivent le même lot
+        return (current.projectedRuns() - current.runs()) / runsPerSecond(current);
+    }
+
+    @Override
+    public double getElapsedSeconds() {
+        if (!started) {
+            return 0.0;
+        }
+        // Mesuré jusqu'à maintenant, et non jusqu'à la fin du dernier lot, pour qu'un lot bloqué se remarque
+        return (System.nanoTime() - startNanos) / 1e9;
+    }
+}
@@ -0,0 +1,65 @@
+package montecarlo;
+
+/**
+ * Management interface of a {@link SimulationMonitor}, exposed through JMX. All values but the elapsed time are
+ * updated at the end of each batch of runs.
+ */
+public interface SimulationMonitorMXBean {
+
+    /**
+     * @return the name of the monitored simulation
+     */
+    String getName();
+
+    /**
+     * @return the number of runs completed
+     */
+    long getRunsCompleted();
+
+    /**
+     * @return the number of batches completed
+     */
+    long getBatchesCompleted();
+
+    /**
+     * @return the number of runs performed by the monitored batches per second, from the start of the first batch
+     * to the end of the last one; the observations collected before the first batch are not counted
+     */
+    double getRunsPerSecond();
+
+    /**
+     * @return the number of runs per second of the last batch
+     */
+    double getLastBatchRunsPerSecond();
+
+    /**
+     * @return the current estimate of the mean
+     */
+    double getCurrentEstimate();
+
+    /**
+     * @return the current half width of the confidence interval
+     */
+    double getCurrentHalfWidth();
+
+    /**
+     * @return the half width of the confidence interval to be reached
+     */
+    double getTargetHalfWidth();
+
+    /**
+     * @return the total number of runs needed to reach the target half width, according to the current estimate of
+     * the variance, or -1 if the variance cannot be estimated yet
+     */
+    long getProjectedRuns();
+
+    /**
+     * @return the estimated time left to reach the target half width at the current throughput, in seconds
+     */
+    double getProjectedSecondsToTarget();
+
+    /**
+     * @return the time elapsed since the first batch started, in seconds, up to now even if a batch is running
+     */
+    double getElapsedSeconds();
+}
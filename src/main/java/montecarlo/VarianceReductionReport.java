@@ -0,0 +1,40 @@
+package montecarlo;
+
+/**
+ * Summary of the variance reduction achieved by a simulation, compared to crude Monte Carlo.
+ *
+ * @param runs             number of runs of the experiment performed
+ * @param crudeVariance    estimated variance of one run of the experiment, without variance reduction
+ * @param reducedVariance  estimated variance per run of the estimator with variance reduction, i.e. the variance
+ *                         of the estimator multiplied by the number of runs
+ */
+public record VarianceReductionReport(long runs, double crudeVariance, double reducedVariance) {
+
+    /**
+     * Returns the factor by which the variance of the estimator is divided for a given number of runs. A factor
+     * smaller than 1 means that the variance reduction technique is counterproductive for this experiment.
+     *
+     * @return crudeVariance / reducedVariance
+     */
+    public double varianceReductionFactor() {
+        return crudeVariance / reducedVariance;
+    }
+
+    /**
+     * Returns the number of runs crude Monte Carlo would have needed to reach the same half-width.
+     *
+     * @return the equivalent number of crude runs
+     */
+    public long equivalentCrudeRuns() {
+        return Math.round(runs * varianceReductionFactor());
+    }
+
+    /**
+     * Returns the number of runs saved by the variance reduction (negative if more runs were needed).
+     *
+     * @return the number of saved runs
+     */
+    public long savedRuns() {
+        return equivalentCrudeRuns() - runs;
+    }
+}
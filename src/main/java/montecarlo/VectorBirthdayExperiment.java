@@ -0,0 +1,102 @@
+package montecarlo;
+
+import statistics.Collector;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.random.RandomGenerator;
+
+/**
+ * Expérience des anniversaires dont les lots de réalisations sont simulés par un noyau SIMD écrit avec l'API
+ * Vector (voir {@link VectorBirthdayKernel}) : plusieurs réalisations indépendantes avancent ensemble, une par voie
+ * des registres vectoriels.
+ * <p>
+ * L'API Vector est un module en incubation, qui n'est présent que si la JVM est lancée avec
+ * {@code --add-modules jdk.incubator.vector}. Sans ce module, si K est nul, ou si Y dépasse 512 ou M dépasse 255,
+ * les lots sont simulés par la boucle scalaire de {@link BirthdayExperiment}. Les réalisations isolées
+ * ({@link #execute(RandomGenerator)}) sont toujours scalaires.
+ * <p>
+ * Le noyau tire ses nombres aléatoires d'un générateur SplitMix64 initialisé par un seul nombre de rnd par lot : les
+ * résultats ont la même loi que ceux de la version scalaire, mais pas les mêmes valeurs, comme le permet
+ * {@link Experiment#executeBatch(RandomGenerator, long, Collector)}. Ils restent reproductibles : le même état de rnd
+ * et la même taille de lot donnent les mêmes résultats.
+ */
+public class VectorBirthdayExperiment extends BirthdayExperiment {
+
+    // Constructeur du noyau, null si le module jdk.incubator.vector est absent
+    private static final Constructor<? extends BirthdayBatchKernel> KERNEL = findKernel();
+
+    // Noyau de chaque thread, null si les lots sont scalaires
+    private final ThreadLocal<BirthdayBatchKernel> kernels;
+
+    /**
+     * Crée l'expérience.
+     * @param K le nombre de personnes.
+     * @param Y le nombre de jours dans une année.
+     * @param M le nombre minimum d'occurrences pour un succès.
+     */
+    public VectorBirthdayExperiment(int K, int Y, int M) {
+        super(K, Y, M, true);
+        // Le noyau tire le jour d'une personne avant de comparer leur nombre à K : il lui faut au moins une personne
+        this.kernels = KERNEL != null && K >= 1 && Y <= VectorBirthdayKernel.MAX_Y && M <= VectorBirthdayKernel.MAX_M
+                ? ThreadLocal.withInitial(() -> newKernel(K, Y, M))
+                : null;
+    }
+
+    /**
+     * Indique si le module jdk.incubator.vector est présent, et donc si les lots peuvent être vectorisés.
+     * @return true si le noyau SIMD est disponible.
+     */
+    public static boolean isVectorKernelAvailable() {
+        return KERNEL != null;
+    }
+
+    /**
+     * Indique si les lots de cette expérience sont simulés par le noyau SIMD.
+     * @return true si les lots sont vectorisés.
+     */
+    public boolean isVectorized() {
+        return kernels != null;
+    }
+
+    /**
+     * Exécute l'expérience n fois et ajoute les résultats à sink, avec le noyau SIMD s'il est disponible.
+     * @param rnd  un générateur de nombres pseudo-aléatoires, dont un nombre initialise le générateur du noyau.
+     * @param n    le nombre de réalisations.
+     * @param sink le collecteur des résultats.
+     */
+    @Override
+    public void executeBatch(RandomGenerator rnd, long n, Collector sink) {
+        if (kernels == null) {
+            super.executeBatch(rnd, n, sink);
+            return;
+        }
+        if (n > 0) {
+            sink.addBernoulli(n, kernels.get().countSuccesses(rnd, n));
+        }
+    }
+
+    private static Constructor<? extends BirthdayBatchKernel> findKernel() {
+        // La classe du noyau n'est chargée que si le module est présent : elle ne pourrait pas être liée sinon
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return null;
+        }
+        try {
+            return Class.forName("montecarlo.VectorBirthdayKernel")
+                    .asSubclass(BirthdayBatchKernel.class)
+                    .getDeclaredConstructor(int.class, int.class, int.class);
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+    private static BirthdayBatchKernel newKernel(int K, int Y, int M) {
+        try {
+            return KERNEL.newInstance(K, Y, M);
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException("Vector kernel could not be created.", e.getCause());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Vector kernel could not be created.", e);
+        }
+    }
+}
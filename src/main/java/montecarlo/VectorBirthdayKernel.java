@@ -0,0 +1,243 @@
+package montecarlo;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Birthday kernel simulating one realization per SIMD lane with the Vector API (jdk.incubator.vector): as many
+ * realizations as there are 64-bit lanes in the preferred vector shape (4 with AVX2, 8 with AVX-512) run together.
+ * As soon as the realization of a lane ends, by a success or after K people, the lane starts the next realization
+ * of the batch, so that no lane idles while the others continue.
+ * <p>
+ * The random words of the lanes are the successive outputs of a SplitMix64 generator (the algorithm of
+ * SplittableRandom) seeded by one nextLong() of the given source per batch, lane i taking outputs i, i + L, ...
+ * As in {@link PackedUniformSampler}, each word is cut into four 16-bit fields, each mapped to a day with Lemire's
+ * multiply-shift method. When the field of a lane would make the mapping biased, all the lanes draw again, so that
+ * every day has exactly the same probability. Y must therefore be at most 512, so that at most 1 field out of 128
+ * is rejected.
+ * <p>
+ * Each lane counts its birthdays in its own slice of an int array, updated by gather and scatter. An entry holds
+ * the number of the realization of the lane which last wrote it in its upper bits and the count in its 8 lower
+ * bits, so that the slices need not be cleared between realizations. The counts are saturated at M, which must be
+ * at most 255.
+ * <p>
+ * The loop is written so that the JIT compiler keeps every vector in registers: the constants are broadcast before
+ * the loop, the lanes which end are found from the sign of vectors rather than from masks, and the vectors are only
+ * passed to the methods which are not inlined through arrays. Otherwise, the vectors would be allocated at each
+ * step and the kernel would be slower than the scalar loop.
+ * <p>
+ * This class is only loaded when the module jdk.incubator.vector is present, see {@link VectorBirthdayExperiment}.
+ */
+final class VectorBirthdayKernel implements BirthdayBatchKernel {
+
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> INTS =
+            VectorSpecies.of(int.class, VectorShape.forBitSize(LONGS.vectorBitSize() / 2));
+    private static final int LANES = LONGS.length();
+
+    /**
+     * Largest number of days supported: the days are drawn from 16-bit fields.
+     */
+    static final int MAX_Y = 512;
+
+    /**
+     * Largest minimal number of occurrences supported: the counts are stored on 8 bits.
+     */
+    static final int MAX_M = 255;
+
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    private static final int FIELD_BITS = 16;
+    private static final int FIELD_MASK = (1 << FIELD_BITS) - 1;
+    private static final int FIELDS_PER_WORD = Long.SIZE / FIELD_BITS;
+    private static final int COUNT_BITS = 8;
+    private static final int COUNT_MASK = (1 << COUNT_BITS) - 1;
+    private static final int FIRST_TAG = 1 << COUNT_BITS;
+    private static final int STOPPED = Integer.MIN_VALUE / 2;
+
+    // Les opérandes scalaires passent par des appels trop imbriqués pour être compilés en instructions vectorielles :
+    // toutes les constantes de la boucle sont diffusées à l'avance
+    private static final LongVector MIX_1 = LongVector.broadcast(LONGS, 0xbf58476d1ce4e5b9L);
+    private static final LongVector MIX_2 = LongVector.broadcast(LONGS, 0x94d049bb133111ebL);
+    private static final LongVector SHIFT_16 = LongVector.broadcast(LONGS, FIELD_BITS);
+    private static final LongVector SHIFT_27 = LongVector.broadcast(LONGS, 27);
+    private static final LongVector SHIFT_30 = LongVector.broadcast(LONGS, 30);
+    private static final LongVector SHIFT_31 = LongVector.broadcast(LONGS, 31);
+
+    private final int K;
+    private final int Y;
+    private final int M;
+    private final int threshold;       // Les produits dont les 16 bits de poids faible sont sous ce seuil sont rejetés
+
+    private final int[] entries;       // Tranche de Y entrées par voie : numéro de réalisation << 8 | compteur
+    private final int[] indices = new int[LANES];
+
+    private final int[] tags = new int[LANES]; // Numéro de la dernière réalisation de chaque voie, décalé de 8 bits
+    private final int[] offsets = new int[LANES];
+
+    VectorBirthdayKernel(int K, int Y, int M) {
+        if (Y < 1 || Y > MAX_Y) {
+            throw new IllegalArgumentException("Number of days should be between 1 and " + MAX_Y + ".");
+        }
+        if (M < 1 || M > MAX_M) {
+            throw new IllegalArgumentException("Minimal number of occurrences should be between 1 and " + MAX_M + ".");
+        }
+        this.K = K;
+        this.Y = Y;
+        this.M = M;
+        this.threshold = (1 << FIELD_BITS) % Y;
+        this.entries = new int[LANES * Y];
+    }
+
+    /**
+     * Returns the number of realizations simulated together.
+     *
+     * @return the number of lanes
+     */
+    static int lanes() {
+        return LANES;
+    }
+
+    @Override
+    public long countSuccesses(RandomGenerator rnd, long n) {
+        if (n <= 0) {
+            return 0;
+        }
+
+        // Voie i : sorties i, i + L, i + 2L, ... d'un même flux SplitMix64 (le premier tirage avance d'un pas)
+        LongVector stride = LongVector.broadcast(LONGS, LANES * GOLDEN_GAMMA);
+        LongVector state = LongVector.zero(LONGS).addIndex(1).add(1 - LANES).mul(GOLDEN_GAMMA).add(rnd.nextLong());
+        IntVector laneOffsets = IntVector.zero(INTS).addIndex(Y);
+
+        // Constantes de l'expérience, diffusées une fois pour toutes
+        IntVector days = IntVector.broadcast(INTS, Y);
+        IntVector fieldMask = IntVector.broadcast(INTS, FIELD_MASK);
+        IntVector fieldShift = IntVector.broadcast(INTS, FIELD_BITS);
+        IntVector thresholds = IntVector.broadcast(INTS, threshold);
+        IntVector zeros = IntVector.zero(INTS);
+        IntVector ones = IntVector.broadcast(INTS, 1);
+        IntVector countMask = IntVector.broadcast(INTS, COUNT_MASK);
+        IntVector tagMask = IntVector.broadcast(INTS, ~COUNT_MASK);
+        IntVector firstTag = IntVector.broadcast(INTS, FIRST_TAG);
+        IntVector minOccurrences = IntVector.broadcast(INTS, M);
+        IntVector groupSize = IntVector.broadcast(INTS, K);
+        IntVector signShift = IntVector.broadcast(INTS, Integer.SIZE - 1);
+
+        // Les voies arrêtées en fin de lot sont décalées d'un grand négatif, de sorte qu'elles ne terminent plus
+        // jamais
+        long started = Math.min(LANES, n);
+        int activeLanes = (int) started;
+        Arrays.fill(this.offsets, 0, activeLanes, 0);
+        Arrays.fill(this.offsets, activeLanes, LANES, STOPPED);
+        IntVector offsets = IntVector.fromArray(INTS, this.offsets, 0);
+        IntVector tags = IntVector.fromArray(INTS, this.tags, 0).add(firstTag);
+        if (tags.compare(VectorOperators.LT, zeros).anyTrue()) {
+            tags.intoArray(this.tags, 0);
+            wrapTags();
+            tags = IntVector.fromArray(INTS, this.tags, 0);
+        }
+        IntVector persons = zeros;
+        long successes = 0;
+
+        LongVector word = state;
+        int field = 0;
+
+        while (activeLanes > 0) {
+            // Champ de 16 bits suivant du mot aléatoire de chaque voie : un mot SplitMix64 fournit quatre champs
+            if (field == 0) {
+                state = state.add(stride);
+                word = mix64(state);
+            }
+            IntVector bits = (IntVector) word.convertShape(VectorOperators.L2I, INTS, 0);
+            word = word.lanewise(VectorOperators.LSHR, SHIFT_16);
+            field = (field + 1) & (FIELDS_PER_WORD - 1);
+
+            // Jour tiré par multiplication-décalage de Lemire. Si une voie tombe sur un champ qui biaiserait le
+            // tirage, toutes tirent à nouveau : les champs des voies étant indépendants, ceux qui sont retenus
+            // restent uniformes et indépendants
+            IntVector product = bits.and(fieldMask).mul(days);
+            if (product.and(fieldMask).compare(VectorOperators.LT, thresholds).anyTrue()) {
+                continue;
+            }
+            IntVector day = product.lanewise(VectorOperators.LSHR, fieldShift);
+            day.add(laneOffsets).intoArray(indices, 0);
+
+            // Compteur du jour tiré, remis à zéro si l'entrée date d'une réalisation précédente de la voie
+            IntVector entry = IntVector.fromArray(INTS, entries, 0, indices, 0);
+            VectorMask<Integer> stale = entry.and(tagMask).compare(VectorOperators.NE, tags);
+            IntVector count = entry.and(countMask).blend(zeros, stale).add(ones).min(minOccurrences);
+            tags.or(count).intoArray(entries, 0, indices, 0);
+
+            // Une voie active termine quand son compteur atteint M ou après K personnes. Les voies terminées sont
+            // repérées par le signe (0 si terminée, -1 sinon) et reprennent sans branchement, qui serait imprévisible
+            persons = persons.add(ones);
+            IntVector excess = count.sub(minOccurrences).add(offsets);
+            IntVector running = excess.max(persons.sub(groupSize).add(offsets))
+                    .lanewise(VectorOperators.ASHR, signShift);
+            successes += LANES + excess.lanewise(VectorOperators.ASHR, signShift).reduceLanes(VectorOperators.ADD);
+            persons = persons.and(running);
+            tags = tags.add(firstTag.lanewise(VectorOperators.AND_NOT, running));
+
+            // En fin de lot, les voies qui n'ont plus de réalisation à simuler sont arrêtées : elles continuent à
+            // tirer, sans plus jamais terminer
+            int ended = LANES + running.reduceLanes(VectorOperators.ADD);
+            if (n - started < ended) {
+                offsets.intoArray(this.offsets, 0);
+                running.intoArray(indices, 0);
+                stopLanes(n - started);
+                offsets = IntVector.fromArray(INTS, this.offsets, 0);
+                activeLanes -= ended - (int) (n - started);
+                started = n;
+            } else {
+                started += ended;
+            }
+            if (tags.compare(VectorOperators.LT, zeros).anyTrue()) {
+                tags.intoArray(this.tags, 0);
+                wrapTags();
+                tags = IntVector.fromArray(INTS, this.tags, 0);
+            }
+        }
+
+        tags.intoArray(this.tags, 0);
+        return successes;
+    }
+
+    /**
+     * Stops the finished lanes, whose entry in indices is 0, except the first count ones, by setting their entry in
+     * offsets to a large negative value.
+     */
+    private void stopLanes(long count) {
+        for (int i = 0; i < LANES; i++) {
+            if (indices[i] == 0 && count-- <= 0) {
+                offsets[i] = STOPPED;
+            }
+        }
+    }
+
+    /**
+     * Restarts the numbering of the lanes whose realization numbers overflowed, after clearing their slice.
+     */
+    private void wrapTags() {
+        for (int i = 0; i < LANES; i++) {
+            if (tags[i] < 0) {
+                Arrays.fill(entries, i * Y, (i + 1) * Y, 0);
+                tags[i] = FIRST_TAG;
+            }
+        }
+    }
+
+    /**
+     * Fonction de mélange de SplitMix64 (variante 13 de Stafford), appliquée à chaque voie.
+     */
+    private static LongVector mix64(LongVector z) {
+        z = z.lanewise(VectorOperators.XOR, z.lanewise(VectorOperators.LSHR, SHIFT_30)).mul(MIX_1);
+        z = z.lanewise(VectorOperators.XOR, z.lanewise(VectorOperators.LSHR, SHIFT_27)).mul(MIX_2);
+        return z.lanewise(VectorOperators.XOR, z.lanewise(VectorOperators.LSHR, SHIFT_31));
+    }
+}
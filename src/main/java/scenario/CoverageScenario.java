@@ -0,0 +1,98 @@
+package scenario;
+
+import montecarlo.BirthdayExperiment;
+import montecarlo.CoverageStudy;
+import montecarlo.CoverageStudyResult;
+import montecarlo.RandomStreams;
+import statistics.StatCollector;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Study of the coverage of the confidence intervals of the probability that at least M people out of K share the
+ * same birthday, with {@link CoverageStudy}. In mode {@value #PARALLEL}, the replications are spread over the
+ * threads of the shared pool, each on its own stream split from a splittable random source. In mode
+ * {@value #SEQUENTIAL}, they run one after another on a single random source of any algorithm, as successive
+ * simulations sharing one generator.
+ *
+ * @param name         name of the scenario
+ * @param K            number of people in the group
+ * @param Y            number of days in a year
+ * @param M            minimal number of people sharing the same birthday
+ * @param level        confidence level of the confidence intervals
+ * @param trueValue    true value of the probability
+ * @param sampleSize   number of runs of each replication
+ * @param replications number of replications
+ * @param rng          name of the algorithm of the random source, which must be splittable in mode
+ *                     {@value #PARALLEL}
+ * @param seed         seed of the random source
+ * @param mode         {@value #PARALLEL} or {@value #SEQUENTIAL}
+ */
+public record CoverageScenario(String name, int K, int Y, int M, double level, double trueValue, long sampleSize,
+                               int replications, String rng, long seed, String mode) implements Scenario {
+
+    static final String TYPE = "coverage";
+
+    /**
+     * Mode in which the replications run concurrently on split streams.
+     */
+    public static final String PARALLEL = "parallel";
+
+    /**
+     * Mode in which the replications run one after another on a single random source.
+     */
+    public static final String SEQUENTIAL = "sequential";
+
+    /**
+     * Checks the mode.
+     *
+     * @throws IllegalArgumentException if mode is neither {@value #PARALLEL} nor {@value #SEQUENTIAL}
+     */
+    public CoverageScenario {
+        if (!PARALLEL.equals(mode) && !SEQUENTIAL.equals(mode)) {
+            throw new IllegalArgumentException("Mode of scenario " + name + " should be " + PARALLEL + " or "
+                    + SEQUENTIAL + ".");
+        }
+    }
+
+    static CoverageScenario of(ScenarioProperties properties) {
+        return new CoverageScenario(properties.name(),
+                properties.getInt("K"),
+                properties.getInt("Y", 365),
+                properties.getInt("M", 2),
+                properties.getDouble("level", 0.95),
+                properties.getDouble("trueValue"),
+                properties.getLong("sampleSize"),
+                properties.getInt("replications"),
+                properties.getString("rng", RandomStreams.DEFAULT_ALGORITHM),
+                properties.getLong("seed"),
+                properties.getString("mode", PARALLEL));
+    }
+
+    @Override
+    public String type() {
+        return TYPE;
+    }
+
+    @Override
+    public ScenarioResult run(ForkJoinPool pool) {
+        long start = System.nanoTime();
+        BirthdayExperiment experiment = new BirthdayExperiment(K, Y, M);
+        CoverageStudyResult result = SEQUENTIAL.equals(mode)
+                ? CoverageStudy.runSequentially(experiment, trueValue, level, sampleSize, replications,
+                        RandomStreams.create(rng, seed))
+                : CoverageStudy.run(experiment, trueValue, level, sampleSize, replications,
+                        RandomStreams.createSplittable(rng, seed), StatCollector::new, pool);
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        double coverage = result.coverage();
+        double halfWidth = result.confidenceIntervalHalfWidth(level);
+        return new ScenarioResult(name, TYPE,
+                List.of("replications", "sampleSize", "coverage", "halfWidth", "lowerBound", "upperBound"),
+                List.of(List.of(result.replications(), sampleSize, coverage, halfWidth, coverage - halfWidth,
+                        coverage + halfWidth)),
+                elapsed);
+    }
+}
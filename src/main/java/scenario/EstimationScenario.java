@@ -0,0 +1,84 @@
+package scenario;
+
+import montecarlo.BirthdayExperiment;
+import montecarlo.MonteCarloSimulation;
+import montecarlo.RandomStreams;
+import statistics.StatCollector;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.random.RandomGenerator;
+
+/**
+ * Estimation of the probability that at least M people out of K share the same birthday, with
+ * {@link MonteCarloSimulation#simulateTillGivenCIHalfWidth}, for each of the given maximal half widths in turn.
+ * The successive estimations use the same random source, each one continuing where the previous one stopped.
+ *
+ * @param name           name of the scenario
+ * @param K              number of people in the group
+ * @param Y              number of days in a year
+ * @param M              minimal number of people sharing the same birthday
+ * @param level          confidence level of the confidence intervals
+ * @param maxHalfWidths  maximal half widths of the confidence interval of the successive estimations
+ * @param initialRuns    initial number of runs of each estimation
+ * @param additionalRuns additional number of runs to be performed if the C.I. is too wide
+ * @param rng            name of the algorithm of the random source
+ * @param seed           seed of the random source
+ */
+public record EstimationScenario(String name, int K, int Y, int M, double level, List<Double> maxHalfWidths,
+                                 long initialRuns, long additionalRuns, String rng, long seed) implements Scenario {
+
+    static final String TYPE = "estimation";
+
+    /**
+     * Creates the scenario, copying the list of maximal half widths.
+     */
+    public EstimationScenario {
+        maxHalfWidths = List.copyOf(maxHalfWidths);
+    }
+
+    static EstimationScenario of(ScenarioProperties properties) {
+        return new EstimationScenario(properties.name(),
+                properties.getInt("K"),
+                properties.getInt("Y", 365),
+                properties.getInt("M", 2),
+                properties.getDouble("level", 0.95),
+                properties.getDoubles("maxHalfWidth"),
+                properties.getLong("initialRuns"),
+                properties.getLong("additionalRuns"),
+                properties.getString("rng", RandomStreams.DEFAULT_ALGORITHM),
+                properties.getLong("seed"));
+    }
+
+    @Override
+    public String type() {
+        return TYPE;
+    }
+
+    @Override
+    public ScenarioResult run(ForkJoinPool pool) {
+        long start = System.nanoTime();
+        BirthdayExperiment experiment = new BirthdayExperiment(K, Y, M);
+        RandomGenerator rnd = RandomStreams.create(rng, seed);
+        List<List<Object>> rows = new ArrayList<>();
+
+        for (double maxHalfWidth : maxHalfWidths) {
+            StatCollector stat = new StatCollector();
+            long iterationStart = System.nanoTime();
+            MonteCarloSimulation.simulateTillGivenCIHalfWidth(experiment, level, maxHalfWidth, initialRuns,
+                    additionalRuns, rnd, stat);
+            double seconds = (System.nanoTime() - iterationStart) / 1e9;
+
+            double estimate = stat.getAverage();
+            double halfWidth = stat.getConfidenceIntervalHalfWidth(level);
+            rows.add(List.of(maxHalfWidth, estimate, halfWidth, estimate - halfWidth, estimate + halfWidth,
+                    stat.getNumberOfObs(), seconds));
+        }
+
+        return new ScenarioResult(name, TYPE,
+                List.of("maxHalfWidth", "estimate", "halfWidth", "lowerBound", "upperBound", "runs", "seconds"),
+                rows, Duration.ofNanos(System.nanoTime() - start));
+    }
+}
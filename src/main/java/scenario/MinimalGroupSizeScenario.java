@@ -0,0 +1,116 @@
+package scenario;
+
+import montecarlo.BirthdayExperiment;
+import montecarlo.CollisionTimeSweep;
+import montecarlo.FirstCollisionTimeExperiment;
+import montecarlo.MonteCarloSimulation;
+import montecarlo.RandomStreams;
+import statistics.StatCollector;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.random.RandomGenerator;
+
+/**
+ * Search of the minimal number of people for which at least M of them share the same birthday with a probability
+ * greater than the given one. The group sizes from minK are reported until the first one whose estimated probability
+ * exceeds the given one. In mode {@value #SWEEP}, all group sizes are estimated from the same runs with
+ * {@link CollisionTimeSweep}. In mode {@value #INDEPENDENT}, each group size is estimated by its own runs of a
+ * {@link BirthdayExperiment}, one after another on a single random source.
+ *
+ * @param name        name of the scenario
+ * @param Y           number of days in a year
+ * @param M           minimal number of people sharing the same birthday
+ * @param minK        smallest group size reported
+ * @param maxK        largest group size considered
+ * @param probability probability to be exceeded
+ * @param level       confidence level of the confidence intervals
+ * @param sampleSize  number of runs, common to all group sizes in mode {@value #SWEEP}, per group size in mode
+ *                    {@value #INDEPENDENT}
+ * @param rng         name of the algorithm of the random source
+ * @param seed        seed of the random source
+ * @param mode        {@value #SWEEP} or {@value #INDEPENDENT}
+ */
+public record MinimalGroupSizeScenario(String name, int Y, int M, int minK, int maxK, double probability,
+                                       double level, long sampleSize, String rng, long seed, String mode)
+        implements Scenario {
+
+    static final String TYPE = "minimal-group-size";
+
+    /**
+     * Mode in which all group sizes are estimated from the same runs.
+     */
+    public static final String SWEEP = "sweep";
+
+    /**
+     * Mode in which each group size is estimated by its own runs.
+     */
+    public static final String INDEPENDENT = "independent";
+
+    /**
+     * Checks the mode.
+     *
+     * @throws IllegalArgumentException if mode is neither {@value #SWEEP} nor {@value #INDEPENDENT}
+     */
+    public MinimalGroupSizeScenario {
+        if (!SWEEP.equals(mode) && !INDEPENDENT.equals(mode)) {
+            throw new IllegalArgumentException("Mode of scenario " + name + " should be " + SWEEP + " or "
+                    + INDEPENDENT + ".");
+        }
+    }
+
+    static MinimalGroupSizeScenario of(ScenarioProperties properties) {
+        return new MinimalGroupSizeScenario(properties.name(),
+                properties.getInt("Y", 365),
+                properties.getInt("M"),
+                properties.getInt("minK"),
+                properties.getInt("maxK"),
+                properties.getDouble("probability", 0.5),
+                properties.getDouble("level", 0.95),
+                properties.getLong("sampleSize"),
+                properties.getString("rng", RandomStreams.DEFAULT_ALGORITHM),
+                properties.getLong("seed"),
+                properties.getString("mode", SWEEP));
+    }
+
+    @Override
+    public String type() {
+        return TYPE;
+    }
+
+    @Override
+    public ScenarioResult run(ForkJoinPool pool) {
+        long start = System.nanoTime();
+        RandomGenerator rnd = RandomStreams.create(rng, seed);
+        CollisionTimeSweep sweep = INDEPENDENT.equals(mode) ? null
+                : CollisionTimeSweep.simulate(new FirstCollisionTimeExperiment(Y, M, maxK), sampleSize, rnd);
+        List<List<Object>> rows = new ArrayList<>();
+
+        // Parcourir les tailles de groupe jusqu'à la première dont la probabilité dépasse le seuil
+        for (int K = minK; K <= maxK; K++) {
+            double estimate;
+            double halfWidth;
+            if (sweep == null) {
+                // Simuler cette taille de groupe avec ses propres réalisations, à la suite des précédentes
+                StatCollector stat = new StatCollector();
+                MonteCarloSimulation.simulateNRuns(new BirthdayExperiment(K, Y, M), sampleSize, rnd, stat);
+                estimate = stat.getAverage();
+                halfWidth = stat.getConfidenceIntervalHalfWidth(level);
+            } else {
+                estimate = sweep.getEstimate(K);
+                halfWidth = sweep.getConfidenceIntervalHalfWidth(K, level);
+            }
+            boolean minimal = estimate > probability;
+            rows.add(List.of(K, estimate, halfWidth, estimate - halfWidth, estimate + halfWidth, minimal));
+            if (minimal) {
+                break;
+            }
+        }
+
+        return new ScenarioResult(name, TYPE,
+                List.of("K", "estimate", "halfWidth", "lowerBound", "upperBound", "minimal"),
+                rows, Duration.ofNanos(System.nanoTime() - start));
+    }
+}
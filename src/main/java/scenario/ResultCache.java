@@ -0,0 +1,387 @@
+package scenario;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * On-disk cache of the results of finished scenarios, so that running a configuration again answers the scenarios
+ * already simulated at once.
+ * <p>
+ * The scenarios are deterministic: their results only depend on their parameters, which include the algorithm and
+ * seed of the random source, the stopping rule and the numbers of runs, and on the code of the simulations. A result
+ * is therefore stored under the SHA-256 of the description of its scenario (the string of the record, which lists
+ * all its parameters) and of a version of the code, by default a digest of all the compiled classes: any change of
+ * the code makes the previous entries unreachable, and they are then evicted.
+ * <p>
+ * Each entry is a small binary file holding the description of its scenario, checked when it is read, and the result
+ * with the duration of the simulation which computed it, followed by a CRC-32 of its content. Entries are written in
+ * a temporary file which then replaces the previous one atomically, and a corrupted entry is deleted and treated as
+ * missing. When the entries exceed the maximal size, the least recently used ones are deleted, except the one
+ * just written; reading an entry updates its modification time.
+ */
+public final class ResultCache {
+
+    private static final int MAGIC = 0x4D435243; // "MCRC"
+    private static final int VERSION = 1;
+    private static final String EXTENSION = ".result";
+
+    private static String codeVersion; // digest of the compiled classes, computed once
+
+    private final Path directory;
+    private final long maxBytes;
+    private final String version;
+
+    /**
+     * Creates a cache of results in directory, keyed by the version of the running code.
+     *
+     * @param directory directory of the entries, created if needed
+     * @param maxBytes  maximal total size of the entries
+     * @throws IllegalArgumentException if maxBytes is negative
+     * @throws UncheckedIOException     if the compiled classes cannot be read
+     */
+    public ResultCache(Path directory, long maxBytes) {
+        this(directory, maxBytes, codeVersion());
+    }
+
+    /**
+     * Creates a cache of results in directory, keyed by the given version of the code.
+     *
+     * @param directory directory of the entries, created if needed
+     * @param maxBytes  maximal total size of the entries
+     * @param version   version of the code, which invalidates the entries of other versions
+     * @throws IllegalArgumentException if maxBytes is negative
+     */
+    public ResultCache(Path directory, long maxBytes, String version) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("Maximal size of the cache should be non-negative.");
+        }
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        this.version = version;
+    }
+
+    /**
+     * Returns the key of the entry of scenario: the hexadecimal SHA-256 of its description and of the code version.
+     *
+     * @param scenario scenario whose result is cached
+     * @return the key of the entry
+     */
+    public String key(Scenario scenario) {
+        MessageDigest digest = sha256();
+        digest.update(version.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) '\n');
+        digest.update(description(scenario).getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Returns the cached result of scenario, if any.
+     *
+     * @param scenario scenario whose result is looked for
+     * @return the result, or an empty optional if it is not cached
+     * @throws UncheckedIOException if an existing entry cannot be read
+     */
+    public synchronized Optional<ScenarioResult> get(Scenario scenario) {
+        Path file = directory.resolve(key(scenario) + EXTENSION);
+        try {
+            byte[] content = Files.readAllBytes(file);
+            Optional<ScenarioResult> result = decode(content, description(scenario));
+            if (result.isEmpty()) {
+                Files.deleteIfExists(file);
+                return result;
+            }
+
+            touch(file);
+            return result;
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cache entry " + file + " could not be read.", e);
+        }
+    }
+
+    /**
+     * Stores the result of scenario, then evicts the least recently used entries until the cache fits in its
+     * maximal size.
+     *
+     * @param scenario scenario whose result is cached
+     * @param result   result of scenario
+     * @throws IllegalArgumentException if a value of result is not a number, a boolean or a string
+     * @throws UncheckedIOException     if the entry cannot be written
+     */
+    public synchronized void put(Scenario scenario, ScenarioResult result) {
+        Path file = directory.resolve(key(scenario) + EXTENSION);
+        try {
+            Files.createDirectories(directory);
+            byte[] content = encode(description(scenario), result);
+
+            // Écriture dans un fichier temporaire, puis remplacement atomique
+            Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            try {
+                try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                    ByteBuffer buffer = ByteBuffer.wrap(content);
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                }
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            touch(file);
+            evict(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cache entry " + file + " could not be written.", e);
+        }
+    }
+
+    /**
+     * Marks an entry as the most recently used one, to be evicted last. Its time is set explicitly: the time of the
+     * last write may have the coarse resolution of the clock of the file system.
+     */
+    private static void touch(Path file) throws IOException {
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now()));
+    }
+
+    /**
+     * Deletes the least recently used entries, other than kept, until their total size is no more than maxBytes.
+     */
+    private void evict(Path kept) throws IOException {
+        record Entry(Path file, long size, FileTime lastUsed) {
+        }
+
+        List<Entry> entries = new ArrayList<>();
+        long total = 0;
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(f -> f.getFileName().toString().endsWith(EXTENSION)).toList()) {
+                try {
+                    Entry entry = new Entry(file, Files.size(file), Files.getLastModifiedTime(file));
+                    entries.add(entry);
+                    total += entry.size();
+                } catch (NoSuchFileException e) {
+                    // Entrée supprimée entre-temps par un autre processus
+                }
+            }
+        }
+
+        entries.sort(Comparator.comparing(Entry::lastUsed));
+        for (Entry entry : entries) {
+            if (total <= maxBytes) {
+                break;
+            }
+            if (entry.file().equals(kept)) {
+                continue;
+            }
+            Files.deleteIfExists(entry.file());
+            total -= entry.size();
+        }
+    }
+
+    private static String description(Scenario scenario) {
+        // Les scénarios sont des records : leur chaîne liste le type et tous les paramètres
+        return scenario.type() + ": " + scenario;
+    }
+
+    private static byte[] encode(String description, ScenarioResult result) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        writeString(out, description);
+        writeString(out, result.name());
+        writeString(out, result.type());
+        out.writeInt(result.columns().size());
+        for (String column : result.columns()) {
+            writeString(out, column);
+        }
+        out.writeInt(result.rows().size());
+        for (List<Object> row : result.rows()) {
+            for (Object value : row) {
+                writeValue(out, value);
+            }
+        }
+        out.writeLong(result.elapsed().getSeconds());
+        out.writeInt(result.elapsed().getNano());
+
+        CRC32 crc = new CRC32();
+        crc.update(bytes.toByteArray());
+        out.writeLong(crc.getValue());
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodes an entry, which must be valid and describe the expected scenario.
+     *
+     * @return the result, or an empty optional if the entry is corrupted or belongs to another scenario
+     */
+    private static Optional<ScenarioResult> decode(byte[] content, String expectedDescription) throws IOException {
+        if (content.length < Long.BYTES) {
+            return Optional.empty();
+        }
+        CRC32 crc = new CRC32();
+        crc.update(content, 0, content.length - Long.BYTES);
+        if (crc.getValue() != ByteBuffer.wrap(content, content.length - Long.BYTES, Long.BYTES).getLong()) {
+            return Optional.empty();
+        }
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(content));
+        if (in.readInt() != MAGIC || in.readInt() != VERSION || !readString(in).equals(expectedDescription)) {
+            return Optional.empty();
+        }
+        String name = readString(in);
+        String type = readString(in);
+        List<String> columns = new ArrayList<>();
+        for (int i = in.readInt(); i > 0; i--) {
+            columns.add(readString(in));
+        }
+        List<List<Object>> rows = new ArrayList<>();
+        for (int i = in.readInt(); i > 0; i--) {
+            List<Object> row = new ArrayList<>(columns.size());
+            for (int j = 0; j < columns.size(); j++) {
+                row.add(readValue(in));
+            }
+            rows.add(row);
+        }
+        Duration elapsed = Duration.ofSeconds(in.readLong(), in.readInt());
+        return Optional.of(new ScenarioResult(name, type, columns, rows, elapsed));
+    }
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        switch (value) {
+            case Double x -> {
+                out.writeByte('D');
+                out.writeDouble(x);
+            }
+            case Long x -> {
+                out.writeByte('J');
+                out.writeLong(x);
+            }
+            case Integer x -> {
+                out.writeByte('I');
+                out.writeInt(x);
+            }
+            case Boolean x -> {
+                out.writeByte('Z');
+                out.writeBoolean(x);
+            }
+            case String x -> {
+                out.writeByte('S');
+                writeString(out, x);
+            }
+            default -> throw new IllegalArgumentException("Values of type " + value.getClass().getName()
+                    + " cannot be cached.");
+        }
+    }
+
+    private static Object readValue(DataInputStream in) throws IOException {
+        return switch (in.readByte()) {
+            case 'D' -> in.readDouble();
+            case 'J' -> in.readLong();
+            case 'I' -> in.readInt();
+            case 'Z' -> in.readBoolean();
+            case 'S' -> readString(in);
+            default -> throw new IOException("Unknown type of value.");
+        };
+    }
+
+    private static void writeString(DataOutputStream out, String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the version of the running code: the SHA-256 of the names and contents of all the classes of the
+     * directory or jar from which this class was loaded.
+     *
+     * @return the hexadecimal digest of the compiled classes
+     * @throws UncheckedIOException  if the classes cannot be read
+     * @throws IllegalStateException if the location of the classes is unknown
+     */
+    public static synchronized String codeVersion() {
+        if (codeVersion != null) {
+            return codeVersion;
+        }
+        CodeSource source = ResultCache.class.getProtectionDomain().getCodeSource();
+        if (source == null) {
+            throw new IllegalStateException("Location of the compiled classes is unknown.");
+        }
+        MessageDigest digest = sha256();
+        try {
+            Path location = Path.of(source.getLocation().toURI());
+            if (Files.isDirectory(location)) {
+                List<Path> classes;
+                try (Stream<Path> files = Files.walk(location)) {
+                    classes = files.filter(file -> file.toString().endsWith(".class")).sorted().toList();
+                }
+                for (Path file : classes) {
+                    digest.update(location.relativize(file).toString().getBytes(StandardCharsets.UTF_8));
+                    digest.update(Files.readAllBytes(file));
+                }
+            } else {
+                try (JarFile jar = new JarFile(location.toFile())) {
+                    List<JarEntry> classes = jar.stream()
+                            .filter(entry -> entry.getName().endsWith(".class"))
+                            .sorted(Comparator.comparing(JarEntry::getName))
+                            .toList();
+                    for (JarEntry entry : classes) {
+                        digest.update(entry.getName().getBytes(StandardCharsets.UTF_8));
+                        try (InputStream in = jar.getInputStream(entry)) {
+                            digest.update(in.readAllBytes());
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Compiled classes could not be read.", e);
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException("Location of the compiled classes is invalid.", e);
+        }
+        codeVersion = HexFormat.of().formatHex(digest.digest());
+        return codeVersion;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available.", e);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package scenario;
+
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Simulation described in a configuration file, see {@link ScenarioRunner}.
+ */
+public sealed interface Scenario permits EstimationScenario, CoverageScenario, MinimalGroupSizeScenario {
+
+    /**
+     * @return the name of the scenario
+     */
+    String name();
+
+    /**
+     * @return the type of the scenario, as written in the configuration file
+     */
+    String type();
+
+    /**
+     * Runs the scenario. The scenarios which can spread their runs over several threads do it in pool.
+     *
+     * @param pool pool shared by the scenarios
+     * @return the results of the scenario
+     */
+    ScenarioResult run(ForkJoinPool pool);
+
+    /**
+     * Creates the scenario described by the properties of the given name, whose type is given by property
+     * "name.type".
+     *
+     * @param properties properties of the scenario
+     * @return the scenario
+     * @throws IllegalArgumentException if the type is unknown or a property is missing or invalid
+     */
+    static Scenario of(ScenarioProperties properties) {
+        String type = properties.getString("type").toLowerCase(Locale.ROOT);
+        return switch (type) {
+            case EstimationScenario.TYPE -> EstimationScenario.of(properties);
+            case CoverageScenario.TYPE -> CoverageScenario.of(properties);
+            case MinimalGroupSizeScenario.TYPE -> MinimalGroupSizeScenario.of(properties);
+            default -> throw new IllegalArgumentException("Unknown type of scenario " + properties.name() + ": "
+                    + type + ".");
+        };
+    }
+}
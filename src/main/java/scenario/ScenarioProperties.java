@@ -0,0 +1,89 @@
+package scenario;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Properties of one scenario of a configuration file, whose keys are prefixed by the name of the scenario.
+ * Numbers may contain underscores as in Java literals, and integers may be written in hexadecimal (0x...).
+ */
+final class ScenarioProperties {
+
+    private final String name;
+    private final Properties properties;
+
+    ScenarioProperties(String name, Properties properties) {
+        this.name = name;
+        this.properties = properties;
+    }
+
+    /**
+     * @return the name of the scenario
+     */
+    String name() {
+        return name;
+    }
+
+    /**
+     * Returns the value of property "name.key".
+     *
+     * @throws IllegalArgumentException if the property is missing
+     */
+    String getString(String key) {
+        String value = properties.getProperty(name + "." + key);
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Missing property " + name + "." + key + ".");
+        }
+        return value.trim();
+    }
+
+    /**
+     * Returns the value of property "name.key", or defaultValue if it is missing.
+     */
+    String getString(String key, String defaultValue) {
+        String value = properties.getProperty(name + "." + key);
+        return value == null || value.isBlank() ? defaultValue : value.trim();
+    }
+
+    int getInt(String key) {
+        return Math.toIntExact(getLong(key));
+    }
+
+    int getInt(String key, int defaultValue) {
+        return properties.containsKey(name + "." + key) ? getInt(key) : defaultValue;
+    }
+
+    long getLong(String key) {
+        try {
+            return Long.decode(getString(key).replace("_", ""));
+        } catch (NumberFormatException | ArithmeticException e) {
+            throw new IllegalArgumentException("Property " + name + "." + key + " should be an integer.", e);
+        }
+    }
+
+    double getDouble(String key) {
+        return parseDouble(key, getString(key));
+    }
+
+    double getDouble(String key, double defaultValue) {
+        return properties.containsKey(name + "." + key) ? getDouble(key) : defaultValue;
+    }
+
+    /**
+     * Returns the comma-separated values of property "name.key".
+     */
+    List<Double> getDoubles(String key) {
+        return Arrays.stream(getString(key).split(","))
+                .map(value -> parseDouble(key, value.trim()))
+                .toList();
+    }
+
+    private double parseDouble(String key, String value) {
+        try {
+            return Double.parseDouble(value.replace("_", ""));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Property " + name + "." + key + " should be a number.", e);
+        }
+    }
+}
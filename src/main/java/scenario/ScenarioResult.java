@@ -0,0 +1,32 @@
+package scenario;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Results of a scenario, as a table: one row per estimate, whose values are numbers, booleans or strings.
+ *
+ * @param name    name of the scenario
+ * @param type    type of the scenario
+ * @param columns names of the columns
+ * @param rows    values of each row, in the order of the columns
+ * @param elapsed duration of the scenario
+ */
+public record ScenarioResult(String name, String type, List<String> columns, List<List<Object>> rows,
+                             Duration elapsed) {
+
+    /**
+     * Creates a result, checking that every row has a value per column.
+     *
+     * @throws IllegalArgumentException if a row does not match the columns
+     */
+    public ScenarioResult {
+        columns = List.copyOf(columns);
+        rows = rows.stream().map(List::copyOf).toList();
+        for (List<Object> row : rows) {
+            if (row.size() != columns.size()) {
+                throw new IllegalArgumentException("Each row should have one value per column.");
+            }
+        }
+    }
+}
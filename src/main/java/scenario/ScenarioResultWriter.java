@@ -0,0 +1,144 @@
+package scenario;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * This class provides methods for writing the results of scenarios as a table for the console, and in CSV and JSON
+ * formats. The numbers are written with all their digits in the CSV and JSON formats.
+ */
+public class ScenarioResultWriter {
+
+    private static final int MIN_COLUMN_WIDTH = 12;
+
+    /**
+     * Private constructor. Makes it impossible to instantiate.
+     */
+    private ScenarioResultWriter() {
+    }
+
+    /**
+     * Prints the results of each scenario as a table.
+     *
+     * @param results results of the scenarios
+     * @param out     stream on which the tables are printed
+     */
+    public static void printTable(List<ScenarioResult> results, PrintStream out) {
+        for (ScenarioResult result : results) {
+            out.printf("=== %s (%s) ===%n", result.name(), result.type());
+
+            int[] widths = result.columns().stream()
+                    .mapToInt(column -> Math.max(MIN_COLUMN_WIDTH, column.length()))
+                    .toArray();
+            StringBuilder line = new StringBuilder();
+            for (int i = 0; i < widths.length; i++) {
+                line.append(String.format(Locale.ROOT, "  %" + widths[i] + "s", result.columns().get(i)));
+            }
+            out.println(line);
+
+            for (List<Object> row : result.rows()) {
+                line.setLength(0);
+                for (int i = 0; i < widths.length; i++) {
+                    Object value = row.get(i);
+                    String text = value instanceof Double x ? String.format(Locale.ROOT, "%.6g", x) : value.toString();
+                    line.append(String.format(Locale.ROOT, "  %" + widths[i] + "s", text));
+                }
+                out.println(line);
+            }
+            out.printf(Locale.ROOT, "  Temps d'exécution : %.1f s%n%n", result.elapsed().toMillis() / 1000.0);
+        }
+    }
+
+    /**
+     * Writes the rows of a result in CSV format, with a header line.
+     *
+     * @param result result of a scenario
+     * @param file   file in which the result is written
+     * @throws IOException if the file cannot be written
+     */
+    public static void writeCsv(ScenarioResult result, Path file) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(String.join(",", result.columns().stream().map(ScenarioResultWriter::csvField).toList()));
+            writer.write('\n');
+            for (List<Object> row : result.rows()) {
+                writer.write(String.join(",", row.stream().map(ScenarioResultWriter::csvField).toList()));
+                writer.write('\n');
+            }
+        }
+    }
+
+    /**
+     * Writes results in JSON format: an array with one object per scenario, whose rows are objects keyed by the
+     * names of the columns.
+     *
+     * @param results results of the scenarios
+     * @param file    file in which the results are written
+     * @throws IOException if the file cannot be written
+     */
+    public static void writeJson(List<ScenarioResult> results, Path file) throws IOException {
+        StringBuilder json = new StringBuilder("[\n");
+        for (int r = 0; r < results.size(); r++) {
+            ScenarioResult result = results.get(r);
+            json.append("  {\"name\": ").append(jsonValue(result.name()))
+                    .append(", \"type\": ").append(jsonValue(result.type()))
+                    .append(", \"seconds\": ").append(jsonValue(result.elapsed().toNanos() / 1e9))
+                    .append(", \"rows\": [\n");
+            for (int i = 0; i < result.rows().size(); i++) {
+                List<Object> row = result.rows().get(i);
+                json.append("    {");
+                for (int j = 0; j < row.size(); j++) {
+                    json.append(j > 0 ? ", " : "")
+                            .append(jsonValue(result.columns().get(j))).append(": ").append(jsonValue(row.get(j)));
+                }
+                json.append(i < result.rows().size() - 1 ? "},\n" : "}\n");
+            }
+            json.append(r < results.size() - 1 ? "  ]},\n" : "  ]}\n");
+        }
+        json.append("]\n");
+        Files.writeString(file, json, StandardCharsets.UTF_8);
+    }
+
+    private static String csvField(Object value) {
+        String text = value.toString();
+        if (text.contains(",") || text.contains("\"") || text.contains("\n")) {
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+        return text;
+    }
+
+    private static String jsonValue(Object value) {
+        if (value instanceof Number number) {
+            // NaN et les infinis n'existent pas en JSON
+            double x = number.doubleValue();
+            return Double.isFinite(x) ? number.toString() : "null";
+        }
+        if (value instanceof Boolean) {
+            return value.toString();
+        }
+
+        StringBuilder text = new StringBuilder("\"");
+        for (char c : value.toString().toCharArray()) {
+            switch (c) {
+                case '"' -> text.append("\\\"");
+                case '\\' -> text.append("\\\\");
+                case '\n' -> text.append("\\n");
+                case '\r' -> text.append("\\r");
+                case '\t' -> text.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        text.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        text.append(c);
+                    }
+                }
+            }
+        }
+        return text.append('"').toString();
+    }
+}
@@ -0,0 +1,239 @@
+package scenario;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Runs the scenarios described in a configuration file in the properties format, for instance:
+ * <pre>
+ * scenarios = p23, coverage
+ * output.directory = results
+ * output.formats = csv, json
+ * cache.directory = results/cache
+ * cache.maxBytes = 16_000_000
+ *
+ * p23.type = estimation
+ * p23.K = 23
+ * p23.maxHalfWidth = 1e-4, 5e-5
+ * p23.initialRuns = 1_000_000
+ * p23.additionalRuns = 100_000
+ * p23.rng = Random
+ * p23.seed = 0x134D6EE
+ * ...
+ * </pre>
+ * Property "scenarios" lists the names of the scenarios, whose properties are prefixed by their name. The type of
+ * each scenario gives its other properties: see {@link EstimationScenario} ("estimation"), {@link CoverageScenario}
+ * ("coverage") and {@link MinimalGroupSizeScenario} ("minimal-group-size"). Properties "Y", "M", "level" and "rng"
+ * may be omitted, their default values being 365, 2, 0.95 and {@link montecarlo.RandomStreams#DEFAULT_ALGORITHM}.
+ * <p>
+ * All the scenarios are submitted together to a shared ForkJoinPool, in which they run concurrently. As each one has
+ * its own seed, their results do not depend on that scheduling. The results may be written to the output directory
+ * in CSV (one file per scenario) and JSON (results.json) formats.
+ * <p>
+ * If property "cache.directory" is given, the results are kept in a {@link ResultCache} of at most "cache.maxBytes"
+ * bytes (64 MB by default): a scenario already run with the same parameters and the same code is answered from the
+ * cache, with the duration of the run which computed it.
+ */
+public class ScenarioRunner {
+
+    private static final long DEFAULT_CACHE_BYTES = 64L << 20;
+
+    private final List<Scenario> scenarios;
+    private final Path outputDirectory;
+    private final List<String> outputFormats;
+    private final ResultCache cache;
+
+    /**
+     * Creates a runner of the given scenarios.
+     *
+     * @param scenarios       scenarios to be run
+     * @param outputDirectory directory in which the results are written, or null if they are not written
+     * @param outputFormats   formats in which the results are written, among "csv" and "json"
+     * @throws IllegalArgumentException if a format is unknown
+     */
+    public ScenarioRunner(List<Scenario> scenarios, Path outputDirectory, List<String> outputFormats) {
+        this(scenarios, outputDirectory, outputFormats, null);
+    }
+
+    /**
+     * Creates a runner of the given scenarios, whose results are kept in cache.
+     *
+     * @param scenarios       scenarios to be run
+     * @param outputDirectory directory in which the results are written, or null if they are not written
+     * @param outputFormats   formats in which the results are written, among "csv" and "json"
+     * @param cache           cache of the results, or null if they are not cached
+     * @throws IllegalArgumentException if a format is unknown
+     */
+    public ScenarioRunner(List<Scenario> scenarios, Path outputDirectory, List<String> outputFormats,
+                          ResultCache cache) {
+        for (String format : outputFormats) {
+            if (!format.equals("csv") && !format.equals("json")) {
+                throw new IllegalArgumentException("Unknown output format: " + format + ".");
+            }
+        }
+        this.scenarios = List.copyOf(scenarios);
+        this.outputDirectory = outputDirectory;
+        this.outputFormats = List.copyOf(outputFormats);
+        this.cache = cache;
+    }
+
+    /**
+     * Reads the configuration file.
+     *
+     * @param file configuration file
+     * @return the runner of the scenarios of the file
+     * @throws UncheckedIOException     if the file cannot be read
+     * @throws IllegalArgumentException if the configuration is invalid
+     */
+    public static ScenarioRunner load(Path file) {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return load(reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Configuration " + file + " could not be read.", e);
+        }
+    }
+
+    /**
+     * Reads a configuration from the classpath.
+     *
+     * @param resource name of the resource, as given to {@link Class#getResourceAsStream(String)}
+     * @return the runner of the scenarios of the configuration
+     * @throws UncheckedIOException     if the resource cannot be read
+     * @throws IllegalArgumentException if the resource does not exist or the configuration is invalid
+     */
+    public static ScenarioRunner loadResource(String resource) {
+        try (InputStream in = ScenarioRunner.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalArgumentException("Configuration " + resource + " not found.");
+            }
+            return load(new InputStreamReader(in, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Configuration " + resource + " could not be read.", e);
+        }
+    }
+
+    /**
+     * Reads a configuration.
+     *
+     * @param reader source of the configuration
+     * @return the runner of the scenarios of the configuration
+     * @throws IOException              if the configuration cannot be read
+     * @throws IllegalArgumentException if the configuration is invalid
+     */
+    public static ScenarioRunner load(Reader reader) throws IOException {
+        Properties properties = new Properties();
+        properties.load(reader);
+
+        List<Scenario> scenarios = split(properties.getProperty("scenarios", "")).stream()
+                .map(name -> Scenario.of(new ScenarioProperties(name, properties)))
+                .toList();
+        if (scenarios.isEmpty()) {
+            throw new IllegalArgumentException("Property scenarios should list at least one scenario.");
+        }
+
+        String directory = properties.getProperty("output.directory");
+        Path outputDirectory = directory == null || directory.isBlank() ? null : Path.of(directory.trim());
+        List<String> formats = split(properties.getProperty("output.formats", "")).stream()
+                .map(format -> format.toLowerCase(Locale.ROOT))
+                .toList();
+
+        String cacheDirectory = properties.getProperty("cache.directory");
+        ResultCache cache = cacheDirectory == null || cacheDirectory.isBlank() ? null
+                : new ResultCache(Path.of(cacheDirectory.trim()), cacheMaxBytes(properties));
+        return new ScenarioRunner(scenarios, outputDirectory, formats, cache);
+    }
+
+    private static long cacheMaxBytes(Properties properties) {
+        String maxBytes = properties.getProperty("cache.maxBytes");
+        if (maxBytes == null || maxBytes.isBlank()) {
+            return DEFAULT_CACHE_BYTES;
+        }
+        try {
+            return Long.decode(maxBytes.trim().replace("_", ""));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Property cache.maxBytes should be an integer.", e);
+        }
+    }
+
+    private static List<String> split(String list) {
+        return Arrays.stream(list.split(","))
+                .map(String::trim)
+                .filter(item -> !item.isEmpty())
+                .toList();
+    }
+
+    /**
+     * @return the scenarios of this runner
+     */
+    public List<Scenario> getScenarios() {
+        return scenarios;
+    }
+
+    /**
+     * Runs all the scenarios concurrently in pool, except those whose results are cached.
+     *
+     * @param pool pool shared by the scenarios
+     * @return the results of the scenarios, in the order of the configuration
+     */
+    public List<ScenarioResult> run(ForkJoinPool pool) {
+        // Soumettre tous les scénarios avant d'attendre le premier : ils se partagent les threads du pool
+        List<ForkJoinTask<ScenarioResult>> tasks = scenarios.stream()
+                .map(scenario -> pool.submit(() -> run(scenario, pool)))
+                .toList();
+        return tasks.stream()
+                .map(ForkJoinTask::join)
+                .toList();
+    }
+
+    private ScenarioResult run(Scenario scenario, ForkJoinPool pool) {
+        if (cache == null) {
+            return scenario.run(pool);
+        }
+        Optional<ScenarioResult> cached = cache.get(scenario);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        ScenarioResult result = scenario.run(pool);
+        cache.put(scenario, result);
+        return result;
+    }
+
+    /**
+     * Writes results to the output directory, in the output formats of the configuration. Nothing is written if no
+     * output directory was configured.
+     *
+     * @param results results of the scenarios
+     * @throws UncheckedIOException if the results cannot be written
+     */
+    public void writeOutputs(List<ScenarioResult> results) {
+        if (outputDirectory == null) {
+            return;
+        }
+        try {
+            Files.createDirectories(outputDirectory);
+            if (outputFormats.contains("csv")) {
+                for (ScenarioResult result : results) {
+                    ScenarioResultWriter.writeCsv(result, outputDirectory.resolve(result.name() + ".csv"));
+                }
+            }
+            if (outputFormats.contains("json")) {
+                ScenarioResultWriter.writeJson(results, outputDirectory.resolve("results.json"));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Results could not be written to " + outputDirectory + ".", e);
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package statistics;
+
+/**
+ * This class provides methods for collecting Bernoulli observations (equal to 0.0 or 1.0) and for computing basic
+ * statistics and confidence intervals for the probability of success.
+ * <p>
+ * Only the number of trials and the number of successes are stored, as integers: adding an observation involves no
+ * floating-point computation and merging partial results is exact.
+ */
+public class BernoulliCollector implements Collector {
+
+	private long numberOfTrials;    // number of collected data
+	private long numberOfSuccesses; // number of collected data equal to 1.0
+
+	/**
+	 * Creates a new collector and initializes it
+	 */
+	public BernoulliCollector() {
+		// The counts start at zero, as after init()
+	}
+
+	@Override
+	public void init() {
+		numberOfTrials = 0L;
+		numberOfSuccesses = 0L;
+	}
+
+	/**
+	 * Adds a new observation to this collector.
+	 *
+	 * @param x observation to be added to this collector
+	 * @throws IllegalArgumentException if x is neither 0.0 nor 1.0
+	 */
+	@Override
+	public void add(double x) {
+		if (x == 1.0) {
+			numberOfSuccesses++;
+		} else if (x != 0.0) {
+			throw new IllegalArgumentException("Observations should be equal to 0.0 or 1.0.");
+		}
+		numberOfTrials++;
+	}
+
+	/**
+	 * Adds a group of Bernoulli observations to this collector. The number of successes is recovered from the
+	 * average, which must therefore be a number of successes divided by count, and the sum of squared deviations
+	 * must be the one of such observations, s (count - s) / count for s successes, up to rounding errors.
+	 *
+	 * @param count           number of observations of the group
+	 * @param average         average of the observations of the group
+	 * @param sumOfSquaredDev sum of squared deviations to the average of the observations of the group
+	 * @throws IllegalArgumentException if the group cannot be made of observations equal to 0.0 or 1.0
+	 */
+	@Override
+	public void addAll(long count, double average, double sumOfSquaredDev) {
+		if (count <= 0) {
+			return;
+		}
+		double successes = average * count;
+		long rounded = Math.round(successes);
+		double expectedSquaredDev = (double) rounded * (count - rounded) / count;
+		// Tolerances of the rounding errors of an average and a sum of squared deviations computed in double
+		if (!(Math.abs(successes - rounded) <= 1e-12 * count + 1e-9)
+				|| !(Math.abs(sumOfSquaredDev - expectedSquaredDev) <= 1e-9 * expectedSquaredDev + 1e-9)) {
+			throw new IllegalArgumentException("Group should be made of observations equal to 0.0 or 1.0.");
+		}
+		addBernoulli(count, rounded);
+	}
+
+	@Override
+	public void addBernoulli(long trials, long successes) {
+		if (successes < 0 || successes > trials) {
+			throw new IllegalArgumentException("Number of successes should be between 0 and the number of trials.");
+		}
+		numberOfTrials += trials;
+		numberOfSuccesses += successes;
+	}
+
+	/**
+	 * Adds all the observations collected by other to this collector. The observations of other must be equal to
+	 * 0.0 or 1.0, see {@link #addAll(long, double, double)}.
+	 *
+	 * @param other collector whose observations are to be added to this collector
+	 * @throws IllegalArgumentException if other holds observations other than 0.0 and 1.0
+	 */
+	@Override
+	public void merge(Collector other) {
+		if (other instanceof BernoulliCollector bernoulli) {
+			addBernoulli(bernoulli.numberOfTrials, bernoulli.numberOfSuccesses);
+		} else {
+			Collector.super.merge(other);
+		}
+	}
+
+	@Override
+	public BernoulliCollector createEmpty() {
+		return new BernoulliCollector();
+	}
+
+	@Override
+	public long getNumberOfObs() {
+		return numberOfTrials;
+	}
+
+	/**
+	 * Returns the number of observations equal to 1.0 added to this collector since its last initialization.
+	 *
+	 * @return the number of successes since last initialization
+	 */
+	public long getNumberOfSuccesses() {
+		return numberOfSuccesses;
+	}
+
+	@Override
+	public double getAverage() {
+		if (numberOfTrials == 0) {
+			return Double.NaN;
+		} else {
+			return (double) numberOfSuccesses / numberOfTrials;
+		}
+	}
+
+	@Override
+	public double getSumOfSquaredDev() {
+		if (numberOfTrials == 0) {
+			return 0.0;
+		} else {
+			return (double) numberOfSuccesses * (numberOfTrials - numberOfSuccesses) / numberOfTrials;
+		}
+	}
+
+	@Override
+	public double getVariance() {
+		if (numberOfTrials < 2) {
+			return Double.NaN;
+		} else {
+			return getSumOfSquaredDev() / (numberOfTrials - 1);
+		}
+	}
+
+	@Override
+	public double getStandardDeviation() {
+		if (numberOfTrials < 2) {
+			return Double.NaN;
+		} else {
+			return Math.sqrt(getVariance());
+		}
+	}
+
+	/**
+	 * Computes the normal (Wald) confidence interval with given confidence level for the probability of success
+	 * and returns half of the interval width.
+	 * <p>
+	 * If this collection contains less than two observations, Double.NaN is returned.
+	 *
+	 * @param level the desired level of confidence of the C.I.
+	 * @return the half-width of the C.I
+	 * @throws IllegalArgumentException if level is not between 0 and 1
+	 */
+	@Override
+	public double getConfidenceIntervalHalfWidth(double level) {
+		double normalQuantile = getNormalQuantile(level);
+
+		if (numberOfTrials < 2) {
+			return Double.NaN;
+		} else {
+			return normalQuantile * getStandardDeviation() / Math.sqrt(numberOfTrials);
+		}
+	}
+
+	/**
+	 * Computes the Wilson score confidence interval with given confidence level for the probability of success.
+	 * Unlike the normal interval, it stays within [0, 1] and keeps a reasonable coverage for probabilities close
+	 * to 0 or 1.
+	 * <p>
+	 * If no observations were added since last initialization, an interval of Double.NaN is returned.
+	 *
+	 * @param level the desired level of confidence of the C.I.
+	 * @return the lower and upper bounds of the C.I.
+	 * @throws IllegalArgumentException if level is not between 0 and 1
+	 */
+	public double[] getWilsonInterval(double level) {
+		double z = getNormalQuantile(level);
+
+		if (numberOfTrials == 0) {
+			return new double[]{Double.NaN, Double.NaN};
+		}
+
+		double n = numberOfTrials;
+		double p = getAverage();
+		double z2 = z * z;
+		double denominator = 1.0 + z2 / n;
+		double center = (p + z2 / (2.0 * n)) / denominator;
+		double halfWidth = z * Math.sqrt(p * (1.0 - p) / n + z2 / (4.0 * n * n)) / denominator;
+		return new double[]{Math.max(0.0, center - halfWidth), Math.min(1.0, center + halfWidth)};
+	}
+
+	/**
+	 * Computes the exact (Clopper-Pearson) confidence interval with given confidence level for the probability of
+	 * success, obtained from quantiles of the beta distribution. Its coverage is at least the requested level.
+	 * <p>
+	 * If no observations were added since last initialization, an interval of Double.NaN is returned.
+	 *
+	 * @param level the desired level of confidence of the C.I.
+	 * @return the lower and upper bounds of the C.I.
+	 * @throws IllegalArgumentException if level is not between 0 and 1
+	 */
+	public double[] getClopperPearsonInterval(double level) {
+		// Check argument
+		if (level < 0.0 || level > 1.0) {
+			throw new IllegalArgumentException("Confidence level should be between 0 and 1.");
+		}
+
+		if (numberOfTrials == 0) {
+			return new double[]{Double.NaN, Double.NaN};
+		}
+
+		double alpha = 1.0 - level;
+		long failures = numberOfTrials - numberOfSuccesses;
+		double lower = numberOfSuccesses == 0 ? 0.0
+				: BetaDistribution.getQuantile(alpha / 2.0, numberOfSuccesses, failures + 1.0);
+		double upper = failures == 0 ? 1.0
+				: BetaDistribution.getQuantile(1.0 - alpha / 2.0, numberOfSuccesses + 1.0, failures);
+		return new double[]{lower, upper};
+	}
+
+	private static double getNormalQuantile(double level) {
+		// Check argument
+		if (level < 0.0 || level > 1.0) {
+			throw new IllegalArgumentException("Confidence level should be between 0 and 1.");
+		}
+		return InverseStdNormalCDF.getQuantile(0.5 + level / 2.0);
+	}
+}
@@ -0,0 +1,170 @@
+package statistics;
+
+/**
+ * Utility class to compute the cumulative distribution function of the beta distribution and its quantiles.
+ */
+public final class BetaDistribution {
+
+	// Coefficients of the Lanczos approximation of the gamma function (g = 7, n = 9)
+	private static final double LANCZOS_G = 7.0;
+	private static final double[] LANCZOS_COEFFICIENTS = {0.99999999999980993, 676.5203681218851,
+			-1259.1392167224028, 771.32342877765313, -176.61502916214059, 12.507343278686905,
+			-0.13857109526572012, 9.9843695780195716e-6, 1.5056327351493116e-7};
+
+	private static final double EPSILON = 1e-15;
+	private static final double TINY = 1e-300;
+	private static final int MAX_ITERATIONS = 1_000_000;
+
+	/**
+	 * Private constructor. Makes it impossible to instantiate.
+	 */
+	private BetaDistribution() {
+	}
+
+	/**
+	 * Returns the value at x of the cumulative distribution function of the beta distribution with parameters a
+	 * and b (the regularized incomplete beta function I_x(a, b)).
+	 *
+	 * @param x point at which the function is evaluated
+	 * @param a first shape parameter of the distribution
+	 * @param b second shape parameter of the distribution
+	 * @return P(X &lt;= x) for X following a beta distribution with parameters a and b
+	 * @throws IllegalArgumentException if x is not between 0 and 1 or if a or b is not positive
+	 */
+	public static double getCDF(double x, double a, double b) {
+		// Check arguments
+		if (x < 0.0 || x > 1.0) {
+			throw new IllegalArgumentException("x should be between 0 and 1.");
+		}
+		if (a <= 0.0 || b <= 0.0) {
+			throw new IllegalArgumentException("Shape parameters should be positive.");
+		}
+
+		if (x == 0.0 || x == 1.0) {
+			return x;
+		}
+
+		// Facteur x^a (1-x)^b / B(a, b), calculé en logarithmes pour éviter les dépassements
+		double logFront = logGamma(a + b) - logGamma(a) - logGamma(b) + a * Math.log(x) + b * Math.log1p(-x);
+		double front = Math.exp(logFront);
+
+		// La fraction continue converge rapidement pour x < (a + 1) / (a + b + 2), sinon on utilise la symétrie
+		if (x < (a + 1.0) / (a + b + 2.0)) {
+			return front * continuedFraction(x, a, b) / a;
+		} else {
+			return 1.0 - front * continuedFraction(1.0 - x, b, a) / b;
+		}
+	}
+
+	/**
+	 * Returns the quantile of order prob of the beta distribution with parameters a and b.
+	 *
+	 * @param prob order of the quantile
+	 * @param a    first shape parameter of the distribution
+	 * @param b    second shape parameter of the distribution
+	 * @return the value x such that P(X &lt;= x) = prob
+	 * @throws IllegalArgumentException if prob is not between 0 and 1 or if a or b is not positive
+	 */
+	public static double getQuantile(double prob, double a, double b) {
+		// Check arguments
+		if (prob < 0.0 || prob > 1.0) {
+			throw new IllegalArgumentException("Quantile should be between 0 and 1.");
+		}
+		if (a <= 0.0 || b <= 0.0) {
+			throw new IllegalArgumentException("Shape parameters should be positive.");
+		}
+
+		if (prob == 0.0 || prob == 1.0) {
+			return prob;
+		}
+
+		// Dichotomie : la fonction de répartition est croissante, 200 itérations épuisent la précision des double
+		double low = 0.0;
+		double high = 1.0;
+		for (int i = 0; i < 200; i++) {
+			double mid = 0.5 * (low + high);
+			if (mid == low || mid == high) {
+				break;
+			}
+			if (getCDF(mid, a, b) < prob) {
+				low = mid;
+			} else {
+				high = mid;
+			}
+		}
+		return 0.5 * (low + high);
+	}
+
+	/**
+	 * Returns the natural logarithm of the gamma function at x, using the Lanczos approximation.
+	 *
+	 * @param x positive point at which the function is evaluated
+	 * @return ln(Gamma(x))
+	 */
+	static double logGamma(double x) {
+		// Formule de réflexion pour les petites valeurs
+		if (x < 0.5) {
+			return Math.log(Math.PI / Math.abs(Math.sin(Math.PI * x))) - logGamma(1.0 - x);
+		}
+
+		x -= 1.0;
+		double sum = LANCZOS_COEFFICIENTS[0];
+		for (int i = 1; i < LANCZOS_COEFFICIENTS.length; i++) {
+			sum += LANCZOS_COEFFICIENTS[i] / (x + i);
+		}
+		double t = x + LANCZOS_G + 0.5;
+		return 0.5 * Math.log(2 * Math.PI) + (x + 0.5) * Math.log(t) - t + Math.log(sum);
+	}
+
+	/**
+	 * Evaluates the continued fraction of the incomplete beta function with the modified Lentz method.
+	 */
+	private static double continuedFraction(double x, double a, double b) {
+		double qab = a + b;
+		double qap = a + 1.0;
+		double qam = a - 1.0;
+		double c = 1.0;
+		double d = 1.0 - qab * x / qap;
+		if (Math.abs(d) < TINY) {
+			d = TINY;
+		}
+		d = 1.0 / d;
+		double h = d;
+
+		for (int m = 1; m <= MAX_ITERATIONS; m++) {
+			int m2 = 2 * m;
+
+			// Terme pair
+			double aa = m * (b - m) * x / ((qam + m2) * (a + m2));
+			d = 1.0 + aa * d;
+			if (Math.abs(d) < TINY) {
+				d = TINY;
+			}
+			c = 1.0 + aa / c;
+			if (Math.abs(c) < TINY) {
+				c = TINY;
+			}
+			d = 1.0 / d;
+			h *= d * c;
+
+			// Terme impair
+			aa = -(a + m) * (qab + m) * x / ((a + m2) * (qap + m2));
+			d = 1.0 + aa * d;
+			if (Math.abs(d) < TINY) {
+				d = TINY;
+			}
+			c = 1.0 + aa / c;
+			if (Math.abs(c) < TINY) {
+				c = TINY;
+			}
+			d = 1.0 / d;
+			double del = d * c;
+			h *= del;
+
+			if (Math.abs(del - 1.0) < EPSILON) {
+				break;
+			}
+		}
+		return h;
+	}
+}
@@ -0,0 +1,62 @@
+package statistics;
+
+/**
+ * Collectors of one dimensional data (of type double) used by the Monte Carlo simulations should implement this
+ * interface. All its methods must be supported: the simulations add observations one by one or by groups, and
+ * merge or restore collectors from the number, average and sum of squared deviations of their observations.
+ * Statistics which cannot be built this way only implement {@link Estimator}.
+ */
+public interface Collector extends Estimator {
+
+	/**
+	 * Initializes the collector
+	 */
+	void init();
+
+	/**
+	 * Adds a new observation to this collector.
+	 *
+	 * @param x observation to be added to this collector
+	 */
+	void add(double x);
+
+	/**
+	 * Adds a group of observations to this collector, given by their number, their average and the sum of their
+	 * squared deviations to that average.
+	 *
+	 * @param count           number of observations of the group
+	 * @param average         average of the observations of the group
+	 * @param sumOfSquaredDev sum of squared deviations to the average of the observations of the group
+	 */
+	void addAll(long count, double average, double sumOfSquaredDev);
+
+	/**
+	 * Adds a group of trials observations equal to 0.0 or 1.0, successes of which are equal to 1.0.
+	 *
+	 * @param trials    number of observations of the group
+	 * @param successes number of observations of the group equal to 1.0
+	 */
+	default void addBernoulli(long trials, long successes) {
+		if (trials > 0) {
+			addAll(trials, (double) successes / trials, (double) successes * (trials - successes) / trials);
+		}
+	}
+
+	/**
+	 * Adds all the observations collected by other to this collector, as if they had been added one by one.
+	 * other is left unchanged.
+	 *
+	 * @param other collector whose observations are to be added to this collector
+	 */
+	default void merge(Collector other) {
+		addAll(other.getNumberOfObs(), other.getAverage(), other.getSumOfSquaredDev());
+	}
+
+	/**
+	 * Creates a new empty collector of the same kind as this one, in which partial results can be collected
+	 * before being merged into this collector.
+	 *
+	 * @return a new empty collector
+	 */
+	Collector createEmpty();
+}
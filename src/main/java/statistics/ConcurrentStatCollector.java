@@ -0,0 +1,311 @@
+package statistics;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * This class provides the statistics of a {@link StatCollector} for observations added concurrently by many
+ * threads, in the spirit of {@link java.util.concurrent.atomic.DoubleAdder}.
+ * <p>
+ * The observations are collected in striped cells, each holding the count, mean and sum of squared deviations of
+ * Welford's algorithm. There is a fixed number of cells, the smallest power of two not less than the number of
+ * processors, so that the memory used does not grow with the number of threads, which may be short-lived or
+ * virtual. Each thread starts from the cell given by a hash of its identifier. A writer locks the cell with a
+ * compare-and-set of its sequence counter from even to odd, updates it and releases it by making the counter even
+ * again; if the cell is already locked, it tries the next one. With no more writers than processors, adding an
+ * observation thus mostly involves a single uncontended compare-and-set on a cache line of its own. The getters
+ * combine the cells with the pairwise merge of Chan, Golub and LeVeque, so that they are more costly than those of a
+ * StatCollector and are meant to be called far less often than {@link #add(double)}.
+ * <p>
+ * The getters may be called while other threads are adding observations. Each cell is read consistently, through
+ * its sequence counter, which is odd while the cell is updated: the statistics returned are those of a set of
+ * observations actually added, each cell being read at some point of the call. Two successive getters may however
+ * see different sets of observations: {@link #snapshot()} returns a consistent copy from which all the statistics
+ * can be read.
+ * <p>
+ * {@link #init()} must not be called while other threads are adding observations, whose observations could be lost.
+ */
+public class ConcurrentStatCollector implements Collector {
+
+	private static final VarHandle VERSION;
+
+	static {
+		try {
+			VERSION = MethodHandles.lookup().findVarHandle(CellFields.class, "version", long.class);
+		} catch (ReflectiveOperationException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	private final Cell[] cells; // stripes, a power of two of them, written under their own sequence counter
+
+	/**
+	 * Creates a new collector and initializes it
+	 */
+	public ConcurrentStatCollector() {
+		// Smallest power of two not less than the number of processors
+		int stripes = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1);
+		cells = new Cell[stripes];
+		// The cells start empty, as after init()
+		for (int i = 0; i < stripes; i++) {
+			cells[i] = new Cell();
+		}
+	}
+
+	/**
+	 * Initializes the collector. Must not be called while other threads are adding observations.
+	 */
+	@Override
+	public void init() {
+		for (Cell cell : cells) {
+			cell.lock();
+			cell.count = 0L;
+			cell.mean = 0.0;
+			cell.sumOfSquaredDev = 0.0;
+			cell.unlock();
+		}
+	}
+
+	/**
+	 * Returns the number of cells of this collector.
+	 */
+	int getNumberOfStripes() {
+		return cells.length;
+	}
+
+	/**
+	 * Locks a cell for the current thread, starting from the one given by its identifier.
+	 *
+	 * @return the locked cell
+	 */
+	private Cell lockCell() {
+		// Consecutive identifiers spread by Fibonacci hashing
+		int mask = cells.length - 1;
+		int index = (int) ((Thread.currentThread().threadId() * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+		for (int attempt = 1; ; attempt++) {
+			Cell cell = cells[index];
+			if (cell.tryLock()) {
+				return cell;
+			}
+			index = (index + 1) & mask;
+
+			// After a round of locked cells, their writers may have been preempted: let them run
+			if ((attempt & mask) == 0) {
+				Thread.yield();
+			} else {
+				Thread.onSpinWait();
+			}
+		}
+	}
+
+	/**
+	 * Adds a new observation to this collector.
+	 *
+	 * @param x observation to be added to this collector
+	 */
+	@Override
+	public void add(double x) {
+		lockCell().add(x);
+	}
+
+	/**
+	 * Adds a group of observations to this collector, given by their number, their average and the sum of their
+	 * squared deviations to that average.
+	 *
+	 * @param count           number of observations of the group
+	 * @param average         average of the observations of the group
+	 * @param sumOfSquaredDev sum of squared deviations to the average of the observations of the group
+	 */
+	@Override
+	public void addAll(long count, double average, double sumOfSquaredDev) {
+		if (count > 0) {
+			lockCell().addAll(count, average, sumOfSquaredDev);
+		}
+	}
+
+	@Override
+	public ConcurrentStatCollector createEmpty() {
+		return new ConcurrentStatCollector();
+	}
+
+	/**
+	 * Returns a copy of the observations collected so far, from which consistent statistics can be read while other
+	 * threads are still adding observations.
+	 *
+	 * @return a new collector holding the observations of every cell, each read at some point of the call
+	 */
+	public StatCollector snapshot() {
+		Cell[] current = cells;
+		double[] states = new double[3 * current.length];
+		for (int i = 0; i < current.length; i++) {
+			current[i].read(states, 3 * i);
+		}
+
+		// Pairwise merge, as in pairwise summation: the rounding error grows with the log of the number of cells
+		for (int width = 1; width < current.length; width *= 2) {
+			for (int i = 0; i + width < current.length; i += 2 * width) {
+				merge(states, 3 * i, 3 * (i + width));
+			}
+		}
+
+		StatCollector stat = new StatCollector();
+		if (current.length > 0) {
+			stat.addAll((long) states[0], states[1], states[2]);
+		}
+		return stat;
+	}
+
+	/**
+	 * Merges the state (count, mean, sum of squared deviations) at offset right of states into the one at offset
+	 * left.
+	 */
+	private static void merge(double[] states, int left, int right) {
+		double n1 = states[left];
+		double n2 = states[right];
+		if (n2 == 0) {
+			return;
+		}
+		if (n1 == 0) {
+			System.arraycopy(states, right, states, left, 3);
+			return;
+		}
+		double n = n1 + n2;
+		double delta = states[right + 1] - states[left + 1];
+		states[left] = n;
+		states[left + 1] += delta * n2 / n;
+		states[left + 2] += states[right + 2] + delta * delta * n1 * n2 / n;
+	}
+
+	@Override
+	public long getNumberOfObs() {
+		return snapshot().getNumberOfObs();
+	}
+
+	@Override
+	public double getAverage() {
+		return snapshot().getAverage();
+	}
+
+	@Override
+	public double getSumOfSquaredDev() {
+		return snapshot().getSumOfSquaredDev();
+	}
+
+	@Override
+	public double getVariance() {
+		return snapshot().getVariance();
+	}
+
+	@Override
+	public double getStandardDeviation() {
+		return snapshot().getStandardDeviation();
+	}
+
+	@Override
+	public double getConfidenceIntervalHalfWidth(double level) {
+		return snapshot().getConfidenceIntervalHalfWidth(level);
+	}
+
+	/**
+	 * Padding before the fields of a cell, so that the cells allocated together by the constructor do not share
+	 * cache lines.
+	 */
+	private static class CellPad0 {
+		private long p00, p01, p02, p03, p04, p05, p06, p07;
+	}
+
+	/**
+	 * Welford state of a cell. The version is odd while a writer holds the cell; a reader retries until it reads the
+	 * same even version before and after the fields.
+	 */
+	private static class CellFields extends CellPad0 {
+		long version;
+		long count;
+		double mean;
+		double sumOfSquaredDev;
+	}
+
+	/**
+	 * Cell padded on both sides: the fields of superclasses are laid out first.
+	 */
+	private static final class Cell extends CellFields {
+		private long p10, p11, p12, p13, p14, p15, p16, p17;
+
+		/**
+		 * Locks this cell if no other writer holds it.
+		 *
+		 * @return true if the version was made odd by the current thread
+		 */
+		boolean tryLock() {
+			long v = (long) VERSION.getOpaque(this);
+			return (v & 1) == 0 && VERSION.compareAndSet(this, v, v + 1);
+		}
+
+		/**
+		 * Locks this cell, waiting for the other writers.
+		 */
+		void lock() {
+			while (!tryLock()) {
+				Thread.onSpinWait();
+			}
+		}
+
+		/**
+		 * Releases this cell, locked by the current thread, publishing its fields to the readers.
+		 */
+		void unlock() {
+			VERSION.setRelease(this, version + 1);
+		}
+
+		/**
+		 * Adds x to this cell, locked by the current thread, and releases it.
+		 */
+		void add(double x) {
+			double delta = x - mean;
+			count++;
+			mean += delta / count;
+			sumOfSquaredDev += delta * (x - mean);
+
+			unlock();
+		}
+
+		/**
+		 * Adds a group of observations to this cell, locked by the current thread, and releases it.
+		 */
+		void addAll(long n2, double average, double squaredDev) {
+			if (count == 0) {
+				count = n2;
+				mean = average;
+				sumOfSquaredDev = squaredDev;
+			} else {
+				double n1 = count;
+				double delta = average - mean;
+				count += n2;
+				mean += delta * n2 / count;
+				sumOfSquaredDev += squaredDev + delta * delta * n1 * n2 / count;
+			}
+
+			unlock();
+		}
+
+		/**
+		 * Writes a consistent copy of the count, mean and sum of squared deviations into states at offset.
+		 */
+		void read(double[] states, int offset) {
+			while (true) {
+				long before = (long) VERSION.getAcquire(this);
+				long n = count;
+				double m = mean;
+				double s = sumOfSquaredDev;
+				VarHandle.loadLoadFence();
+				if ((before & 1) == 0 && before == (long) VERSION.getOpaque(this)) {
+					states[offset] = n;
+					states[offset + 1] = m;
+					states[offset + 2] = s;
+					return;
+				}
+				Thread.onSpinWait();
+			}
+		}
+	}
+}
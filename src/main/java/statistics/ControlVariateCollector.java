@@ -0,0 +1,195 @@
+package statistics;
+
+/**
+ * This class provides methods for collecting pairs of observations (y, c), where c is a control variate whose
+ * expectation is known, and for estimating the mean of y with the control variate estimator
+ * ȳ - b (c̄ - E[c]), b being the estimated regression coefficient Cov(y, c) / Var(c).
+ * <p>
+ * As an {@link Estimator}, it describes that estimator: the average is the controlled estimate and the variance is
+ * the residual variance of y once the part explained by c is removed, so that confidence intervals and run count
+ * projections account for the variance reduction. It is not a {@link Collector}: single observations cannot be
+ * added, only pairs.
+ */
+public class ControlVariateCollector implements Estimator {
+
+	private final double controlExpectation; // known expectation of the control variate
+
+	private long numberOfObs;     // number of collected pairs
+	private double avgOfObs;      // mean of collected observations y
+	private double avgOfControls; // mean of collected controls c
+	private double sumOfSquaredDevObs;      // sum of squared deviations of y
+	private double sumOfSquaredDevControls; // sum of squared deviations of c
+	private double sumOfCrossDev;           // sum of products of the deviations of y and c
+
+	/**
+	 * Creates a new collector and initializes it
+	 *
+	 * @param controlExpectation known expectation of the control variate
+	 */
+	public ControlVariateCollector(double controlExpectation) {
+		this.controlExpectation = controlExpectation;
+		// The sums start at zero, as after init()
+	}
+
+	/**
+	 * Initializes the collector
+	 */
+	public void init() {
+		numberOfObs = 0L;
+		avgOfObs = 0.0;
+		avgOfControls = 0.0;
+		sumOfSquaredDevObs = 0.0;
+		sumOfSquaredDevControls = 0.0;
+		sumOfCrossDev = 0.0;
+	}
+
+	/**
+	 * Adds a new observation and the corresponding value of the control variate to this collector.
+	 *
+	 * @param y observation to be added to this collector
+	 * @param c value of the control variate for this observation
+	 */
+	public void add(double y, double c) {
+		double deltaObs = y - avgOfObs;
+		double deltaControl = c - avgOfControls;
+		numberOfObs++;
+		avgOfObs += deltaObs / numberOfObs;
+		avgOfControls += deltaControl / numberOfObs;
+		sumOfSquaredDevObs += deltaObs * (y - avgOfObs);
+		sumOfSquaredDevControls += deltaControl * (c - avgOfControls);
+		sumOfCrossDev += deltaObs * (c - avgOfControls);
+	}
+
+	/**
+	 * Adds all the pairs collected by other to this collector, as if they had been added one by one.
+	 *
+	 * @param pairs collector whose pairs are to be added to this collector
+	 * @throws IllegalArgumentException if pairs does not have the same control expectation
+	 */
+	public void merge(ControlVariateCollector pairs) {
+		if (pairs.controlExpectation != controlExpectation) {
+			throw new IllegalArgumentException("Only collectors of the same control variate can be merged.");
+		}
+		if (pairs.numberOfObs == 0) {
+			return;
+		}
+
+		double n1 = numberOfObs;
+		double n2 = pairs.numberOfObs;
+		double deltaObs = pairs.avgOfObs - avgOfObs;
+		double deltaControl = pairs.avgOfControls - avgOfControls;
+		numberOfObs += pairs.numberOfObs;
+		double factor = n1 * n2 / numberOfObs;
+		avgOfObs += deltaObs * n2 / numberOfObs;
+		avgOfControls += deltaControl * n2 / numberOfObs;
+		sumOfSquaredDevObs += pairs.sumOfSquaredDevObs + deltaObs * deltaObs * factor;
+		sumOfSquaredDevControls += pairs.sumOfSquaredDevControls + deltaControl * deltaControl * factor;
+		sumOfCrossDev += pairs.sumOfCrossDev + deltaObs * deltaControl * factor;
+	}
+
+	/**
+	 * Creates a new empty collector of the same control variate, in which partial results can be collected before
+	 * being merged into this collector.
+	 *
+	 * @return a new empty collector
+	 */
+	public ControlVariateCollector createEmpty() {
+		return new ControlVariateCollector(controlExpectation);
+	}
+
+	@Override
+	public long getNumberOfObs() {
+		return numberOfObs;
+	}
+
+	/**
+	 * Returns the estimated regression coefficient b = Cov(y, c) / Var(c) of the observations on the controls,
+	 * or 0 if the controls collected so far do not vary.
+	 *
+	 * @return the estimated regression coefficient
+	 */
+	public double getCoefficient() {
+		return sumOfSquaredDevControls > 0.0 ? sumOfCrossDev / sumOfSquaredDevControls : 0.0;
+	}
+
+	/**
+	 * Returns the control variate estimate ȳ - b (c̄ - E[c]) of the mean of the observations.
+	 * <p>
+	 * If no pairs were added since last initialization, Double.NaN is returned.
+	 *
+	 * @return the controlled estimate of the mean
+	 */
+	@Override
+	public double getAverage() {
+		if (numberOfObs == 0) {
+			return Double.NaN;
+		} else {
+			return avgOfObs - getCoefficient() * (avgOfControls - controlExpectation);
+		}
+	}
+
+	/**
+	 * Returns the residual sum of squares of the observations once the part explained by the controls is removed.
+	 *
+	 * @return the residual sum of squares
+	 */
+	@Override
+	public double getSumOfSquaredDev() {
+		return Math.max(0.0, sumOfSquaredDevObs - getCoefficient() * sumOfCrossDev);
+	}
+
+	/**
+	 * Returns the residual variance of the observations, which is the variance per run of the controlled estimator.
+	 * <p>
+	 * If this collection contains less than three pairs, Double.NaN is returned.
+	 *
+	 * @return the residual variance of the observations
+	 */
+	@Override
+	public double getVariance() {
+		if (numberOfObs < 3) {
+			return Double.NaN;
+		} else {
+			return getSumOfSquaredDev() / (numberOfObs - 2);
+		}
+	}
+
+	@Override
+	public double getStandardDeviation() {
+		return Math.sqrt(getVariance());
+	}
+
+	@Override
+	public double getConfidenceIntervalHalfWidth(double level) {
+		// Check argument
+		if (level < 0.0 || level > 1.0) {
+			throw new IllegalArgumentException("Confidence level should be between 0 and 1.");
+		}
+
+		double normalQuantile = InverseStdNormalCDF.getQuantile(0.5 + level / 2.0);
+
+		if (numberOfObs < 3) {
+			return Double.NaN;
+		} else {
+			return normalQuantile * getStandardDeviation() / Math.sqrt(numberOfObs);
+		}
+	}
+
+	/**
+	 * Returns the plain average of the observations, without control variate.
+	 *
+	 * @return the average of the collected observations
+	 */
+	public double getCrudeAverage() {
+		return numberOfObs == 0 ? Double.NaN : avgOfObs;
+	}
+
+	/**
+	 * Returns the sample variance of the observations, without control variate.
+	 *
+	 * @return the sample variance of the collected observations
+	 */
+	public double getCrudeVariance() {
+		return numberOfObs < 2 ? Double.NaN : sumOfSquaredDevObs / (numberOfObs - 1);
+	}
+}
@@ -0,0 +1,63 @@
+package statistics;
+
+/**
+ * Read-only view of the statistics of one dimensional data (of type double), from which the Monte Carlo simulations
+ * decide when to stop. Every {@link Collector} is an estimator; estimators which are not collectors, such as
+ * {@link ControlVariateCollector}, are filled by their own methods.
+ */
+public interface Estimator {
+
+	/**
+	 * Returns the number of observations added to this collector since its last initialization.
+	 *
+	 * @return the number of added observations since last initialization
+	 */
+	long getNumberOfObs();
+
+	/**
+	 * Returns the average of the collected observations since its last initialization.
+	 * <p>
+	 * If no observations were added since last initialization, Double.NaN is returned.
+	 *
+	 * @return the average value of the collected observations
+	 */
+	double getAverage();
+
+	/**
+	 * Returns the sum of squared deviations to the average of the collected observations since its last
+	 * initialization.
+	 *
+	 * @return the sum of squared deviations of the collected observations
+	 */
+	double getSumOfSquaredDev();
+
+	/**
+	 * Returns the sample variance of the collected observations since its last initialization.
+	 * <p>
+	 * If this collection contains less than two observations, Double.NaN is returned.
+	 *
+	 * @return the sample variance of the collected observations
+	 */
+	double getVariance();
+
+	/**
+	 * Returns the sample standard deviation of the collected observations since its last initialization.
+	 * <p>
+	 * If this collection contains less than two observations, Double.NaN is returned.
+	 *
+	 * @return the sample standard deviation of the collected observations
+	 */
+	double getStandardDeviation();
+
+	/**
+	 * Computes a confidence interval with given confidence level for the mean of the collected observations
+	 * and returns half of the interval width.
+	 * <p>
+	 * If this collection contains less than two observations, Double.NaN is returned.
+	 *
+	 * @param level the desired level of confidence of the C.I.
+	 * @return the half-width of the C.I
+	 * @throws IllegalArgumentException if level is not between 0 and 1
+	 */
+	double getConfidenceIntervalHalfWidth(double level);
+}
@@ -0,0 +1,259 @@
+package statistics;
+
+import java.util.Arrays;
+
+/**
+ * This class provides the statistics of a {@link StatCollector} for each metric of vector observations, all the
+ * metrics of an observation being measured on the same realization.
+ * <p>
+ * The metrics are stored column-wise in primitive arrays sharing a single count: adding an observation allocates
+ * nothing and updates each column with Welford's algorithm, so that the statistics of each metric are exactly those
+ * of a StatCollector to which its values would have been added one by one. {@link #column(int)} gives a read-only
+ * {@link Estimator} view of one metric, which can be passed to the code reading the statistics of one dimensional
+ * data.
+ */
+public class MultiStatCollector {
+
+	private final double[] avgOfObs;        // mean of each metric
+	private final double[] sumOfSquaredDev; // sum of squared deviations to the mean of each metric
+	private final Column[] columns;         // views of each metric, created once
+	private long numberOfObs;               // number of collected observations, common to all the metrics
+
+	/**
+	 * Creates a new collector and initializes it
+	 *
+	 * @param numberOfMetrics number of metrics of each observation
+	 * @throws IllegalArgumentException if numberOfMetrics is not positive
+	 */
+	public MultiStatCollector(int numberOfMetrics) {
+		if (numberOfMetrics < 1) {
+			throw new IllegalArgumentException("Number of metrics should be positive.");
+		}
+		avgOfObs = new double[numberOfMetrics];
+		sumOfSquaredDev = new double[numberOfMetrics];
+		columns = new Column[numberOfMetrics];
+		for (int metric = 0; metric < numberOfMetrics; metric++) {
+			columns[metric] = new Column(metric);
+		}
+		// The counts start at zero, as after init()
+	}
+
+	/**
+	 * Initializes the collector
+	 */
+	public void init() {
+		numberOfObs = 0L;
+		Arrays.fill(avgOfObs, 0.0);
+		Arrays.fill(sumOfSquaredDev, 0.0);
+	}
+
+	/**
+	 * Returns the number of metrics of each observation.
+	 *
+	 * @return the number of metrics
+	 */
+	public int getNumberOfMetrics() {
+		return avgOfObs.length;
+	}
+
+	/**
+	 * Adds a new observation to this collector. x is only read during the call and may be reused for the next
+	 * observation.
+	 *
+	 * @param x value of each metric for the observation, of length {@link #getNumberOfMetrics()}
+	 * @throws IllegalArgumentException if x does not have one value per metric
+	 */
+	public void add(double[] x) {
+		if (x.length != avgOfObs.length) {
+			throw new IllegalArgumentException("Observation should have one value per metric.");
+		}
+		numberOfObs++;
+		for (int metric = 0; metric < x.length; metric++) {
+			double delta = x[metric] - avgOfObs[metric];
+			avgOfObs[metric] += delta / numberOfObs;
+			sumOfSquaredDev[metric] += delta * (x[metric] - avgOfObs[metric]);
+		}
+	}
+
+	/**
+	 * Adds all the observations collected by other to this collector, as if they had been added one by one.
+	 * other is left unchanged.
+	 *
+	 * @param other collector whose observations are to be added to this collector
+	 * @throws IllegalArgumentException if other does not have the same number of metrics
+	 */
+	public void merge(MultiStatCollector other) {
+		if (other.avgOfObs.length != avgOfObs.length) {
+			throw new IllegalArgumentException("Collectors should have the same number of metrics.");
+		}
+		if (other.numberOfObs == 0) {
+			return;
+		}
+		if (numberOfObs == 0) {
+			numberOfObs = other.numberOfObs;
+			System.arraycopy(other.avgOfObs, 0, avgOfObs, 0, avgOfObs.length);
+			System.arraycopy(other.sumOfSquaredDev, 0, sumOfSquaredDev, 0, sumOfSquaredDev.length);
+			return;
+		}
+
+		double n1 = numberOfObs;
+		double n2 = other.numberOfObs;
+		numberOfObs += other.numberOfObs;
+		for (int metric = 0; metric < avgOfObs.length; metric++) {
+			double delta = other.avgOfObs[metric] - avgOfObs[metric];
+			avgOfObs[metric] += delta * n2 / numberOfObs;
+			sumOfSquaredDev[metric] += other.sumOfSquaredDev[metric] + delta * delta * n1 * n2 / numberOfObs;
+		}
+	}
+
+	/**
+	 * Creates a new empty collector with the same number of metrics, in which partial results can be collected
+	 * before being merged into this collector.
+	 *
+	 * @return a new empty collector
+	 */
+	public MultiStatCollector createEmpty() {
+		return new MultiStatCollector(avgOfObs.length);
+	}
+
+	/**
+	 * Returns a read-only view of the given metric, whose statistics follow the observations added to this
+	 * collector.
+	 *
+	 * @param metric index of the metric, between 0 and {@link #getNumberOfMetrics()} - 1
+	 * @return the estimator of the metric
+	 */
+	public Estimator column(int metric) {
+		return columns[metric];
+	}
+
+	/**
+	 * Returns the number of observations added to this collector since its last initialization.
+	 *
+	 * @return the number of added observations since last initialization
+	 */
+	public long getNumberOfObs() {
+		return numberOfObs;
+	}
+
+	/**
+	 * Returns the average of the given metric since the last initialization.
+	 * <p>
+	 * If no observations were added since last initialization, Double.NaN is returned.
+	 *
+	 * @param metric index of the metric
+	 * @return the average value of the metric
+	 */
+	public double getAverage(int metric) {
+		if (numberOfObs == 0) {
+			return Double.NaN;
+		} else {
+			return avgOfObs[metric];
+		}
+	}
+
+	/**
+	 * Returns the sum of squared deviations to the average of the given metric since the last initialization.
+	 *
+	 * @param metric index of the metric
+	 * @return the sum of squared deviations of the metric
+	 */
+	public double getSumOfSquaredDev(int metric) {
+		return sumOfSquaredDev[metric];
+	}
+
+	/**
+	 * Returns the sample variance of the given metric since the last initialization.
+	 * <p>
+	 * If this collection contains less than two observations, Double.NaN is returned.
+	 *
+	 * @param metric index of the metric
+	 * @return the sample variance of the metric
+	 */
+	public double getVariance(int metric) {
+		if (numberOfObs < 2) {
+			return Double.NaN;
+		} else {
+			return sumOfSquaredDev[metric] / (numberOfObs - 1);
+		}
+	}
+
+	/**
+	 * Returns the sample standard deviation of the given metric since the last initialization.
+	 * <p>
+	 * If this collection contains less than two observations, Double.NaN is returned.
+	 *
+	 * @param metric index of the metric
+	 * @return the sample standard deviation of the metric
+	 */
+	public double getStandardDeviation(int metric) {
+		return Math.sqrt(getVariance(metric));
+	}
+
+	/**
+	 * Computes a confidence interval with given confidence level for the mean of the given metric and returns half
+	 * of the interval width.
+	 * <p>
+	 * If this collection contains less than two observations, Double.NaN is returned.
+	 *
+	 * @param metric index of the metric
+	 * @param level  the desired level of confidence of the C.I.
+	 * @return the half-width of the C.I
+	 * @throws IllegalArgumentException if level is not between 0 and 1
+	 */
+	public double getConfidenceIntervalHalfWidth(int metric, double level) {
+		// Check argument
+		if (level < 0.0 || level > 1.0) {
+			throw new IllegalArgumentException("Confidence level should be between 0 and 1.");
+		}
+
+		double normalQuantile = InverseStdNormalCDF.getQuantile(0.5 + level / 2.0);
+
+		if (numberOfObs < 2) {
+			return Double.NaN;
+		} else {
+			return normalQuantile * getStandardDeviation(metric) / Math.sqrt(numberOfObs);
+		}
+	}
+
+	/**
+	 * Read-only view of one metric.
+	 */
+	private final class Column implements Estimator {
+		private final int metric;
+
+		Column(int metric) {
+			this.metric = metric;
+		}
+
+		@Override
+		public long getNumberOfObs() {
+			return numberOfObs;
+		}
+
+		@Override
+		public double getAverage() {
+			return MultiStatCollector.this.getAverage(metric);
+		}
+
+		@Override
+		public double getSumOfSquaredDev() {
+			return MultiStatCollector.this.getSumOfSquaredDev(metric);
+		}
+
+		@Override
+		public double getVariance() {
+			return MultiStatCollector.this.getVariance(metric);
+		}
+
+		@Override
+		public double getStandardDeviation() {
+			return MultiStatCollector.this.getStandardDeviation(metric);
+		}
+
+		@Override
+		public double getConfidenceIntervalHalfWidth(double level) {
+			return MultiStatCollector.this.getConfidenceIntervalHalfWidth(metric, level);
+		}
+	}
+}
@@ -0,0 +1,449 @@
+package statistics;
+
+import java.util.Arrays;
+
+/**
+ * This class provides methods for collecting one dimensional data (of type double) in bounded memory and for
+ * estimating their quantiles and histograms, in addition to the statistics of a {@link StatCollector}.
+ * <p>
+ * The observations are counted in logarithmic bins, as in the DDSketch of Masson, Rim and Lee (2019): bin i holds
+ * the observations x such that γ^(i-1) &lt; |x| &le; γ^i, with γ = (1 + α) / (1 - α), so that every quantile is
+ * estimated with a relative error of at most α. Positive and negative observations have their own bins, and zeros
+ * are counted apart. Only the range of bins between the smallest and the largest observation is allocated: with
+ * α = 1 %, observations between 1 and 10^9 take about 1000 bins, whatever their number. When more than maxBins bins
+ * would be needed, the bins of the observations closest to zero are folded together, so that only the quantiles of
+ * these observations lose their guarantee.
+ * <p>
+ * The count, average and variance are computed exactly, as by a StatCollector, and collectors with the same
+ * parameters can be merged without loss. It is an {@link Estimator} but not a {@link Collector}: the distribution of
+ * a group of observations cannot be recovered from its average and variance, so observations are added one by one
+ * or as Bernoulli groups.
+ */
+public class QuantileCollector implements Estimator {
+
+	/**
+	 * Relative accuracy of the quantiles of a collector created with no parameters.
+	 */
+	public static final double DEFAULT_RELATIVE_ACCURACY = 0.01;
+
+	/**
+	 * Maximal number of bins per sign of a collector created with no parameters.
+	 */
+	public static final int DEFAULT_MAX_BINS = 2048;
+
+	private final double relativeAccuracy;
+	private final int maxBins;
+	private final double gamma;
+	private final double inverseLogGamma;
+
+	private final StatCollector moments = new StatCollector(); // count, mean and variance of collected data
+	private final LogBins positives;
+	private final LogBins negatives; // bins of |x|
+	private long zeros;
+	private double min;
+	private double max;
+
+	/**
+	 * Creates a new collector with a relative accuracy of {@value #DEFAULT_RELATIVE_ACCURACY} and at most
+	 * {@value #DEFAULT_MAX_BINS} bins per sign, and initializes it
+	 */
+	public QuantileCollector() {
+		this(DEFAULT_RELATIVE_ACCURACY, DEFAULT_MAX_BINS);
+	}
+
+	/**
+	 * Creates a new collector and initializes it
+	 *
+	 * @param relativeAccuracy relative accuracy α of the estimated quantiles
+	 * @param maxBins          maximal number of bins for the positive observations, and for the negative ones
+	 * @throws IllegalArgumentException if relativeAccuracy is not between 0 and 1 or maxBins is less than 1
+	 */
+	public QuantileCollector(double relativeAccuracy, int maxBins) {
+		// Check arguments
+		if (!(relativeAccuracy > 0.0 && relativeAccuracy < 1.0)) {
+			throw new IllegalArgumentException("Relative accuracy should be between 0 and 1.");
+		}
+		if (maxBins < 1) {
+			throw new IllegalArgumentException("Maximal number of bins should be positive.");
+		}
+
+		this.relativeAccuracy = relativeAccuracy;
+		this.maxBins = maxBins;
+		this.gamma = (1.0 + relativeAccuracy) / (1.0 - relativeAccuracy);
+		this.inverseLogGamma = 1.0 / Math.log(gamma);
+		this.positives = new LogBins(maxBins);
+		this.negatives = new LogBins(maxBins);
+		// The bins and counts start empty, as after init()
+		this.min = Double.POSITIVE_INFINITY;
+		this.max = Double.NEGATIVE_INFINITY;
+	}
+
+	/**
+	 * Initializes the collector
+	 */
+	public void init() {
+		moments.init();
+		positives.clear();
+		negatives.clear();
+		zeros = 0L;
+		min = Double.POSITIVE_INFINITY;
+		max = Double.NEGATIVE_INFINITY;
+	}
+
+	/**
+	 * Adds a new observation to this collector.
+	 *
+	 * @param x observation to be added to this collector
+	 * @throws IllegalArgumentException if x is not finite
+	 */
+	public void add(double x) {
+		add(x, 1L);
+		moments.add(x);
+	}
+
+	/**
+	 * Adds count observations equal to x to the bins, the minimum and the maximum.
+	 */
+	private void add(double x, long count) {
+		if (x > 0.0 && x < Double.POSITIVE_INFINITY) {
+			positives.add(index(x), count);
+		} else if (x < 0.0 && x > Double.NEGATIVE_INFINITY) {
+			negatives.add(index(-x), count);
+		} else if (x == 0.0) {
+			zeros += count;
+		} else {
+			throw new IllegalArgumentException("Observations should be finite.");
+		}
+		min = Math.min(min, x);
+		max = Math.max(max, x);
+	}
+
+	/**
+	 * Adds a group of trials observations equal to 0.0 or 1.0, successes of which are equal to 1.0.
+	 *
+	 * @param trials    number of observations of the group
+	 * @param successes number of observations of the group equal to 1.0
+	 * @throws IllegalArgumentException if successes is not between 0 and trials
+	 */
+	public void addBernoulli(long trials, long successes) {
+		if (successes < 0 || successes > trials) {
+			throw new IllegalArgumentException("Number of successes should be between 0 and the number of trials.");
+		}
+		if (trials == 0) {
+			return;
+		}
+		if (successes > 0) {
+			add(1.0, successes);
+		}
+		if (successes < trials) {
+			add(0.0, trials - successes);
+		}
+		moments.addBernoulli(trials, successes);
+	}
+
+	/**
+	 * Adds all the observations collected by sketch to this collector, as if they had been added one by one.
+	 * sketch is left unchanged.
+	 *
+	 * @param sketch collector whose observations are to be added to this collector
+	 * @throws IllegalArgumentException if sketch does not have the same relative accuracy and maximal number of bins
+	 */
+	public void merge(QuantileCollector sketch) {
+		if (sketch.relativeAccuracy != relativeAccuracy || sketch.maxBins != maxBins) {
+			throw new IllegalArgumentException("Only collectors with the same bins can be merged.");
+		}
+		if (sketch.getNumberOfObs() == 0) {
+			return;
+		}
+
+		positives.merge(sketch.positives);
+		negatives.merge(sketch.negatives);
+		zeros += sketch.zeros;
+		min = Math.min(min, sketch.min);
+		max = Math.max(max, sketch.max);
+		moments.merge(sketch.moments);
+	}
+
+	/**
+	 * Creates a new empty collector with the same bins, in which partial results can be collected before being
+	 * merged into this collector.
+	 *
+	 * @return a new empty collector
+	 */
+	public QuantileCollector createEmpty() {
+		return new QuantileCollector(relativeAccuracy, maxBins);
+	}
+
+	/**
+	 * Returns the relative accuracy of the estimated quantiles.
+	 *
+	 * @return the relative accuracy α
+	 */
+	public double getRelativeAccuracy() {
+		return relativeAccuracy;
+	}
+
+	/**
+	 * Returns the number of bins allocated by this collector, which bounds its memory footprint: 8 bytes per bin.
+	 *
+	 * @return the number of allocated bins
+	 */
+	public int getNumberOfBins() {
+		return positives.capacity() + negatives.capacity();
+	}
+
+	/**
+	 * Returns the smallest observation collected since the last initialization.
+	 * <p>
+	 * If no observations were added since last initialization, Double.NaN is returned.
+	 *
+	 * @return the smallest observation
+	 */
+	public double getMin() {
+		return getNumberOfObs() == 0 ? Double.NaN : min;
+	}
+
+	/**
+	 * Returns the largest observation collected since the last initialization.
+	 * <p>
+	 * If no observations were added since last initialization, Double.NaN is returned.
+	 *
+	 * @return the largest observation
+	 */
+	public double getMax() {
+		return getNumberOfObs() == 0 ? Double.NaN : max;
+	}
+
+	/**
+	 * Returns an estimate of the quantile of order p of the collected observations: the observation of rank
+	 * floor(p (n - 1)) among the n observations sorted in increasing order, within a relative error of α.
+	 * <p>
+	 * If no observations were added since last initialization, Double.NaN is returned.
+	 *
+	 * @param p the order of the quantile
+	 * @return the estimated quantile
+	 * @throws IllegalArgumentException if p is not between 0 and 1
+	 */
+	public double getQuantile(double p) {
+		// Check argument
+		if (p < 0.0 || p > 1.0) {
+			throw new IllegalArgumentException("Order of the quantile should be between 0 and 1.");
+		}
+		long n = getNumberOfObs();
+		if (n == 0) {
+			return Double.NaN;
+		}
+
+		// Increasing values: negatives from the largest absolute value down, then zeros, then positives
+		long rank = (long) Math.floor(p * (n - 1));
+		double value;
+		if (rank < negatives.total) {
+			value = -value(negatives.indexOfRank(negatives.total - 1 - rank));
+		} else if (rank < negatives.total + zeros) {
+			value = 0.0;
+		} else {
+			value = value(positives.indexOfRank(rank - negatives.total - zeros));
+		}
+		return Math.min(Math.max(value, min), max);
+	}
+
+	/**
+	 * Returns an estimate of the number of observations in each of the intervals [boundaries[i], boundaries[i + 1]).
+	 * The observations of a bin are counted in the interval containing its representative value, within a relative
+	 * error of α of the observations.
+	 *
+	 * @param boundaries the bounds of the intervals, in increasing order
+	 * @return the estimated number of observations of the boundaries.length - 1 intervals
+	 * @throws IllegalArgumentException if there are less than two boundaries or they are not increasing
+	 */
+	public long[] getHistogram(double[] boundaries) {
+		if (boundaries.length < 2) {
+			throw new IllegalArgumentException("Histogram should have at least two boundaries.");
+		}
+		for (int i = 1; i < boundaries.length; i++) {
+			if (!(boundaries[i - 1] < boundaries[i])) {
+				throw new IllegalArgumentException("Boundaries should be increasing.");
+			}
+		}
+
+		long[] histogram = new long[boundaries.length - 1];
+		for (int index = negatives.minIndex; negatives.total > 0 && index <= negatives.maxIndex; index++) {
+			addToHistogram(histogram, boundaries, -value(index), negatives.count(index));
+		}
+		addToHistogram(histogram, boundaries, 0.0, zeros);
+		for (int index = positives.minIndex; positives.total > 0 && index <= positives.maxIndex; index++) {
+			addToHistogram(histogram, boundaries, value(index), positives.count(index));
+		}
+		return histogram;
+	}
+
+	private void addToHistogram(long[] histogram, double[] boundaries, double value, long count) {
+		if (count == 0) {
+			return;
+		}
+		value = Math.min(Math.max(value, min), max);
+		int position = Arrays.binarySearch(boundaries, value);
+		int interval = position >= 0 ? position : -position - 2;
+		if (interval >= 0 && interval < histogram.length) {
+			histogram[interval] += count;
+		}
+	}
+
+	/**
+	 * Returns the index of the bin of the positive value x.
+	 */
+	private int index(double x) {
+		return (int) Math.ceil(Math.log(x) * inverseLogGamma);
+	}
+
+	/**
+	 * Returns the representative value of bin index, whose relative distance to the bounds of the bin is α.
+	 */
+	private double value(int index) {
+		return 2.0 * Math.pow(gamma, index) / (gamma + 1.0);
+	}
+
+	/**
+	 * Returns the number of observations added to this collector since its last initialization.
+	 *
+	 * @return the number of added observations since last initialization
+	 */
+	@Override
+	public long getNumberOfObs() {
+		return moments.getNumberOfObs();
+	}
+
+	/**
+	 * Returns the average of the collected observations since its last initialization.
+	 * <p>
+	 * If no observations were added since last initialization, Double.NaN is returned.
+	 *
+	 * @return the average value of the collected observations
+	 */
+	@Override
+	public double getAverage() {
+		return moments.getAverage();
+	}
+
+	@Override
+	public double getSumOfSquaredDev() {
+		return moments.getSumOfSquaredDev();
+	}
+
+	@Override
+	public double getVariance() {
+		return moments.getVariance();
+	}
+
+	@Override
+	public double getStandardDeviation() {
+		return moments.getStandardDeviation();
+	}
+
+	@Override
+	public double getConfidenceIntervalHalfWidth(double level) {
+		return moments.getConfidenceIntervalHalfWidth(level);
+	}
+
+	/**
+	 * Counts of consecutive bins, allocated from the smallest to the largest index used and folded from below when
+	 * more than maxBins bins would be needed.
+	 */
+	private static final class LogBins {
+		private final int maxBins;
+		private long[] counts = new long[0];
+		private int offset;   // index of counts[0]
+		private int minIndex; // smallest index used
+		private int maxIndex; // largest index used
+		private long total;
+
+		LogBins(int maxBins) {
+			this.maxBins = maxBins;
+		}
+
+		void clear() {
+			Arrays.fill(counts, 0L);
+			total = 0L;
+		}
+
+		int capacity() {
+			return counts.length;
+		}
+
+		long count(int index) {
+			return index >= minIndex && index <= maxIndex ? counts[index - offset] : 0L;
+		}
+
+		void add(int index, long count) {
+			if (total == 0) {
+				minIndex = index;
+				maxIndex = index;
+				if (counts.length == 0 || index < offset || index >= offset + counts.length) {
+					counts = new long[Math.max(counts.length, Math.min(maxBins, 64))];
+					offset = index - counts.length / 2;
+				}
+			} else if (index < minIndex || index > maxIndex) {
+				int newMax = Math.max(maxIndex, index);
+				int newMin = Math.max(Math.min(minIndex, index), newMax - maxBins + 1);
+				resize(newMin, newMax);
+				index = Math.max(index, minIndex);
+			}
+			counts[index - offset] += count;
+			total += count;
+		}
+
+		/**
+		 * Makes [newMin, newMax] the range of bins used, folding the bins below newMin into bin newMin.
+		 */
+		private void resize(int newMin, int newMax) {
+			long folded = 0;
+			for (int index = minIndex; index < Math.min(newMin, maxIndex + 1); index++) {
+				folded += counts[index - offset];
+				counts[index - offset] = 0L;
+			}
+
+			if (newMin < offset || newMax >= offset + counts.length) {
+				// Grow only when the range no longer fits, and share the free margin between both ends
+				int needed = newMax - newMin + 1;
+				int length = needed <= counts.length
+						? counts.length
+						: Math.min(maxBins, Math.max(counts.length + counts.length / 2, needed));
+				int newOffset = newMin - (length - needed) / 2;
+				long[] newCounts = new long[length];
+				int from = Math.max(minIndex, newMin);
+				if (from <= maxIndex) {
+					System.arraycopy(counts, from - offset, newCounts, from - newOffset, maxIndex - from + 1);
+				}
+				counts = newCounts;
+				offset = newOffset;
+			}
+
+			minIndex = newMin;
+			maxIndex = newMax;
+			counts[newMin - offset] += folded;
+		}
+
+		/**
+		 * Returns the index of the bin holding the observation of the given rank, counted from the smallest index.
+		 */
+		int indexOfRank(long rank) {
+			long cumulated = 0;
+			for (int index = minIndex; index < maxIndex; index++) {
+				cumulated += counts[index - offset];
+				if (cumulated > rank) {
+					return index;
+				}
+			}
+			return maxIndex;
+		}
+
+		void merge(LogBins other) {
+			for (int index = other.minIndex; other.total > 0 && index <= other.maxIndex; index++) {
+				long count = other.counts[index - other.offset];
+				if (count > 0) {
+					add(index, count);
+				}
+			}
+		}
+	}
+}
@@ -3,7 +3,7 @@ package statistics;
 /**
  * This class provides useful methods for collecting one dimensional data (of type double) and for computing basic statistics.
  */
-public class StatCollector {
+public class StatCollector implements Collector {
 
 	private long numberOfObs;        // number of collected data
 	private double avgOfObs;         // mean of collected data
@@ -19,6 +19,7 @@ public class StatCollector {
 	/**
 	 * Initializes the collector
 	 */
+	@Override
 	public void init() {
 		numberOfObs = 0L;
 		avgOfObs = 0.0;
@@ -30,6 +31,7 @@ public class StatCollector {
 	 *
 	 * @param x observation to be added to this collector
 	 */
+	@Override
 	public void add(double x) {
 		double delta = x - avgOfObs;
 		numberOfObs++;
@@ -37,11 +39,45 @@ public class StatCollector {
 		sumOfSquaredDev += delta * (x - avgOfObs);
 	}
 
+	/**
+	 * Adds a group of observations to this collector, given by their number, their average and the sum of their
+	 * squared deviations to that average.
+	 *
+	 * @param count           number of observations of the group
+	 * @param average         average of the observations of the group
+	 * @param sumOfSquaredDev sum of squared deviations to the average of the observations of the group
+	 */
+	@Override
+	public void addAll(long count, double average, double sumOfSquaredDev) {
+		if (count == 0) {
+			return;
+		}
+		if (numberOfObs == 0) {
+			this.numberOfObs = count;
+			this.avgOfObs = average;
+			this.sumOfSquaredDev = sumOfSquaredDev;
+			return;
+		}
+
+		double n1 = numberOfObs;
+		double n2 = count;
+		double delta = average - avgOfObs;
+		numberOfObs += count;
+		avgOfObs += delta * n2 / numberOfObs;
+		this.sumOfSquaredDev += sumOfSquaredDev + delta * delta * n1 * n2 / numberOfObs;
+	}
+
+	@Override
+	public StatCollector createEmpty() {
+		return new StatCollector();
+	}
+
 	/**
 	 * Returns the number of observations added to this collector since its last initialization.
 	 *
 	 * @return the number of added observations since last initialization
 	 */
+	@Override
 	public long getNumberOfObs() {
 		return numberOfObs;
 	}
@@ -53,6 +89,7 @@ public class StatCollector {
 	 *
 	 * @return the average value of the collected observations
 	 */
+	@Override
 	public double getAverage() {
 		if (numberOfObs == 0) {
 			return Double.NaN;
@@ -61,6 +98,11 @@ public class StatCollector {
 		}
 	}
 
+	@Override
+	public double getSumOfSquaredDev() {
+		return sumOfSquaredDev;
+	}
+
 	/**
 	 * Returns the sample variance of the collected observations since its last initialization.
 	 * <p>
@@ -68,6 +110,7 @@ public class StatCollector {
 	 *
 	 * @return the sample variance of the collected observations
 	 */
+	@Override
 	public double getVariance() {
 		if (numberOfObs < 2) {
 			return Double.NaN;
@@ -83,6 +126,7 @@ public class StatCollector {
 	 *
 	 * @return the sample standard deviation of the collected observations
 	 */
+	@Override
 	public double getStandardDeviation() {
 		if (numberOfObs < 2) {
 			return Double.NaN;
@@ -101,6 +145,7 @@ public class StatCollector {
 	 * @return the half-width of the C.I
 	 * @throws IllegalArgumentException if level is not between 0 and 1
 	 */
+	@Override
 	public double getConfidenceIntervalHalfWidth(double level) {
 		// Check argument
 		if (level < 0.0 || level > 1.0) {
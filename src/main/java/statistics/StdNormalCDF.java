@@ -0,0 +1,65 @@
+package statistics;
+
+/**
+ * Utility class to compute the cumulative distribution function of the standard normal distribution.
+ * <p>
+ * Uses the double precision algorithm of Hart (1968), as presented by West (2005), with an absolute error of about
+ * 1e-15 over the whole real line. It is the inverse of {@link InverseStdNormalCDF#getQuantile(double)}.
+ */
+public final class StdNormalCDF {
+
+	// Coefficients of the rational approximation used for |x| < 10 / sqrt(2)
+	private static final double[] NUMERATOR = {220.206867912376, 221.213596169931, 112.079291497871,
+			33.912866078383, 6.37396220353165, 0.700383064443688, 3.52624965998911e-02};
+	private static final double[] DENOMINATOR = {440.413735824752, 793.826512519948, 637.333633378831,
+			296.564248779674, 86.7807322029461, 16.064177579207, 1.75566716318264, 8.83883476483184e-02};
+
+	private static final double SQRT_2_PI = 2.506628274631;
+
+	/**
+	 * Private constructor. Makes it impossible to instantiate.
+	 */
+	private StdNormalCDF() {
+	}
+
+	/**
+	 * Returns the probability that a random variable with standard normal distribution is at most x.
+	 *
+	 * @param x point at which the cumulative distribution function is evaluated
+	 * @return P(Z &le; x) where Z is a random variable with standard normal distribution
+	 */
+	public static double getProbability(double x) {
+		double absX = Math.abs(x);
+
+		// Probabilité de la queue P(Z > |x|)
+		double tail;
+		if (absX > 37.0) {
+			tail = 0.0;
+		} else {
+			double exponential = Math.exp(-absX * absX / 2.0);
+			if (absX < 7.07106781186547) {
+				tail = exponential * polynomial(NUMERATOR, absX) / polynomial(DENOMINATOR, absX);
+			} else {
+				// Fraction continue de Laplace pour les grandes valeurs
+				double build = absX + 0.65;
+				build = absX + 4.0 / build;
+				build = absX + 3.0 / build;
+				build = absX + 2.0 / build;
+				build = absX + 1.0 / build;
+				tail = exponential / build / SQRT_2_PI;
+			}
+		}
+		return x > 0 ? 1.0 - tail : tail;
+	}
+
+	/**
+	 * Evaluates the polynomial of given coefficients (constant term first) at x with Horner's method.
+	 */
+	private static double polynomial(double[] coefficients, double x) {
+		double value = coefficients[coefficients.length - 1];
+		for (int i = coefficients.length - 2; i >= 0; i--) {
+			value = value * x + coefficients[i];
+		}
+		return value;
+	}
+}
@@ -0,0 +1,104 @@
+package montecarlo;
+
+import org.junit.jupiter.api.Test;
+import statistics.BernoulliCollector;
+import statistics.ControlVariateCollector;
+import statistics.StatCollector;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AliasTableTest {
+    private static final long SEED = 0x134D6EE;
+
+    @Test
+    void testProbabilitiesMatchWeights() {
+        double[] weights = {1, 0, 3, 0.5, 10, 2.5, 0, 7};
+        AliasTable table = new AliasTable(weights);
+
+        double total = 24.0;
+        for (int i = 0; i < weights.length; i++) {
+            assertEquals(weights[i] / total, table.probability(i), 1e-9, "Probabilité du jour " + i);
+        }
+        assertEquals(weights.length, table.size());
+    }
+
+    @Test
+    void testFrequenciesMatchProbabilities() {
+        // Poids saisonniers : plus de naissances en été qu'en hiver
+        double[] weights = new double[365];
+        for (int day = 0; day < 365; day++) {
+            weights[day] = 1.0 + 0.3 * Math.sin(2 * Math.PI * day / 365);
+        }
+        weights[100] = 0.0;
+        AliasTable table = new AliasTable(weights);
+        SplittableRandom random = new SplittableRandom(SEED);
+
+        int draws = 3_650_000;
+        long[] counts = new long[365];
+        for (int i = 0; i < draws; i++) {
+            counts[table.next(random)]++;
+        }
+
+        // Statistique du khi-deux à 363 degrés de liberté : sa valeur dépasse 480 avec une probabilité < 1e-4
+        double chiSquare = 0.0;
+        for (int day = 0; day < 365; day++) {
+            double expected = draws * table.probability(day);
+            if (expected > 0) {
+                chiSquare += (counts[day] - expected) * (counts[day] - expected) / expected;
+            }
+        }
+        assertEquals(0, counts[100], "Un jour de poids nul ne doit jamais être tiré.");
+        assertTrue(chiSquare < 480, "Fréquences incompatibles avec les probabilités : khi-deux = " + chiSquare);
+    }
+
+    @Test
+    void testInvalidWeights() {
+        assertThrows(IllegalArgumentException.class, () -> new AliasTable(new double[0]));
+        assertThrows(IllegalArgumentException.class, () -> new AliasTable(new double[]{1, -1}));
+        assertThrows(IllegalArgumentException.class, () -> new AliasTable(new double[]{1, Double.NaN}));
+        assertThrows(IllegalArgumentException.class, () -> new AliasTable(new double[]{0, 0}));
+    }
+
+    @Test
+    void testWeightedBirthdayExperiment() {
+        double[] weights = {5, 1, 1, 1, 2};
+        AliasTable table = new AliasTable(weights);
+
+        // Pour deux personnes, la probabilité d'un anniversaire commun est la somme des carrés des probabilités
+        BernoulliCollector pairs = new BernoulliCollector();
+        new BirthdayExperiment(2, table, 2).executeBatch(new SplittableRandom(SEED), 1_000_000, pairs);
+        assertEquals(table.collisionProbability(), pairs.getAverage(), pairs.getConfidenceIntervalHalfWidth(0.999));
+        assertEquals(32.0 / 100, table.collisionProbability(), 1e-9);
+
+        // Des jours équiprobables donnent la même loi que l'expérience uniforme
+        double[] uniform = new double[365];
+        Arrays.fill(uniform, 1.0);
+        BernoulliCollector weighted = new BernoulliCollector();
+        new BirthdayExperiment(23, new AliasTable(uniform), 2)
+                .executeBatch(new SplittableRandom(SEED), 1_000_000, weighted);
+        assertEquals(0.5072972343239857, weighted.getAverage(), weighted.getConfidenceIntervalHalfWidth(0.999));
+    }
+
+    @Test
+    void testControlExpectationOfWeightedDays() {
+        AliasTable table = new AliasTable(new double[]{3, 1, 1, 1});
+        BirthdayExperiment experiment = new BirthdayExperiment(4, table, 2);
+        assertEquals(4 * 3 / 2.0 * (9 + 1 + 1 + 1) / 36.0, experiment.getControlExpectation(), 1e-9);
+
+        // La moyenne des paires observées converge vers l'espérance annoncée
+        StatCollector controls = new StatCollector();
+        ControlVariateCollector stat = new ControlVariateCollector(experiment.getControlExpectation()) {
+            @Override
+            public void add(double y, double c) {
+                super.add(y, c);
+                controls.add(c);
+            }
+        };
+        experiment.executeWithControl(new SplittableRandom(SEED), 200_000, stat);
+        assertEquals(experiment.getControlExpectation(), controls.getAverage(),
+                controls.getConfidenceIntervalHalfWidth(0.999));
+    }
+}
@@ -0,0 +1,190 @@
+package montecarlo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import statistics.BernoulliCollector;
+import statistics.StatCollector;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.SplittableRandom;
+import java.util.function.LongConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchLogTest {
+    private static final long SEED = 0x134D6EE;
+
+    @Test
+    void testPrefixesRebuildCollector(@TempDir Path dir) {
+        Path file = dir.resolve("batches.log");
+        Experiment exp = new FirstCollisionTimeExperiment(365, 2, 100);
+        SplittableRandom rnd = new SplittableRandom(SEED);
+        StatCollector stat = new StatCollector();
+        long[] batchRuns = {1000, 1, 2500, 7, 10_000};
+
+        // État du collecteur attendu après chaque lot
+        StatCollector[] states = new StatCollector[batchRuns.length];
+        try (BatchLog log = BatchLog.open(file)) {
+            LongConsumer simulator = log.instrument(n -> MonteCarloSimulation.simulateNRuns(exp, n, rnd, stat), stat);
+            for (int i = 0; i < batchRuns.length; i++) {
+                simulator.accept(batchRuns[i]);
+                states[i] = new StatCollector();
+                states[i].merge(stat);
+            }
+        }
+
+        try (BatchLogReader reader = BatchLogReader.open(file)) {
+            assertEquals(batchRuns.length, reader.size());
+            assertEquals(0L, reader.prefix(0).getNumberOfObs());
+            for (int i = 0; i < batchRuns.length; i++) {
+                StatCollector prefix = reader.prefix(i + 1);
+                assertEquals(states[i].getNumberOfObs(), prefix.getNumberOfObs());
+                assertEquals(states[i].getAverage(), prefix.getAverage(), "Préfixe de " + (i + 1) + " lots");
+                assertEquals(states[i].getSumOfSquaredDev(), prefix.getSumOfSquaredDev());
+                assertEquals(batchRuns[i], reader.get(i).batchRuns());
+                assertTrue(reader.get(i).durationNanos() >= 0);
+            }
+        }
+    }
+
+    @Test
+    void testBatchSummariesMatchBatches(@TempDir Path dir) {
+        Path file = dir.resolve("batches.log");
+        Experiment exp = new FirstCollisionTimeExperiment(365, 2, 100);
+        SplittableRandom rnd = new SplittableRandom(SEED);
+        SplittableRandom replay = new SplittableRandom(SEED);
+        StatCollector stat = new StatCollector();
+        long[] batchRuns = {5000, 100, 20_000};
+
+        StatCollector[] batches = new StatCollector[batchRuns.length];
+        try (BatchLog log = BatchLog.open(file)) {
+            LongConsumer simulator = log.instrument(n -> MonteCarloSimulation.simulateNRuns(exp, n, rnd, stat), stat);
+            for (int i = 0; i < batchRuns.length; i++) {
+                simulator.accept(batchRuns[i]);
+                batches[i] = new StatCollector();
+                MonteCarloSimulation.simulateNRuns(exp, batchRuns[i], replay, batches[i]);
+            }
+        }
+
+        // Les observations de chaque lot sont retrouvées par différence entre deux états successifs
+        try (BatchLogReader reader = BatchLogReader.open(file)) {
+            for (int i = 0; i < batchRuns.length; i++) {
+                StatCollector batch = reader.batch(i);
+                assertEquals(batchRuns[i], batch.getNumberOfObs());
+                assertEquals(batches[i].getAverage(), batch.getAverage(), 1e-9, "Moyenne du lot " + i);
+                assertEquals(batches[i].getVariance(), batch.getVariance(), 1e-6 * batches[i].getVariance(),
+                        "Variance du lot " + i);
+            }
+        }
+    }
+
+    @Test
+    void testSimulationLogsEveryBatch(@TempDir Path dir) {
+        Path file = dir.resolve("batches.log");
+        BernoulliCollector stat = new BernoulliCollector();
+        try (BatchLog log = BatchLog.open(file)) {
+            MonteCarloSimulation.simulateTillGivenCIHalfWidth(new BirthdayExperiment(23, 365, 2), 0.95, 2e-3,
+                    10_000, 10_000, new SplittableRandom(SEED), stat, log);
+            assertTrue(log.size() >= 2, "Au moins le lot initial et le lot projeté");
+        }
+
+        try (BatchLogReader reader = BatchLogReader.open(file)) {
+            long runs = 0;
+            for (long i = 0; i < reader.size(); i++) {
+                runs += reader.get(i).batchRuns();
+            }
+            assertEquals(stat.getNumberOfObs(), runs);
+
+            // Le nombre de succès d'un lot de Bernoulli est retrouvé exactement
+            BernoulliCollector restored = new BernoulliCollector();
+            reader.restore(restored, reader.size());
+            assertEquals(stat.getNumberOfObs(), restored.getNumberOfObs());
+            assertEquals(stat.getAverage(), restored.getAverage());
+        }
+    }
+
+    @Test
+    void testReopenedLogAppendsAcrossRegions(@TempDir Path dir) {
+        Path file = dir.resolve("batches.log");
+        StatCollector stat = new StatCollector();
+        int first = BatchLog.RECORDS_PER_REGION - 3;
+        try (BatchLog log = BatchLog.open(file)) {
+            for (int i = 0; i < first; i++) {
+                stat.add(i);
+                log.append(1, stat, i, i);
+            }
+        }
+
+        // Les enregistrements suivants sont ajoutés à la suite, au-delà de la première région
+        try (BatchLog log = BatchLog.open(file)) {
+            assertEquals(first, log.size());
+            for (int i = first; i < 2 * BatchLog.RECORDS_PER_REGION + 5; i++) {
+                stat.add(i);
+                log.append(1, stat, i, i);
+            }
+        }
+
+        try (BatchLogReader reader = BatchLogReader.open(file)) {
+            assertEquals(2 * BatchLog.RECORDS_PER_REGION + 5, reader.size());
+            for (long i = first - 5; i < reader.size(); i++) {
+                assertEquals(i, reader.get(i).endEpochMillis());
+                assertEquals(i, reader.batch(i).getAverage(), 1e-6, "Observation du lot " + i);
+            }
+            assertEquals(stat.getAverage(), reader.prefix(reader.size()).getAverage());
+            assertThrows(IndexOutOfBoundsException.class, () -> reader.get(reader.size()));
+        }
+    }
+
+    @Test
+    void testReopenedLogRejectsFreshCollector(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("batches.log");
+        StatCollector stat = new StatCollector();
+        try (BatchLog log = BatchLog.open(file)) {
+            for (int i = 0; i < 3; i++) {
+                stat.add(i);
+                log.append(1, stat, i, i);
+            }
+        }
+
+        // Un nouveau collecteur doit d'abord être restauré à partir du journal
+        StatCollector fresh = new StatCollector();
+        fresh.add(42);
+        try (BatchLog log = BatchLog.open(file)) {
+            assertThrows(IllegalStateException.class, () -> log.append(1, fresh, 3, 3));
+            assertEquals(3, log.size());
+            try (BatchLogReader reader = BatchLogReader.open(file)) {
+                reader.restore(fresh, reader.size());
+            }
+            fresh.add(3);
+            log.append(1, fresh, 3, 3);
+        }
+
+        // Journal écrit par une version qui ne faisait pas la vérification : le nombre d'observations du dernier
+        // enregistrement est ramené à 1, comme s'il avait été ajouté par un nouveau collecteur
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(Long.BYTES).putLong(0, 1L),
+                    BatchLog.HEADER_BYTES + 3L * BatchLog.RECORD_BYTES + 8);
+        }
+        try (BatchLogReader reader = BatchLogReader.open(file)) {
+            assertEquals(4, reader.size());
+            assertEquals(3L, reader.prefix(3).getNumberOfObs());
+            assertEquals(2.0, reader.batch(2).getAverage(), 1e-12);
+            assertThrows(IllegalStateException.class, () -> reader.batch(3));
+            assertThrows(IllegalStateException.class, () -> reader.prefix(4));
+        }
+    }
+
+    @Test
+    void testRejectsOtherFiles(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("other.bin");
+        Files.write(file, new byte[BatchLog.HEADER_BYTES + 10]);
+
+        assertThrows(IllegalArgumentException.class, () -> BatchLogReader.open(file));
+        assertThrows(IllegalArgumentException.class, () -> BatchLog.open(file));
+    }
+}
@@ -0,0 +1,107 @@
+package montecarlo;
+
+import com.sun.management.ThreadMXBean;
+import org.junit.jupiter.api.Test;
+import statistics.StatCollector;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class BirthdayExperimentTest {
+    private static final long SEED = 0x134D6EE;
+
+    @Test
+    void testSameSequenceAsFreshArrays() {
+        int[][] parameters = {{23, 365, 2}, {88, 365, 3}, {10, 20, 2}, {50, 7, 12}, {5, 365, 1}};
+
+        for (int[] p : parameters) {
+            BirthdayExperiment experiment = new BirthdayExperiment(p[0], p[1], p[2]);
+            Random random = new Random(SEED);
+            Random referenceRandom = new Random(SEED);
+
+            // La séquence des succès/échecs doit être celle de la version qui alloue un tableau par exécution
+            for (int run = 0; run < 100_000; run++) {
+                assertEquals(reference(p[0], p[1], p[2], referenceRandom), experiment.execute(random),
+                        "Résultat différent à la réalisation " + run);
+            }
+        }
+    }
+
+    @Test
+    void testBatchMatchesSuccessiveExecutions() {
+        assertBatchMatchesSuccessiveExecutions(new BirthdayExperiment(23, 365, 2));
+    }
+
+    @Test
+    void testPackedBatchMatchesSuccessiveExecutions() {
+        // Les tirages restants d'une réalisation ne servent pas à la suivante, en lot comme à l'unité
+        assertBatchMatchesSuccessiveExecutions(new BirthdayExperiment(23, 365, 2, true));
+    }
+
+    private static void assertBatchMatchesSuccessiveExecutions(BirthdayExperiment experiment) {
+        int runs = 100_000;
+
+        StatCollector batch = new StatCollector();
+        experiment.executeBatch(new Random(SEED), runs, batch);
+
+        StatCollector single = new StatCollector();
+        Random random = new Random(SEED);
+        for (int run = 0; run < runs; run++) {
+            single.add(experiment.execute(random));
+        }
+
+        assertEquals(single.getNumberOfObs(), batch.getNumberOfObs());
+        assertEquals(single.getAverage(), batch.getAverage(), 1e-12);
+        assertEquals(single.getVariance(), batch.getVariance(), 1e-12);
+    }
+
+    @Test
+    void testHotLoopDoesNotAllocate() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof ThreadMXBean t && t.isThreadAllocatedMemoryEnabled(),
+                "La mesure des allocations par thread n'est pas disponible.");
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+
+        BirthdayExperiment experiment = new BirthdayExperiment(23, 365, 2);
+        Random random = new Random(SEED);
+        int runs = 1_000_000;
+
+        // Préchauffage : création des compteurs du thread et compilation de la boucle
+        double sink = 0;
+        for (int run = 0; run < runs; run++) {
+            sink += experiment.execute(random);
+        }
+
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int run = 0; run < runs; run++) {
+            sink += experiment.execute(random);
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        // Affichage pour information
+        System.out.printf("Octets alloués pour %d réalisations : %d (%.4f octet/réalisation)%n",
+                runs, allocated, (double) allocated / runs);
+
+        // Une allocation de int[365] par réalisation représenterait environ 1.5 Ko par réalisation
+        assertTrue(allocated < runs / 100, "La boucle chaude alloue de la mémoire : " + allocated + " octets.");
+        assertTrue(sink > 0);
+    }
+
+    /**
+     * Version d'origine de l'expérience, avec un tableau alloué par réalisation.
+     */
+    private static double reference(int K, int Y, int M, Random rnd) {
+        int[] dayCount = new int[Y];
+        for (int i = 0; i < K; i++) {
+            int day = rnd.nextInt(Y);
+            dayCount[day]++;
+            if (dayCount[day] >= M) {
+                return 1.0;
+            }
+        }
+        return 0.0;
+    }
+}
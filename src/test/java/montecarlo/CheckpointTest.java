@@ -0,0 +1,86 @@
+package montecarlo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import statistics.StatCollector;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CheckpointTest {
+    private static final long SEED = 0x134D6EE;
+
+    private static final String KEY = "K=23,Y=365,M=2";
+
+    @Test
+    void testResumedSimulationEqualsUninterruptedOne(@TempDir Path dir) {
+        Experiment exp = new BirthdayExperiment(23, 365, 2);
+        double level = 0.95;
+        double maxHalfWidth = 5e-4;
+
+        StatCollector uninterrupted = new StatCollector();
+        Path uninterruptedFile = dir.resolve("uninterrupted.ckpt");
+        MonteCarloSimulation.simulateTillGivenCIHalfWidth(exp, KEY, level, maxHalfWidth, 100_000, 100_000,
+                new Random(SEED), uninterrupted, uninterruptedFile, Duration.ZERO);
+        assertFalse(Files.exists(uninterruptedFile), "Le point de contrôle d'une simulation terminée est supprimé");
+
+        // Simulation interrompue au milieu du lot projeté, après trois segments
+        Path file = dir.resolve("interrupted.ckpt");
+        interrupt(exp, level, maxHalfWidth, new Random(SEED), file);
+
+        // Reprise avec la source dans son état initial : les réalisations continuent avec celle du point de contrôle
+        StatCollector resumed = new StatCollector();
+        MonteCarloSimulation.simulateTillGivenCIHalfWidth(exp, KEY, level, maxHalfWidth, 100_000, 100_000,
+                new Random(SEED), resumed, file, Duration.ZERO);
+        assertFalse(Files.exists(file));
+
+        assertEquals(uninterrupted.getNumberOfObs(), resumed.getNumberOfObs());
+        assertEquals(uninterrupted.getAverage(), resumed.getAverage());
+        assertEquals(uninterrupted.getVariance(), resumed.getVariance());
+    }
+
+    @Test
+    void testRejectsCheckpointOfOtherSimulation(@TempDir Path dir) {
+        Path file = dir.resolve("simulation.ckpt");
+        Experiment exp = new BirthdayExperiment(23, 365, 2);
+        interrupt(exp, 0.95, 5e-4, new Random(SEED), file);
+
+        // Autres paramètres, autre graine, autre clé ou autre classe d'expérience
+        assertThrows(IllegalArgumentException.class, () -> MonteCarloSimulation.simulateTillGivenCIHalfWidth(exp,
+                KEY, 0.99, 5e-4, 100_000, 100_000, new Random(SEED), new StatCollector(), file, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> MonteCarloSimulation.simulateTillGivenCIHalfWidth(exp,
+                KEY, 0.95, 5e-4, 100_000, 100_000, new Random(SEED + 1), new StatCollector(), file, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> MonteCarloSimulation.simulateTillGivenCIHalfWidth(
+                new BirthdayExperiment(30, 365, 2), "K=30,Y=365,M=2", 0.95, 5e-4, 100_000, 100_000,
+                new Random(SEED), new StatCollector(), file, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> MonteCarloSimulation.simulateTillGivenCIHalfWidth(
+                new VectorBirthdayExperiment(23, 365, 2), KEY, 0.95, 5e-4, 100_000, 100_000, new Random(SEED),
+                new StatCollector(), file, Duration.ZERO));
+        assertTrue(Files.exists(file), "Un point de contrôle refusé n'est pas modifié");
+    }
+
+    /**
+     * Lance la simulation de exp et l'interrompt au quatrième segment, après l'écriture d'un point de contrôle.
+     */
+    private static void interrupt(Experiment exp, double level, double maxHalfWidth, Random rnd, Path file) {
+        // L'interruption vient du collecteur : l'expérience enregistrée dans le point de contrôle reste exp
+        AtomicLong segments = new AtomicLong();
+        StatCollector crashing = new StatCollector() {
+            @Override
+            public void addAll(long count, double average, double sumOfSquaredDev) {
+                if (segments.incrementAndGet() == 4) {
+                    throw new IllegalStateException("Interruption simulée");
+                }
+                super.addAll(count, average, sumOfSquaredDev);
+            }
+        };
+        assertThrows(IllegalStateException.class, () -> MonteCarloSimulation.simulateTillGivenCIHalfWidth(exp, KEY,
+                level, maxHalfWidth, 100_000, 100_000, rnd, crashing, file, Duration.ZERO));
+        assertTrue(Files.exists(file));
+    }
+}
@@ -0,0 +1,44 @@
+package montecarlo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CollisionTimeSweepTest {
+    private static final long SEED = 0x134D6EE;
+
+    @Test
+    void testSameOutcomeAsBirthdayExperimentForEveryK() {
+        int Y = 365;
+        int M = 3;
+        int maxK = 100;
+        FirstCollisionTimeExperiment experiment = new FirstCollisionTimeExperiment(Y, M, maxK);
+
+        // Sur les mêmes nombres aléatoires, T <= K si et seulement si l'expérience à K personnes est un succès
+        for (int run = 0; run < 1000; run++) {
+            double time = experiment.execute(new SplittableRandom(SEED + run));
+            for (int K = 80; K <= maxK; K++) {
+                double success = new BirthdayExperiment(K, Y, M).execute(new SplittableRandom(SEED + run));
+                assertEquals(time <= K ? 1.0 : 0.0, success, "Réalisation " + run + ", K = " + K);
+            }
+        }
+    }
+
+    @Test
+    void testSweep() {
+        CollisionTimeSweep sweep = CollisionTimeSweep.simulate(new FirstCollisionTimeExperiment(365, 2, 60),
+                200_000, new SplittableRandom(SEED));
+
+        assertEquals(200_000, sweep.getNumberOfRuns());
+        assertEquals(0.5072972343, sweep.getEstimate(23), 3 * sweep.getConfidenceIntervalHalfWidth(23, 0.95));
+        assertEquals(23, sweep.findMinimalK(0.5));
+
+        // Nombres aléatoires communs : les estimations sont croissantes en K
+        for (int K = 2; K <= 60; K++) {
+            assertTrue(sweep.getEstimate(K) >= sweep.getEstimate(K - 1));
+        }
+        assertThrows(IllegalArgumentException.class, () -> sweep.getEstimate(61));
+    }
+}
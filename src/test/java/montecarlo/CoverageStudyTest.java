@@ -0,0 +1,34 @@
+package montecarlo;
+
+import org.junit.jupiter.api.Test;
+import statistics.BernoulliCollector;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoverageStudyTest {
+    private static final long SEED = 0x134D6EE;
+    private static final double P23 = 0.5072972343; // Valeur théorique de p23
+
+    @Test
+    void testCoverageIsCloseToLevel() {
+        CoverageStudyResult result = run(4);
+
+        assertEquals(400, result.replications());
+        assertEquals(0.95, result.coverage(), 3 * result.confidenceIntervalHalfWidth(0.95));
+    }
+
+    @Test
+    void testSameResultWhateverTheNumberOfThreads() {
+        assertEquals(run(1), run(3));
+    }
+
+    private static CoverageStudyResult run(int threads) {
+        try (ForkJoinPool pool = new ForkJoinPool(threads)) {
+            return CoverageStudy.run(new BirthdayExperiment(23, 365, 2), P23, 0.95, 10_000, 400,
+                    new SplittableRandom(SEED), BernoulliCollector::new, pool);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package montecarlo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DayCounterTest {
+    private static final long SEED = 0x134D6EE;
+
+    @Test
+    void testTightestRepresentationIsChosen() {
+        assertInstanceOf(DayBitSet.class, DayCounter.create(365, 2));
+        assertInstanceOf(DayBitSet.class, DayCounter.create(365, 1));
+        assertInstanceOf(PackedDayCounter.class, DayCounter.create(365, 3));
+        assertInstanceOf(PackedDayCounter.class, DayCounter.create(365, 15));
+        assertInstanceOf(EpochDayCounter.class, DayCounter.create(365, 16));
+
+        // Les représentations compactes trop grandes à vider à chaque exécution sont écartées
+        assertInstanceOf(DayBitSet.class, DayCounter.create(4096, 2));
+        assertInstanceOf(EpochDayCounter.class, DayCounter.create(4097, 2));
+        assertInstanceOf(PackedDayCounter.class, DayCounter.create(1024, 15));
+        assertInstanceOf(EpochDayCounter.class, DayCounter.create(1025, 15));
+    }
+
+    @Test
+    void testCountsMatchExactCountsUpToCapacity() {
+        int[][] parameters = {{365, 1}, {365, 2}, {365, 3}, {365, 15}, {7, 2}, {7, 3}, {7, 15}, {64, 2}, {65, 3},
+                {1000, 2}, {2048, 3}, {1024, 15}};
+        RandomGenerator random = new SplittableRandom(SEED);
+
+        for (int[] p : parameters) {
+            int Y = p[0];
+            int M = p[1];
+            DayCounter counter = DayCounter.create(Y, M);
+            EpochDayCounter reference = new EpochDayCounter(Y);
+
+            for (int run = 0; run < 200; run++) {
+                counter.reset();
+                reference.reset();
+                for (int i = 0; i < 3 * M + 20; i++) {
+                    int day = random.nextInt(Y);
+                    int expected = reference.increment(day);
+                    int count = counter.increment(day);
+
+                    // Exact jusqu'à M, puis plafonné à une valeur d'au moins M
+                    if (expected <= M) {
+                        assertEquals(expected, count, "Compteur faux pour Y=" + Y + ", M=" + M + ", jour " + day);
+                    } else {
+                        assertTrue(count >= M && count <= expected,
+                                "Compteur plafonné faux pour Y=" + Y + ", M=" + M + " : " + count);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void testNeighbouringCountersAreIndependent() {
+        for (int bits : PackedDayCounter.COUNTER_BITS) {
+            PackedDayCounter counter = new PackedDayCounter(100, bits);
+            int capacity = PackedDayCounter.capacity(bits);
+
+            // Un compteur saturé ne déborde pas sur ses voisins, y compris à la limite d'un mot
+            for (int day : new int[]{0, 15, 16, 31, 32, 63, 64, 99}) {
+                for (int i = 0; i < capacity + 3; i++) {
+                    counter.increment(day);
+                }
+            }
+            for (int day : new int[]{1, 14, 17, 30, 33, 62, 65, 98}) {
+                assertEquals(1, counter.increment(day), "Voisin modifié (" + bits + " bits, jour " + day + ")");
+            }
+            counter.reset();
+            assertEquals(1, counter.increment(0));
+        }
+    }
+
+    @Test
+    void testBirthdayResultsDoNotDependOnRepresentation() {
+        // Avec nextInt, la séquence des jours tirés ne dépend pas des compteurs : les résultats doivent être identiques
+        int[][] parameters = {{23, 365, 2}, {88, 365, 3}, {40, 100, 5}, {200, 365, 15}};
+        for (int[] p : parameters) {
+            BirthdayExperiment experiment = new BirthdayExperiment(p[0], p[1], p[2]);
+            RandomGenerator random = new SplittableRandom(SEED);
+            RandomGenerator reference = new SplittableRandom(SEED);
+            EpochDayCounter counts = new EpochDayCounter(p[1]);
+
+            for (int run = 0; run < 20_000; run++) {
+                counts.reset();
+                double expected = 0.0;
+                for (int i = 0; i < p[0]; i++) {
+                    if (counts.increment(reference.nextInt(p[1])) >= p[2]) {
+                        expected = 1.0;
+                        break;
+                    }
+                }
+                assertEquals(expected, experiment.execute(random), "Résultat différent à la réalisation " + run);
+            }
+        }
+    }
+}
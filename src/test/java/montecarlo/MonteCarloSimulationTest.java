@@ -1,13 +1,19 @@
 package montecarlo;
 
+import com.sun.management.ThreadMXBean;
 import org.junit.jupiter.api.Test;
+import statistics.MultiStatCollector;
 import statistics.StatCollector;
 
+import java.lang.management.ManagementFactory;
 import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 class MonteCarloSimulationTest {
+    private static final long SEED = 0x134D6EE;
+
     @Test
     void testBirthdayParadoxSimulation() {
         // Paramètres pour l'expérience
@@ -60,4 +66,99 @@ class MonteCarloSimulationTest {
         System.out.printf("Demi-largeur de l'intervalle : %.5f%n", halfWidth);
         System.out.printf("Nombre total de simulations : %d%n", totalRuns);
     }
+
+    @Test
+    void testMultiMetricSimulationReachesAllHalfWidths() {
+        BirthdayLoadExperiment experiment = new BirthdayLoadExperiment(23, 365, 2, 3);
+        MultiStatCollector stat = new MultiStatCollector(experiment.getNumberOfMetrics());
+        double[] maxHalfWidths = new double[experiment.getNumberOfMetrics()];
+        maxHalfWidths[BirthdayLoadExperiment.MAX_LOAD] = 0.01;
+        maxHalfWidths[BirthdayLoadExperiment.COLLIDING_DAYS] = Double.POSITIVE_INFINITY;
+        maxHalfWidths[experiment.thresholdMetric(0)] = 0.005;
+        maxHalfWidths[experiment.thresholdMetric(1)] = 0.002;
+
+        MonteCarloSimulation.simulateTillGivenCIHalfWidth(experiment, 0.95, maxHalfWidths, 1000, 1000,
+                new Random(SEED), stat);
+
+        for (int metric = 0; metric < maxHalfWidths.length; metric++) {
+            assertTrue(stat.getConfidenceIntervalHalfWidth(metric, 0.95) <= maxHalfWidths[metric],
+                    "La demi-largeur de la métrique " + metric + " ne respecte pas la contrainte.");
+        }
+
+        // Probabilités connues pour K=23 : 0.5073 pour M=2 et 0.0144 pour M=3
+        assertEquals(0.5073, stat.getAverage(experiment.thresholdMetric(0)), 0.01);
+        assertEquals(0.0144, stat.getAverage(experiment.thresholdMetric(1)), 0.004);
+
+        // Espérance du nombre de jours partagés : Y (1 - P(0 ou 1 personne ce jour-là))
+        double empty = Math.pow(364.0 / 365.0, 23);
+        double single = 23 / 365.0 * Math.pow(364.0 / 365.0, 22);
+        assertEquals(365 * (1 - empty - single), stat.getAverage(BirthdayLoadExperiment.COLLIDING_DAYS), 0.01);
+    }
+
+    @Test
+    void testMultiMetricSimulationStopsOnChosenMetric() {
+        BirthdayLoadExperiment experiment = new BirthdayLoadExperiment(23, 365, 2, 3);
+        MultiStatCollector stat = new MultiStatCollector(experiment.getNumberOfMetrics());
+        int metric = experiment.thresholdMetric(0);
+
+        MonteCarloSimulation.simulateTillGivenCIHalfWidth(experiment, metric, 0.95, 0.005, 1000, 1000,
+                new Random(SEED), stat);
+
+        assertTrue(stat.getConfidenceIntervalHalfWidth(metric, 0.95) <= 0.005);
+        assertTrue(stat.getNumberOfObs() > 1000, "Le simulateur semble ne pas ajouter de simulations additionnelles.");
+
+        // Même arrêt qu'une simulation à une seule métrique sur les mêmes tirages
+        BirthdayLoadExperiment single = new BirthdayLoadExperiment(23, 365, 2);
+        StatCollector reference = new StatCollector();
+        MonteCarloSimulation.simulateTillGivenCIHalfWidth(new Experiment() {
+            private final double[] metrics = new double[single.getNumberOfMetrics()];
+
+            @Override
+            public double execute(java.util.random.RandomGenerator rnd) {
+                single.execute(rnd, metrics);
+                return metrics[single.thresholdMetric(0)];
+            }
+        }, 0.95, 0.005, 1000, 1000, new Random(SEED), reference);
+        assertEquals(reference.getNumberOfObs(), stat.getNumberOfObs());
+        assertEquals(reference.getAverage(), stat.getAverage(metric));
+    }
+
+    @Test
+    void testRejectsNonPositiveNumbersOfRuns() {
+        // Sans réalisations additionnelles, une précision non atteinte ferait boucler la simulation indéfiniment
+        BirthdayExperiment experiment = new BirthdayExperiment(23, 365, 2);
+        assertThrows(IllegalArgumentException.class, () -> MonteCarloSimulation.simulateTillGivenCIHalfWidth(
+                experiment, 0.95, 1e-3, 1000, 0, new Random(SEED), new StatCollector()));
+        assertThrows(IllegalArgumentException.class, () -> MonteCarloSimulation.simulateTillGivenCIHalfWidth(
+                experiment, 0.95, 1e-3, 0, 1000, new Random(SEED), new StatCollector()));
+
+        BirthdayLoadExperiment load = new BirthdayLoadExperiment(23, 365, 2);
+        double[] maxHalfWidths = {0.01, 0.01, 1e-3};
+        assertThrows(IllegalArgumentException.class, () -> MonteCarloSimulation.simulateTillGivenCIHalfWidth(load,
+                0.95, maxHalfWidths, 1000, 0, new Random(SEED), new MultiStatCollector(3)));
+    }
+
+    @Test
+    void testMultiMetricBatchDoesNotAllocatePerRun() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof ThreadMXBean t && t.isThreadAllocatedMemoryEnabled(),
+                "La mesure des allocations par thread n'est pas disponible.");
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+
+        BirthdayLoadExperiment experiment = new BirthdayLoadExperiment(23, 365, 2, 3, 4);
+        MultiStatCollector stat = new MultiStatCollector(experiment.getNumberOfMetrics());
+        Random random = new Random(SEED);
+        int runs = 1_000_000;
+
+        // Préchauffage : création des compteurs du thread et compilation de la boucle
+        MonteCarloSimulation.simulateNRuns(experiment, runs, random, stat);
+
+        long before = threads.getThreadAllocatedBytes(threadId);
+        MonteCarloSimulation.simulateNRuns(experiment, runs, random, stat);
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        // Un tableau de métriques par réalisation représenterait au moins 56 octets par réalisation
+        assertTrue(allocated < runs / 100, "La boucle chaude alloue de la mémoire : " + allocated + " octets.");
+        assertEquals(2 * runs, stat.getNumberOfObs());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,57 @@
+package montecarlo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PackedUniformSamplerTest {
+    private static final long SEED = 0x134D6EE;
+
+    @Test
+    void testDrawsStayWithinBound() {
+        RandomGenerator random = new SplittableRandom(SEED);
+        for (int bound : new int[]{1, 2, 7, 365, 512, 513, 16_384, 16_385, 1 << 25, (1 << 25) + 1, Integer.MAX_VALUE}) {
+            PackedUniformSampler sampler = new PackedUniformSampler(bound);
+            for (int i = 0; i < 10_000; i++) {
+                int value = sampler.next(random);
+                assertTrue(value >= 0 && value < bound, "Tirage " + value + " hors de [0, " + bound + ").");
+            }
+        }
+    }
+
+    @Test
+    void testDaysAreUniform() {
+        int days = 365;
+        int draws = 3_650_000;
+        PackedUniformSampler sampler = new PackedUniformSampler(days);
+        RandomGenerator random = new SplittableRandom(SEED);
+
+        long[] counts = new long[days];
+        for (int i = 0; i < draws; i++) {
+            counts[sampler.next(random)]++;
+        }
+
+        // Test du khi-carré à 364 degrés de liberté : le quantile 0.999 vaut environ 459
+        double expected = (double) draws / days;
+        double chiSquare = 0;
+        for (long count : counts) {
+            chiSquare += (count - expected) * (count - expected) / expected;
+        }
+        assertTrue(chiSquare < 459, "Les jours tirés ne sont pas uniformes (khi-carré = " + chiSquare + ").");
+    }
+
+    @Test
+    void testPackedExperimentIsReproducible() {
+        BirthdayExperiment experiment = new BirthdayExperiment(23, 365, 2, true);
+        RandomGenerator random = new SplittableRandom(SEED);
+        RandomGenerator again = new SplittableRandom(SEED);
+
+        // Les tirages restants ne passent pas d'une exécution à l'autre, même sur le même thread
+        for (int run = 0; run < 10_000; run++) {
+            assertEquals(experiment.execute(random), experiment.execute(again));
+        }
+    }
+}
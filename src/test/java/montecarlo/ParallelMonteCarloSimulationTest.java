@@ -0,0 +1,58 @@
+package montecarlo;
+
+import org.junit.jupiter.api.Test;
+import statistics.StatCollector;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelMonteCarloSimulationTest {
+    private static final long SEED = 0x134D6EE;
+
+    @Test
+    void testSameResultWhateverTheNumberOfThreads() {
+        BirthdayExperiment experiment = new BirthdayExperiment(23, 365, 2);
+        long runs = 10 * ParallelMonteCarloSimulation.RUNS_PER_CHUNK + 123; // Dernier morceau incomplet
+
+        StatCollector reference = simulate(experiment, runs, 1);
+        for (int threads : new int[]{2, 3, 8}) {
+            StatCollector stat = simulate(experiment, runs, threads);
+
+            // Les résultats doivent être identiques au bit près
+            assertEquals(reference.getNumberOfObs(), stat.getNumberOfObs());
+            assertEquals(reference.getAverage(), stat.getAverage());
+            assertEquals(reference.getVariance(), stat.getVariance());
+        }
+
+        assertEquals(runs, reference.getNumberOfObs());
+        assertTrue(reference.getAverage() > 0.49 && reference.getAverage() < 0.52,
+                "La probabilité estimée est hors de l'intervalle attendu pour K=23.");
+    }
+
+    @Test
+    void testTillGivenCIHalfWidth() {
+        double level = 0.95;
+        double maxHalfWidth = 0.001;
+        StatCollector stat = new StatCollector();
+
+        try (ForkJoinPool pool = new ForkJoinPool(4)) {
+            ParallelMonteCarloSimulation.simulateTillGivenCIHalfWidth(new BirthdayExperiment(23, 365, 2),
+                    level, maxHalfWidth, 1000, 100, new SplittableRandom(SEED), stat, pool);
+        }
+
+        assertTrue(stat.getConfidenceIntervalHalfWidth(level) <= maxHalfWidth,
+                "La demi-largeur de l'intervalle de confiance ne respecte pas la contrainte.");
+        assertTrue(stat.getNumberOfObs() > 1000,
+                "Le simulateur semble ne pas ajouter de simulations additionnelles.");
+    }
+
+    private static StatCollector simulate(Experiment experiment, long runs, int threads) {
+        StatCollector stat = new StatCollector();
+        try (ForkJoinPool pool = new ForkJoinPool(threads)) {
+            ParallelMonteCarloSimulation.simulateNRuns(experiment, runs, new SplittableRandom(SEED), stat, pool);
+        }
+        return stat;
+    }
+}
@@ -0,0 +1,35 @@
+package montecarlo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.random.RandomGenerator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RandomStreamsTest {
+    private static final long SEED = 0x134D6EE;
+
+    @Test
+    void testStreamsAreReproducibleAndDistinct() {
+        for (String algorithm : new String[]{"L64X128MixRandom", "Xoroshiro128PlusPlus", "SplittableRandom"}) {
+            RandomGenerator[] streams = RandomStreams.independentStreams(algorithm, SEED, 4);
+            RandomGenerator[] again = RandomStreams.independentStreams(algorithm, SEED, 4);
+
+            long[] first = new long[streams.length];
+            for (int i = 0; i < streams.length; i++) {
+                first[i] = streams[i].nextLong();
+                assertEquals(first[i], again[i].nextLong(), algorithm + " : flux " + i + " non reproductible.");
+                for (int j = 0; j < i; j++) {
+                    assertNotEquals(first[j], first[i], algorithm + " : flux " + j + " et " + i + " identiques.");
+                }
+            }
+        }
+    }
+
+    @Test
+    void testRejectsAlgorithmsWithoutIndependentStreams() {
+        assertThrows(IllegalArgumentException.class, () -> RandomStreams.independentStreams("Random", SEED, 2));
+        assertThrows(IllegalArgumentException.class, () -> RandomStreams.createSplittable("Xoroshiro128PlusPlus", SEED));
+        assertThrows(IllegalArgumentException.class, () -> RandomStreams.create("NoSuchAlgorithm", SEED));
+    }
+}
@@ -0,0 +1,106 @@
+package montecarlo;
+
+import org.junit.jupiter.api.Test;
+import statistics.BernoulliCollector;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SequentialStoppingRuleTest {
+    private static final long SEED = 0x134D6EE;
+
+    @Test
+    void testReachesTargetWithBoundedOvershoot() {
+        double level = 0.95;
+        double maxHalfWidth = 5e-4;
+        double overshootBound = 0.01;
+        SequentialStoppingRule rule = new SequentialStoppingRule(level, maxHalfWidth, 2.0, overshootBound);
+        BernoulliCollector stat = new BernoulliCollector();
+
+        SequentialSimulationReport report = rule.simulate(new BirthdayExperiment(23, 365, 2), 1000,
+                new SplittableRandom(SEED), stat);
+
+        // Vérifications des résultats
+        assertTrue(report.halfWidth() <= maxHalfWidth);
+        assertEquals(stat.getNumberOfObs(), report.runs());
+        assertEquals(stat.getConfidenceIntervalHalfWidth(level), report.halfWidth(), 1e-9);
+
+        // Le dépassement est borné par la taille minimale d'un lot
+        assertTrue(report.wastedRuns() <= overshootBound * report.runs(),
+                "Trop de réalisations au-delà de la cible : " + report);
+
+        // Croissance au plus géométrique : 1000 * 2^10 dépasse les ~4 millions de réalisations nécessaires
+        assertTrue(report.batches() <= 20, "Trop de lots : " + report);
+    }
+
+    @Test
+    void testRejectsInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new SequentialStoppingRule(1.5, 1e-3));
+        assertThrows(IllegalArgumentException.class, () -> new SequentialStoppingRule(0.95, 0.0));
+        assertThrows(IllegalArgumentException.class, () -> new SequentialStoppingRule(0.95, 1e-3, 1.0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new SequentialStoppingRule(0.95, 1e-3).simulate(
+                new BirthdayExperiment(23, 365, 2), 1, new SplittableRandom(SEED), new BernoulliCollector()));
+    }
+
+    @Test
+    void testStopsAtMaximalNumberOfRuns() {
+        SequentialStoppingRule rule = new SequentialStoppingRule(0.95, 1e-5);
+        BernoulliCollector stat = new BernoulliCollector();
+
+        BudgetedSimulationReport report = rule.simulate(new BirthdayExperiment(23, 365, 2), 1000,
+                new SplittableRandom(SEED), stat, Duration.ofMinutes(10), 1_000_000);
+
+        assertEquals(BudgetedSimulationReport.StopCondition.MAX_RUNS, report.stoppedBy());
+        assertEquals(1_000_000, report.runs());
+        assertEquals(report.runs(), stat.getNumberOfObs());
+        assertTrue(report.halfWidth() > 1e-5);
+        assertTrue(report.runsPerSecond() > 0.0);
+    }
+
+    @Test
+    void testStopsAtDeadline() {
+        // Horloge simulée : chaque réalisation coûte 1024 ns, ce qui rend le débit et les lots exacts
+        long nanosPerRun = 1024;
+        AtomicLong clock = new AtomicLong();
+        SequentialStoppingRule rule = new SequentialStoppingRule(0.95, 1e-6, 2.0, 0.001, clock::get);
+        BernoulliCollector stat = new BernoulliCollector();
+        List<Long> batches = new ArrayList<>();
+        LongConsumer simulator = n -> {
+            batches.add(n);
+            stat.addBernoulli(n, n / 2);
+            clock.addAndGet(n * nanosPerRun);
+        };
+        Duration budget = Duration.ofNanos(10_000 * nanosPerRun);
+
+        BudgetedSimulationReport report = rule.simulate(simulator, 1000, stat, budget, Long.MAX_VALUE);
+
+        // Croissance géométrique, puis dernier lot raccourci au temps restant : 8000 + 2000 = 10 000 réalisations
+        assertEquals(List.of(1000L, 1000L, 2000L, 4000L, 2000L), batches);
+        assertEquals(BudgetedSimulationReport.StopCondition.DEADLINE, report.stoppedBy());
+        assertFalse(report.targetReached());
+        assertEquals(10_000, report.runs());
+        assertEquals(5, report.batches());
+        assertEquals(budget, report.elapsed());
+        assertEquals(1e9 / nanosPerRun, report.runsPerSecond());
+    }
+
+    @Test
+    void testBudgetDoesNotChangeUnconstrainedSimulation() {
+        SequentialStoppingRule rule = new SequentialStoppingRule(0.95, 1e-3);
+
+        SequentialSimulationReport unbounded = rule.simulate(new BirthdayExperiment(23, 365, 2), 1000,
+                new SplittableRandom(SEED), new BernoulliCollector());
+        BudgetedSimulationReport budgeted = rule.simulate(new BirthdayExperiment(23, 365, 2), 1000,
+                new SplittableRandom(SEED), new BernoulliCollector(), Duration.ofMinutes(10), Long.MAX_VALUE);
+
+        assertTrue(budgeted.targetReached());
+        assertEquals(unbounded.runs(), budgeted.runs());
+        assertEquals(unbounded.halfWidth(), budgeted.halfWidth());
+    }
+}
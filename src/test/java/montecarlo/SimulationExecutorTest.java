@@ -0,0 +1,76 @@
+package montecarlo;
+
+import org.junit.jupiter.api.Test;
+import statistics.BernoulliCollector;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimulationExecutorTest {
+    private static final long SEED = 0x134D6EE;
+
+    @Test
+    void testJobsGiveSameResultsAsSynchronousSimulations() {
+        SequentialStoppingRule rule = new SequentialStoppingRule(0.95, 2e-3);
+        List<CompletableFuture<SequentialSimulationReport>> futures = new ArrayList<>();
+        List<BernoulliCollector> stats = new ArrayList<>();
+
+        try (SimulationExecutor executor = new SimulationExecutor(2)) {
+            for (int k = 20; k < 30; k++) {
+                BernoulliCollector stat = new BernoulliCollector();
+                stats.add(stat);
+                futures.add(executor.submit(new BirthdayExperiment(k, 365, 2), rule, 1000,
+                        new SplittableRandom(SEED), stat));
+            }
+
+            for (int i = 0; i < futures.size(); i++) {
+                BernoulliCollector expected = new BernoulliCollector();
+                SequentialSimulationReport report = rule.simulate(new BirthdayExperiment(20 + i, 365, 2), 1000,
+                        new SplittableRandom(SEED), expected);
+
+                assertEquals(report, futures.get(i).join());
+                assertEquals(expected.getNumberOfSuccesses(), stats.get(i).getNumberOfSuccesses());
+            }
+        }
+    }
+
+    @Test
+    void testTimedOutJobStopsAtBatchBoundary() throws InterruptedException {
+        // Demi-largeur inatteignable en pratique : le travail ne s'arrête que sur l'échéance
+        SequentialStoppingRule rule = new SequentialStoppingRule(0.95, 1e-7);
+        BernoulliCollector stat = new BernoulliCollector();
+        CompletableFuture<SequentialSimulationReport> future;
+
+        try (SimulationExecutor executor = new SimulationExecutor(1)) {
+            future = executor.submit(new BirthdayExperiment(23, 365, 2), rule, 1000, new SplittableRandom(SEED),
+                    stat, Duration.ofMillis(100));
+
+            ExecutionException e = assertThrows(ExecutionException.class, future::get);
+            assertInstanceOf(TimeoutException.class, e.getCause());
+        }
+
+        // La fermeture attend la fin du travail, qui ne simule donc plus
+        long runs = stat.getNumberOfObs();
+        assertTrue(runs > 0);
+        Thread.sleep(100);
+        assertEquals(runs, stat.getNumberOfObs());
+    }
+
+    @Test
+    void testCancelledJobStops() {
+        SequentialStoppingRule rule = new SequentialStoppingRule(0.95, 1e-7);
+        try (SimulationExecutor executor = new SimulationExecutor(1)) {
+            CompletableFuture<SequentialSimulationReport> future = executor.submit(new BirthdayExperiment(23, 365, 2),
+                    rule, 1000, new SplittableRandom(SEED), new BernoulliCollector());
+            assertTrue(future.cancel(true));
+            assertTrue(future.isCancelled());
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package montecarlo;
+
+import org.junit.jupiter.api.Test;
+import statistics.BernoulliCollector;
+
+import javax.management.MBeanServer;
+import java.lang.management.ManagementFactory;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimulationMonitorTest {
+    private static final long SEED = 0x134D6EE;
+
+    @Test
+    void testPublishesProgressThroughJmx() throws Exception {
+        SequentialStoppingRule rule = new SequentialStoppingRule(0.95, 1e-3);
+        BernoulliCollector stat = new BernoulliCollector();
+        Experiment exp = new BirthdayExperiment(23, 365, 2);
+        SplittableRandom rnd = new SplittableRandom(SEED);
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+        try (SimulationMonitor monitor = new SimulationMonitor("test", rule).register()) {
+            SequentialSimulationReport report = rule.simulate(
+                    monitor.instrument(n -> MonteCarloSimulation.simulateNRuns(exp, n, rnd, stat), stat), 1000, stat);
+
+            // Les métriques publiées décrivent l'état à la fin du dernier lot
+            assertEquals(report.runs(), server.getAttribute(monitor.getObjectName(), "RunsCompleted"));
+            assertEquals((long) report.batches(), server.getAttribute(monitor.getObjectName(), "BatchesCompleted"));
+            assertEquals(stat.getAverage(), (double) server.getAttribute(monitor.getObjectName(), "CurrentEstimate"));
+            assertEquals(report.halfWidth(), monitor.getCurrentHalfWidth(), 1e-12);
+            assertEquals(report.runs(), monitor.getProjectedRuns(), "La cible est atteinte");
+            assertEquals(0.0, monitor.getProjectedSecondsToTarget());
+            assertTrue(monitor.getRunsPerSecond() > 0.0);
+        }
+
+        // Le moniteur est désinscrit à la fermeture
+        assertTrue(server.queryNames(new SimulationMonitor("test", rule).getObjectName(), null).isEmpty());
+    }
+
+    @Test
+    void testProjectsRemainingRuns() {
+        SimulationMonitor monitor = new SimulationMonitor("projection", 0.95, 1e-3);
+        BernoulliCollector stat = new BernoulliCollector();
+        monitor.instrument(n -> stat.addBernoulli(n, n / 2), stat).accept(10_000);
+
+        // La demi-largeur décroît en 1/√n : il faut (demi-largeur / cible)² fois plus de réalisations
+        double ratio = stat.getConfidenceIntervalHalfWidth(0.95) / 1e-3;
+        assertEquals(Math.ceil(10_000 * ratio * ratio), monitor.getProjectedRuns(), 1.0);
+        assertEquals(1L, monitor.getBatchesCompleted());
+    }
+
+    @Test
+    void testThroughputIgnoresObservationsCollectedBeforeMonitoring() {
+        SimulationMonitor monitor = new SimulationMonitor("reprise", 0.95, 1e-4);
+        BernoulliCollector stat = new BernoulliCollector();
+
+        // Collecteur repris d'un point de contrôle : un million de réalisations avant le premier lot suivi
+        stat.addBernoulli(1_000_000, 500_000);
+        monitor.instrument(n -> stat.addBernoulli(n, n / 2), stat).accept(10_000);
+
+        // Un seul lot suivi : le débit global est celui de ce lot, pas 1 010 000 réalisations sur sa durée
+        assertEquals(1_010_000, monitor.getRunsCompleted());
+        assertEquals(monitor.getLastBatchRunsPerSecond(), monitor.getRunsPerSecond());
+        assertEquals((monitor.getProjectedRuns() - 1_010_000) / monitor.getLastBatchRunsPerSecond(),
+                monitor.getProjectedSecondsToTarget());
+    }
+}
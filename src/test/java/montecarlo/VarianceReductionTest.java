@@ -0,0 +1,51 @@
+package montecarlo;
+
+import org.junit.jupiter.api.Test;
+import statistics.ControlVariateCollector;
+import statistics.StatCollector;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VarianceReductionTest {
+    private static final long SEED = 0x134D6EE;
+    private static final double P23 = 0.5072972343; // Valeur théorique de p23
+
+    @Test
+    void testControlVariate() {
+        double level = 0.95;
+        double maxHalfWidth = 0.002;
+        BirthdayExperiment experiment = new BirthdayExperiment(23, 365, 2);
+        ControlVariateCollector stat = new ControlVariateCollector(experiment.getControlExpectation());
+
+        VarianceReductionReport report = MonteCarloSimulation.simulateTillGivenCIHalfWidthWithControlVariate(
+                experiment, level, maxHalfWidth, 10_000, 1000, new SplittableRandom(SEED), stat);
+
+        double halfWidth = stat.getConfidenceIntervalHalfWidth(level);
+        assertTrue(halfWidth <= maxHalfWidth);
+        assertEquals(P23, stat.getAverage(), 2 * halfWidth);
+
+        // Le nombre de paires explique environ 70 % de la variance pour K = 23
+        assertTrue(report.varianceReductionFactor() > 2, "Réduction de variance insuffisante : " + report);
+        assertTrue(report.savedRuns() > 0);
+        assertEquals(stat.getNumberOfObs(), report.runs());
+    }
+
+    @Test
+    void testAntitheticOnMonotoneExperiment() {
+        // E[U^2] = 1/3 : fonction monotone de U, pour laquelle les variables antithétiques sont efficaces
+        Experiment square = rnd -> {
+            double u = rnd.nextDouble();
+            return u * u;
+        };
+        StatCollector stat = new StatCollector();
+
+        VarianceReductionReport report = MonteCarloSimulation.simulateTillGivenCIHalfWidthAntithetic(
+                square, 0.95, 0.001, 10_000, 1000, new SplittableRandom(SEED), stat);
+
+        assertEquals(1.0 / 3.0, stat.getAverage(), 0.002);
+        assertEquals(2 * stat.getNumberOfObs(), report.runs());
+        assertTrue(report.varianceReductionFactor() > 5, "Réduction de variance insuffisante : " + report);
+    }
+}
@@ -0,0 +1,100 @@
+package montecarlo;
+
+import org.junit.jupiter.api.Test;
+import statistics.BernoulliCollector;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class VectorBirthdayExperimentTest {
+    private static final long SEED = 0x134D6EE;
+
+    // P(au moins deux anniversaires communs parmi 23 personnes), et la même probabilité pour 5 personnes et 7 jours
+    private static final double P_23_365 = 0.5072972343239857;
+    private static final double P_5_7 = 1.0 - 7.0 * 6 * 5 * 4 * 3 / (7 * 7 * 7 * 7 * 7);
+
+    @Test
+    void testVectorizedWhenModuleIsPresent() {
+        // Surefire lance les tests avec --add-modules jdk.incubator.vector
+        assumeTrue(VectorBirthdayExperiment.isVectorKernelAvailable(), "Le module jdk.incubator.vector est absent.");
+
+        assertTrue(new VectorBirthdayExperiment(23, 365, 2).isVectorized());
+        assertFalse(new VectorBirthdayExperiment(23, 513, 2).isVectorized(), "Y > 512 doit rester scalaire.");
+        assertFalse(new VectorBirthdayExperiment(300, 365, 256).isVectorized(), "M > 255 doit rester scalaire.");
+    }
+
+    @Test
+    void testStatisticallyEquivalentToExactProbability() {
+        int[][] parameters = {{23, 365, 2}, {5, 7, 2}};
+        double[] expected = {P_23_365, P_5_7};
+
+        for (int i = 0; i < parameters.length; i++) {
+            int[] p = parameters[i];
+            VectorBirthdayExperiment experiment = new VectorBirthdayExperiment(p[0], p[1], p[2]);
+            BernoulliCollector stat = new BernoulliCollector();
+            experiment.executeBatch(new SplittableRandom(SEED), 2_000_000, stat);
+
+            // Intervalle à 99.9 % : l'échec par hasard est très improbable
+            assertEquals(expected[i], stat.getAverage(), stat.getConfidenceIntervalHalfWidth(0.999),
+                    "Probabilité estimée incompatible pour K=" + p[0] + ", Y=" + p[1] + ", M=" + p[2]);
+        }
+    }
+
+    @Test
+    void testSameDistributionAsScalarLoop() {
+        int[][] parameters = {{88, 365, 3}, {40, 365, 2}, {10, 20, 4}, {5, 365, 1}};
+
+        for (int[] p : parameters) {
+            BernoulliCollector vector = new BernoulliCollector();
+            new VectorBirthdayExperiment(p[0], p[1], p[2]).executeBatch(new SplittableRandom(SEED), 1_000_000, vector);
+            BernoulliCollector scalar = new BernoulliCollector();
+            new BirthdayExperiment(p[0], p[1], p[2], true).executeBatch(new SplittableRandom(SEED), 1_000_000, scalar);
+
+            // Les deux estimations sont indépendantes : l'écart est comparé à la demi-largeur de leur différence
+            double halfWidth = Math.hypot(vector.getConfidenceIntervalHalfWidth(0.999),
+                    scalar.getConfidenceIntervalHalfWidth(0.999));
+            assertEquals(scalar.getAverage(), vector.getAverage(), halfWidth,
+                    "Lois différentes pour K=" + p[0] + ", Y=" + p[1] + ", M=" + p[2]);
+        }
+    }
+
+    @Test
+    void testBatchesOfAnySize() {
+        VectorBirthdayExperiment experiment = new VectorBirthdayExperiment(23, 365, 2);
+        SplittableRandom random = new SplittableRandom(SEED);
+        BernoulliCollector stat = new BernoulliCollector();
+
+        // Lots plus petits que le nombre de voies, qui n'en sont pas des multiples, ou vides
+        long runs = 0;
+        for (int n : new int[]{0, 1, 3, 7, 8, 9, 17, 1000, 4099}) {
+            for (int repeat = 0; repeat < 200; repeat++) {
+                experiment.executeBatch(random, n, stat);
+                runs += n;
+            }
+        }
+
+        assertEquals(runs, stat.getNumberOfObs());
+        assertEquals(P_23_365, stat.getAverage(), stat.getConfidenceIntervalHalfWidth(0.999));
+    }
+
+    @Test
+    void testCertainOutcomes() {
+        BernoulliCollector always = new BernoulliCollector();
+        new VectorBirthdayExperiment(2, 365, 1).executeBatch(new SplittableRandom(SEED), 1001, always);
+        assertEquals(1.0, always.getAverage(), "Avec M = 1, chaque réalisation est un succès.");
+
+        BernoulliCollector never = new BernoulliCollector();
+        new VectorBirthdayExperiment(3, 365, 4).executeBatch(new SplittableRandom(SEED), 1001, never);
+        assertEquals(0.0, never.getAverage(), "Avec M > K, aucune réalisation n'est un succès.");
+
+        BernoulliCollector pigeonhole = new BernoulliCollector();
+        new VectorBirthdayExperiment(8, 7, 2).executeBatch(new SplittableRandom(SEED), 1001, pigeonhole);
+        assertEquals(1.0, pigeonhole.getAverage(), "Avec K > Y, deux personnes partagent forcément un jour.");
+
+        BernoulliCollector nobody = new BernoulliCollector();
+        new VectorBirthdayExperiment(0, 365, 1).executeBatch(new SplittableRandom(SEED), 1001, nobody);
+        assertEquals(0.0, nobody.getAverage(), "Sans personne, aucune réalisation n'est un succès, même avec M = 1.");
+    }
+}
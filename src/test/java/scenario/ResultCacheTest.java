@@ -0,0 +1,110 @@
+package scenario;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResultCacheTest {
+    private static final long SEED = 0x134D6EE;
+
+    @Test
+    void testSecondRunIsAnsweredFromCache(@TempDir Path dir) throws IOException {
+        String configuration = """
+                scenarios = p23, minimalK
+                cache.directory = %s
+
+                p23.type = estimation
+                p23.K = 23
+                p23.maxHalfWidth = 4e-3, 2e-3
+                p23.initialRuns = 10_000
+                p23.additionalRuns = 1_000
+                p23.rng = Random
+                p23.seed = 0x134D6EE
+
+                minimalK.type = minimal-group-size
+                minimalK.M = 3
+                minimalK.minK = 80
+                minimalK.maxK = 100
+                minimalK.sampleSize = 100_000
+                minimalK.rng = Random
+                minimalK.seed = 0x134D6EE
+                """.formatted(dir.toString().replace("\\", "/"));
+
+        List<ScenarioResult> first = ScenarioRunner.load(new StringReader(configuration))
+                .run(ForkJoinPool.commonPool());
+        List<ScenarioResult> second = ScenarioRunner.load(new StringReader(configuration))
+                .run(ForkJoinPool.commonPool());
+
+        // Les durées mesurées ne sont identiques que si les résultats sont relus
+        assertEquals(first, second);
+        try (var entries = Files.list(dir)) {
+            assertEquals(2, entries.count());
+        }
+    }
+
+    @Test
+    void testKeyDependsOnParametersAndCodeVersion(@TempDir Path dir) {
+        EstimationScenario scenario = estimation("p23", SEED);
+        ResultCache cache = new ResultCache(dir, Long.MAX_VALUE, "v1");
+        cache.put(scenario, result("p23"));
+
+        assertEquals(result("p23"), cache.get(estimation("p23", SEED)).orElseThrow());
+        assertTrue(cache.get(estimation("p23", SEED + 1)).isEmpty(), "Une autre graine est une autre simulation");
+        assertTrue(new ResultCache(dir, Long.MAX_VALUE, "v2").get(scenario).isEmpty(),
+                "Une autre version du code ne doit pas relire les anciens résultats");
+        assertNotEquals(cache.key(scenario), cache.key(estimation("p23", SEED + 1)));
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsedEntries(@TempDir Path dir) throws IOException {
+        ResultCache unbounded = new ResultCache(dir, Long.MAX_VALUE, "v1");
+        EstimationScenario a = estimation("a", 1);
+        unbounded.put(a, result("a"));
+        long entryBytes = Files.size(dir.resolve(unbounded.key(a) + ".result"));
+
+        // Place pour deux entrées : b, la moins récemment utilisée, est évincée
+        ResultCache cache = new ResultCache(dir, 2 * entryBytes, "v1");
+        EstimationScenario b = estimation("b", 2);
+        EstimationScenario c = estimation("c", 3);
+        cache.put(b, result("b"));
+        assertTrue(cache.get(a).isPresent());
+        cache.put(c, result("c"));
+
+        assertTrue(cache.get(a).isPresent());
+        assertTrue(cache.get(b).isEmpty());
+        assertTrue(cache.get(c).isPresent());
+    }
+
+    @Test
+    void testCorruptedEntryIsDiscarded(@TempDir Path dir) throws IOException {
+        ResultCache cache = new ResultCache(dir, Long.MAX_VALUE, "v1");
+        EstimationScenario scenario = estimation("p23", SEED);
+        cache.put(scenario, result("p23"));
+
+        Path file = dir.resolve(cache.key(scenario) + ".result");
+        byte[] content = Files.readAllBytes(file);
+        content[content.length / 2] ^= 1;
+        Files.write(file, content);
+
+        assertTrue(cache.get(scenario).isEmpty());
+        assertFalse(Files.exists(file));
+    }
+
+    private static EstimationScenario estimation(String name, long seed) {
+        return new EstimationScenario(name, 23, 365, 2, 0.95, List.of(1e-3), 10_000, 1_000, "Random", seed);
+    }
+
+    private static ScenarioResult result(String name) {
+        return new ScenarioResult(name, "estimation", List.of("estimate", "runs", "K", "minimal", "note"),
+                List.of(List.of(0.5073, 123_456L, 23, true, "é")), Duration.ofMillis(1234));
+    }
+}
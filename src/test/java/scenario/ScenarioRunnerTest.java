@@ -0,0 +1,147 @@
+package scenario;
+
+import montecarlo.BirthdayExperiment;
+import montecarlo.CollisionTimeSweep;
+import montecarlo.FirstCollisionTimeExperiment;
+import montecarlo.MonteCarloSimulation;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import statistics.StatCollector;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScenarioRunnerTest {
+    private static final long SEED = 0x134D6EE;
+
+    private static final String CONFIGURATION = """
+            scenarios = p23, coverage, minimalK
+            output.formats = csv, json
+
+            p23.type = estimation
+            p23.K = 23
+            p23.maxHalfWidth = 4e-3, 2e-3
+            p23.initialRuns = 10_000
+            p23.additionalRuns = 1_000
+            p23.rng = Random
+            p23.seed = 0x134D6EE
+
+            coverage.type = coverage
+            coverage.K = 23
+            coverage.trueValue = 0.5072972343
+            coverage.sampleSize = 1_000
+            coverage.replications = 50
+            coverage.mode = sequential
+            coverage.rng = Random
+            coverage.seed = 0x134D6EE
+
+            minimalK.type = minimal-group-size
+            minimalK.M = 3
+            minimalK.minK = 80
+            minimalK.maxK = 100
+            minimalK.sampleSize = 100_000
+            minimalK.mode = independent
+            minimalK.rng = Random
+            minimalK.seed = 0x134D6EE
+            """;
+
+    @Test
+    void testReproducesBaselineSimulations() throws IOException {
+        ScenarioRunner runner = ScenarioRunner.load(new StringReader(CONFIGURATION));
+        List<ScenarioResult> results = runner.run(ForkJoinPool.commonPool());
+        assertEquals(List.of("p23", "coverage", "minimalK"), results.stream().map(ScenarioResult::name).toList());
+
+        // Simulation 1 : mêmes estimations que les appels successifs avec la même source
+        Random random = new Random(SEED);
+        BirthdayExperiment experiment = new BirthdayExperiment(23, 365, 2);
+        double deltaMax = 4e-3;
+        for (List<Object> row : results.get(0).rows()) {
+            StatCollector stat = new StatCollector();
+            MonteCarloSimulation.simulateTillGivenCIHalfWidth(experiment, 0.95, deltaMax, 10_000, 1_000, random, stat);
+            assertEquals(stat.getAverage(), row.get(1));
+            assertEquals(stat.getNumberOfObs(), row.get(5));
+            deltaMax /= 2;
+        }
+
+        // Simulation 2 : mêmes intervalles que les répétitions successives sur un même générateur
+        random = new Random(SEED);
+        int intervalsContainingP = 0;
+        for (int i = 0; i < 50; i++) {
+            StatCollector stat = new StatCollector();
+            MonteCarloSimulation.simulateNRuns(experiment, 1_000, random, stat);
+            double halfWidth = stat.getConfidenceIntervalHalfWidth(0.95);
+            if (Math.abs(stat.getAverage() - 0.5072972343) <= halfWidth) {
+                intervalsContainingP++;
+            }
+        }
+        assertEquals(intervalsContainingP / 50.0, results.get(1).rows().get(0).get(2));
+
+        // Simulation 3 : mêmes estimations que des simulations successives, une par taille de groupe
+        random = new Random(SEED);
+        List<List<Object>> rows = results.get(2).rows();
+        for (int i = 0; i < rows.size(); i++) {
+            StatCollector stat = new StatCollector();
+            MonteCarloSimulation.simulateNRuns(new BirthdayExperiment(80 + i, 365, 3), 100_000, random, stat);
+            assertEquals(80 + i, rows.get(i).get(0));
+            assertEquals(stat.getAverage(), rows.get(i).get(1));
+            assertEquals(stat.getAverage() > 0.5, rows.get(i).get(5));
+        }
+        assertEquals(true, rows.get(rows.size() - 1).get(5));
+    }
+
+    @Test
+    void testDefaultModes() throws IOException {
+        ScenarioRunner runner = ScenarioRunner.load(new StringReader(CONFIGURATION
+                .replace("coverage.mode = sequential\ncoverage.rng = Random", "coverage.rng = SplittableRandom")
+                .replace("minimalK.mode = independent\n", "")));
+        List<ScenarioResult> results = runner.run(ForkJoinPool.commonPool());
+
+        // Répétitions réparties sur les threads : la couverture reste proche du niveau de confiance
+        double coverage = (double) results.get(1).rows().get(0).get(2);
+        assertEquals(0.95, coverage, 0.1);
+
+        // Toutes les tailles estimées à partir des mêmes réalisations : la dernière ligne est le K minimal
+        CollisionTimeSweep sweep = CollisionTimeSweep.simulate(new FirstCollisionTimeExperiment(365, 3, 100),
+                100_000, new Random(SEED));
+        List<List<Object>> rows = results.get(2).rows();
+        assertEquals(sweep.findMinimalK(0.5), rows.get(rows.size() - 1).get(0));
+        assertEquals(sweep.getEstimate(80), rows.get(0).get(1));
+        assertEquals(true, rows.get(rows.size() - 1).get(5));
+    }
+
+    @Test
+    void testWritesCsvAndJson(@TempDir Path dir) throws IOException {
+        ScenarioRunner runner = ScenarioRunner.load(new StringReader(
+                CONFIGURATION.replace("output.formats", "output.directory = " + dir.toString().replace("\\", "/")
+                        + "\noutput.formats")));
+        runner.writeOutputs(runner.run(ForkJoinPool.commonPool()));
+
+        List<String> csv = Files.readAllLines(dir.resolve("p23.csv"));
+        assertEquals("maxHalfWidth,estimate,halfWidth,lowerBound,upperBound,runs,seconds", csv.get(0));
+        assertEquals(3, csv.size());
+
+        String json = Files.readString(dir.resolve("results.json"));
+        assertTrue(json.contains("\"name\": \"coverage\""));
+        assertTrue(json.contains("\"minimal\": true"));
+    }
+
+    @Test
+    void testRejectsInvalidConfigurations() {
+        assertThrows(IllegalArgumentException.class,
+                () -> ScenarioRunner.load(new StringReader("scenarios = a\na.type = unknown")));
+        assertThrows(IllegalArgumentException.class,
+                () -> ScenarioRunner.load(new StringReader("scenarios = a\na.type = estimation\na.K = 23")));
+        assertThrows(IllegalArgumentException.class, () -> ScenarioRunner.load(new StringReader("")));
+        assertThrows(IllegalArgumentException.class, () -> ScenarioRunner.load(new StringReader(
+                CONFIGURATION.replace("coverage.mode = sequential", "coverage.mode = concurrent"))));
+        assertThrows(IllegalArgumentException.class, () -> ScenarioRunner.load(new StringReader(
+                CONFIGURATION.replace("minimalK.mode = independent", "minimalK.mode = shared"))));
+    }
+}
@@ -0,0 +1,92 @@
+package statistics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BernoulliCollectorTest {
+
+    @Test
+    void testSameStatisticsAsStatCollector() {
+        BernoulliCollector bernoulli = new BernoulliCollector();
+        StatCollector stat = new StatCollector();
+        Random random = new Random(0x134D6EE);
+
+        for (int i = 0; i < 100_000; i++) {
+            double x = random.nextDouble() < 0.3 ? 1.0 : 0.0;
+            bernoulli.add(x);
+            stat.add(x);
+        }
+
+        assertEquals(stat.getNumberOfObs(), bernoulli.getNumberOfObs());
+        assertEquals(stat.getAverage(), bernoulli.getAverage(), 1e-12);
+        assertEquals(stat.getVariance(), bernoulli.getVariance(), 1e-12);
+        assertEquals(stat.getConfidenceIntervalHalfWidth(0.95), bernoulli.getConfidenceIntervalHalfWidth(0.95), 1e-12);
+    }
+
+    @Test
+    void testMergeIsExact() {
+        BernoulliCollector total = new BernoulliCollector();
+        total.addBernoulli(1_000_000_000L, 507_297_234L);
+
+        BernoulliCollector partial = new BernoulliCollector();
+        partial.addBernoulli(3, 2);
+        partial.add(1.0);
+        total.merge(partial);
+
+        assertEquals(1_000_000_004L, total.getNumberOfObs());
+        assertEquals(507_297_237L, total.getNumberOfSuccesses());
+    }
+
+    @Test
+    void testIntervals() {
+        BernoulliCollector stat = new BernoulliCollector();
+        stat.addBernoulli(100, 10);
+
+        // Valeurs de référence pour 10 succès sur 100 essais au niveau 95 %
+        double[] wilson = stat.getWilsonInterval(0.95);
+        assertEquals(0.0552, wilson[0], 1e-3);
+        assertEquals(0.1744, wilson[1], 1e-3);
+
+        double[] exact = stat.getClopperPearsonInterval(0.95);
+        assertEquals(0.0490, exact[0], 1e-4);
+        assertEquals(0.1762, exact[1], 1e-4);
+
+        // Sans succès, la borne exacte supérieure vaut 1 - (α/2)^(1/n)
+        BernoulliCollector noSuccess = new BernoulliCollector();
+        noSuccess.addBernoulli(20, 0);
+        double[] bounds = noSuccess.getClopperPearsonInterval(0.95);
+        assertEquals(0.0, bounds[0]);
+        assertEquals(1 - Math.pow(0.025, 1.0 / 20), bounds[1], 1e-9);
+    }
+
+    @Test
+    void testRejectsNonBernoulliObservations() {
+        assertThrows(IllegalArgumentException.class, () -> new BernoulliCollector().add(0.5));
+    }
+
+    @Test
+    void testRejectsNonBernoulliGroups() {
+        // Temps de collision : moyenne entière mais écarts incompatibles avec des observations 0/1
+        StatCollector times = new StatCollector();
+        times.add(20.0);
+        times.add(30.0);
+        BernoulliCollector bernoulli = new BernoulliCollector();
+        assertThrows(IllegalArgumentException.class, () -> bernoulli.merge(times));
+        assertThrows(IllegalArgumentException.class, () -> bernoulli.addAll(3, 0.5, 0.75));
+        assertThrows(IllegalArgumentException.class, () -> bernoulli.addAll(4, 0.5, 0.0));
+        assertEquals(0, bernoulli.getNumberOfObs());
+
+        // Un groupe de 0 et de 1 résumé par un StatCollector est accepté
+        StatCollector stat = new StatCollector();
+        Random random = new Random(0x134D6EE);
+        for (int i = 0; i < 1_000_000; i++) {
+            stat.add(random.nextDouble() < 0.507 ? 1.0 : 0.0);
+        }
+        bernoulli.merge(stat);
+        assertEquals(stat.getNumberOfObs(), bernoulli.getNumberOfObs());
+        assertEquals(stat.getAverage(), bernoulli.getAverage(), 1e-12);
+    }
+}
@@ -0,0 +1,131 @@
+package statistics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentStatCollectorTest {
+    private static final long SEED = 0x134D6EE;
+
+    @Test
+    void testSameStatisticsAsStatCollectorWithManyWriters() throws Exception {
+        int threads = 8;
+        int perThread = 200_000;
+        ConcurrentStatCollector concurrent = new ConcurrentStatCollector();
+        StatCollector[] expected = new StatCollector[threads];
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                StatCollector stat = expected[t] = new StatCollector();
+                SplittableRandom random = new SplittableRandom(SEED + t);
+                writers.add(pool.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        double x = 10.0 + random.nextGaussian();
+                        concurrent.add(x);
+                        stat.add(x);
+                    }
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        StatCollector total = new StatCollector();
+        for (StatCollector stat : expected) {
+            total.merge(stat);
+        }
+        assertEquals(total.getNumberOfObs(), concurrent.getNumberOfObs());
+        assertEquals(total.getAverage(), concurrent.getAverage(), 1e-12);
+        assertEquals(total.getVariance(), concurrent.getVariance(), 1e-9);
+        assertEquals(total.getConfidenceIntervalHalfWidth(0.95), concurrent.getConfidenceIntervalHalfWidth(0.95),
+                1e-12);
+
+        // Les groupes d'observations sont fusionnés dans la cellule du thread appelant
+        concurrent.merge(total);
+        assertEquals(2 * total.getNumberOfObs(), concurrent.getNumberOfObs());
+        assertEquals(total.getAverage(), concurrent.getAverage(), 1e-12);
+    }
+
+    @Test
+    void testSnapshotsWhileWritersRun() throws Exception {
+        ConcurrentStatCollector concurrent = new ConcurrentStatCollector();
+        AtomicBoolean stop = new AtomicBoolean();
+
+        // Un seul écrivain qui alterne 0 et 1 : après n ajouts complets, la moyenne vaut exactement ⌈n/2⌉ / n
+        Thread writer = new Thread(() -> {
+            for (long i = 0; !stop.get(); i++) {
+                concurrent.add(i & 1 ^ 1);
+            }
+        });
+        writer.start();
+        try {
+            long previous = 0;
+            int snapshots = 0;
+            while (snapshots < 20_000 || previous < 1_000_000) {
+                StatCollector snapshot = concurrent.snapshot();
+                long n = snapshot.getNumberOfObs();
+                assertTrue(n >= previous, "Le nombre d'observations ne peut pas décroître.");
+                if (n > 0) {
+                    assertEquals((double) ((n + 1) / 2) / n, snapshot.getAverage(), 1e-9, "Cellule lue à moitié");
+                }
+                if (n > 2) {
+                    assertFalse(Double.isNaN(snapshot.getConfidenceIntervalHalfWidth(0.95)));
+                }
+                previous = n;
+                snapshots++;
+            }
+        } finally {
+            stop.set(true);
+            writer.join();
+        }
+    }
+
+    @Test
+    void testShortLivedThreadsDoNotAddCells() throws Exception {
+        ConcurrentStatCollector concurrent = new ConcurrentStatCollector();
+        int stripes = concurrent.getNumberOfStripes();
+        assertEquals(1, Integer.bitCount(stripes), "Le nombre de cellules est une puissance de deux");
+        assertTrue(stripes >= Runtime.getRuntime().availableProcessors());
+
+        // Un thread virtuel par observation : les cellules sont partagées au lieu d'être créées par thread
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 10_000; i++) {
+                double x = i % 2;
+                pool.submit(() -> concurrent.add(x));
+            }
+        }
+
+        assertEquals(stripes, concurrent.getNumberOfStripes());
+        assertEquals(10_000, concurrent.getNumberOfObs());
+        assertEquals(0.5, concurrent.getAverage(), 1e-12);
+    }
+
+    @Test
+    void testInitDropsAllCells() {
+        ConcurrentStatCollector concurrent = new ConcurrentStatCollector();
+        concurrent.add(1.0);
+        concurrent.add(3.0);
+        assertEquals(2.0, concurrent.getAverage());
+
+        concurrent.init();
+        assertEquals(0, concurrent.getNumberOfObs());
+        assertTrue(Double.isNaN(concurrent.getAverage()));
+
+        concurrent.add(5.0);
+        assertEquals(1, concurrent.getNumberOfObs());
+        assertEquals(5.0, concurrent.getAverage());
+    }
+}
@@ -0,0 +1,54 @@
+package statistics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InverseStdNormalCDFTest {
+
+    @Test
+    void testKnownQuantiles() {
+        assertEquals(0.0, InverseStdNormalCDF.getQuantile(0.5));
+        assertEquals(1.959963984540054, InverseStdNormalCDF.getQuantile(0.975), 1e-14);
+        assertEquals(2.575829303548901, InverseStdNormalCDF.getQuantile(0.995), 1e-14);
+
+        // Niveaux au-delà de 99.8 %, autrefois tronqués à 3.09
+        assertEquals(3.290526731491926, InverseStdNormalCDF.getQuantile(0.9995), 1e-13);
+        assertEquals(4.891638475698853, InverseStdNormalCDF.getQuantile(1 - 5e-7), 1e-10);
+        assertEquals(-6.361340902404056, InverseStdNormalCDF.getQuantile(1e-10), 1e-10);
+
+        assertEquals(Double.POSITIVE_INFINITY, InverseStdNormalCDF.getQuantile(1.0));
+        assertEquals(Double.NEGATIVE_INFINITY, InverseStdNormalCDF.getQuantile(0.0));
+        assertThrows(IllegalArgumentException.class, () -> InverseStdNormalCDF.getQuantile(1.5));
+    }
+
+    @Test
+    void testCachedLevelsKeepTheirQuantiles() {
+        // Le dernier niveau calculé et la table de hachage doivent rendre chacun la valeur de son propre niveau
+        double[] levels = {0.975, 0.995, 0.95, 0.975, 0.9, 0.995, 0.975};
+        double[] expected = {1.959963984540054, 2.575829303548901, 1.6448536269514722, 1.959963984540054,
+                1.2815515655446004, 2.575829303548901, 1.959963984540054};
+        for (int i = 0; i < levels.length; i++) {
+            assertEquals(expected[i], InverseStdNormalCDF.getQuantile(levels[i]), 1e-14);
+        }
+    }
+
+    @Test
+    void testSymmetry() {
+        for (double p = 0.001; p < 0.5; p += 0.001) {
+            assertEquals(-InverseStdNormalCDF.getQuantile(1 - p), InverseStdNormalCDF.getQuantile(p), 1e-12);
+        }
+    }
+
+    @Test
+    void testCDFIsInverseOfQuantile() {
+        for (int i = 1; i < 10_000; i++) {
+            double p = i / 10_000.0;
+            double q = InverseStdNormalCDF.getQuantile(p);
+            assertEquals(p, StdNormalCDF.getProbability(q), 1e-14 + 1e-12 * Math.min(p, 1 - p));
+        }
+        assertEquals(0.5, StdNormalCDF.getProbability(0.0));
+        assertEquals(0.0, StdNormalCDF.getProbability(-40.0));
+        assertEquals(1.0, StdNormalCDF.getProbability(40.0));
+    }
+}
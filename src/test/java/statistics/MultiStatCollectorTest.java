@@ -0,0 +1,83 @@
+package statistics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MultiStatCollectorTest {
+    private static final long SEED = 0x134D6EE;
+
+    @Test
+    void testSameStatisticsAsOneStatCollectorPerMetric() {
+        MultiStatCollector multi = new MultiStatCollector(3);
+        StatCollector[] expected = {new StatCollector(), new StatCollector(), new StatCollector()};
+        Random random = new Random(SEED);
+
+        // Le même tableau est réutilisé pour chaque observation
+        double[] x = new double[3];
+        for (int i = 0; i < 100_000; i++) {
+            x[0] = random.nextGaussian();
+            x[1] = 1e6 + random.nextDouble();
+            x[2] = random.nextDouble() < 0.3 ? 1.0 : 0.0;
+            multi.add(x);
+            for (int metric = 0; metric < 3; metric++) {
+                expected[metric].add(x[metric]);
+            }
+        }
+
+        assertEquals(100_000, multi.getNumberOfObs());
+        for (int metric = 0; metric < 3; metric++) {
+            Estimator column = multi.column(metric);
+            assertEquals(expected[metric].getNumberOfObs(), column.getNumberOfObs());
+            assertEquals(expected[metric].getAverage(), multi.getAverage(metric));
+            assertEquals(expected[metric].getVariance(), multi.getVariance(metric));
+            assertEquals(expected[metric].getConfidenceIntervalHalfWidth(0.95),
+                    column.getConfidenceIntervalHalfWidth(0.95));
+        }
+    }
+
+    @Test
+    void testMergeMatchesSingleCollector() {
+        MultiStatCollector total = new MultiStatCollector(2);
+        MultiStatCollector left = total.createEmpty();
+        MultiStatCollector right = total.createEmpty();
+        Random random = new Random(SEED);
+
+        for (int i = 0; i < 10_000; i++) {
+            double[] x = {random.nextGaussian(), 5.0 + 2.0 * random.nextGaussian()};
+            total.add(x);
+            (i % 3 == 0 ? left : right).add(x);
+        }
+        MultiStatCollector merged = new MultiStatCollector(2);
+        merged.merge(left);
+        merged.merge(right);
+
+        assertEquals(total.getNumberOfObs(), merged.getNumberOfObs());
+        for (int metric = 0; metric < 2; metric++) {
+            assertEquals(total.getAverage(metric), merged.getAverage(metric), 1e-12);
+            assertEquals(total.getVariance(metric), merged.getVariance(metric), 1e-9);
+        }
+        assertThrows(IllegalArgumentException.class, () -> merged.merge(new MultiStatCollector(3)));
+    }
+
+    @Test
+    void testColumnIsReadOnlyView() {
+        MultiStatCollector multi = new MultiStatCollector(2);
+        Estimator column = multi.column(1);
+        assertSame(column, multi.column(1), "La vue d'une métrique est créée une seule fois");
+        assertTrue(Double.isNaN(column.getAverage()));
+
+        multi.add(new double[]{0.0, 2.0});
+        multi.add(new double[]{0.0, 4.0});
+        assertEquals(3.0, column.getAverage());
+        assertEquals(2.0, column.getVariance());
+
+        assertFalse(column instanceof Collector, "La vue d'une métrique ne reçoit pas d'observations");
+        assertThrows(IllegalArgumentException.class, () -> multi.add(new double[]{1.0}));
+
+        multi.init();
+        assertEquals(0, column.getNumberOfObs());
+    }
+}
@@ -0,0 +1,148 @@
+package statistics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuantileCollectorTest {
+    private static final long SEED = 0x134D6EE;
+    private static final double[] ORDERS = {0.0, 0.001, 0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99, 0.999, 1.0};
+
+    @Test
+    void testQuantilesWithinRelativeAccuracy() {
+        SplittableRandom random = new SplittableRandom(SEED);
+        int n = 1_000_000;
+        double[] observations = new double[n];
+        QuantileCollector sketch = new QuantileCollector(0.01, QuantileCollector.DEFAULT_MAX_BINS);
+        StatCollector stat = new StatCollector();
+
+        // Loi log-normale centrée de part et d'autre de zéro, sur une dizaine d'ordres de grandeur
+        for (int i = 0; i < n; i++) {
+            double x = Math.exp(3 * random.nextGaussian()) * (random.nextInt(4) == 0 ? -1 : 1);
+            observations[i] = x;
+            sketch.add(x);
+            stat.add(x);
+        }
+        Arrays.sort(observations);
+
+        for (double p : ORDERS) {
+            double exact = observations[(int) Math.floor(p * (n - 1))];
+            assertEquals(exact, sketch.getQuantile(p), 0.01 * Math.abs(exact), "Quantile d'ordre " + p);
+        }
+        assertEquals(observations[0], sketch.getMin());
+        assertEquals(observations[n - 1], sketch.getMax());
+        assertEquals(stat.getNumberOfObs(), sketch.getNumberOfObs());
+        assertEquals(stat.getAverage(), sketch.getAverage());
+        assertEquals(stat.getVariance(), sketch.getVariance());
+    }
+
+    @Test
+    void testMemoryDoesNotGrowWithObservations() {
+        SplittableRandom random = new SplittableRandom(SEED);
+        QuantileCollector sketch = new QuantileCollector();
+
+        // Loi log-normale sur cinq ordres de grandeur : quelques centaines de cases, quel que soit le nombre
+        // d'observations
+        for (int i = 0; i < 5_000_000; i++) {
+            sketch.add(Math.exp(random.nextGaussian()));
+        }
+        int bins = sketch.getNumberOfBins();
+        for (int i = 0; i < 5_000_000; i++) {
+            sketch.add(Math.exp(random.nextGaussian()));
+        }
+
+        assertTrue(bins * Long.BYTES <= 8 * 1024, "Plus de 8 Ko de cases : " + bins);
+        assertTrue(sketch.getNumberOfBins() <= bins + bins / 2, "Le nombre de cases doit se stabiliser.");
+        assertEquals(1.0, sketch.getQuantile(0.5), 0.01);
+    }
+
+    @Test
+    void testMergeEqualsSingleCollector() {
+        SplittableRandom random = new SplittableRandom(SEED);
+        QuantileCollector total = new QuantileCollector();
+        QuantileCollector[] parts = {new QuantileCollector(), new QuantileCollector(), new QuantileCollector()};
+
+        for (int i = 0; i < 300_000; i++) {
+            // Parties sur des plages différentes, pour que la fusion étende les cases dans les deux sens
+            int part = i % 3;
+            double x = (part == 0 ? 1e-3 : part == 1 ? 1.0 : 1e4) * (random.nextDouble() - 0.2);
+            total.add(x);
+            parts[part].add(x);
+        }
+        QuantileCollector merged = parts[1].createEmpty();
+        for (QuantileCollector part : parts) {
+            merged.merge(part);
+        }
+
+        assertEquals(total.getNumberOfObs(), merged.getNumberOfObs());
+        assertEquals(total.getAverage(), merged.getAverage(), 1e-9 * Math.abs(total.getAverage()));
+        for (double p : ORDERS) {
+            assertEquals(total.getQuantile(p), merged.getQuantile(p), "Quantile d'ordre " + p);
+        }
+        assertThrows(IllegalArgumentException.class, () -> merged.merge(new QuantileCollector(0.02, 2048)));
+    }
+
+    @Test
+    void testFoldedBinsKeepUpperQuantiles() {
+        SplittableRandom random = new SplittableRandom(SEED);
+        int n = 200_000;
+        double[] observations = new double[n];
+        QuantileCollector sketch = new QuantileCollector(0.01, 128);
+
+        // Valeurs de 1e-12 à 1 : il faudrait près de 1400 cases, les plus petites valeurs sont regroupées
+        for (int i = 0; i < n; i++) {
+            observations[i] = Math.pow(10, -12 * random.nextDouble());
+            sketch.add(observations[i]);
+        }
+        Arrays.sort(observations);
+
+        assertEquals(128, sketch.getNumberOfBins());
+        for (double p : new double[]{0.95, 0.99, 0.999, 1.0}) {
+            double exact = observations[(int) Math.floor(p * (n - 1))];
+            assertEquals(exact, sketch.getQuantile(p), 0.01 * exact, "Quantile d'ordre " + p);
+        }
+        assertTrue(sketch.getQuantile(0.01) >= observations[0], "Quantile des cases regroupées");
+    }
+
+    @Test
+    void testHistogramOfSmallIntegers() {
+        SplittableRandom random = new SplittableRandom(SEED);
+        QuantileCollector sketch = new QuantileCollector();
+        long[] exact = new long[40];
+
+        // Avec α = 1 %, les entiers jusqu'à 40 ont chacun leur case
+        for (int i = 0; i < 100_000; i++) {
+            int x = 1 + random.nextInt(40);
+            exact[x - 1]++;
+            sketch.add(x);
+        }
+        double[] boundaries = new double[41];
+        for (int k = 0; k <= 40; k++) {
+            boundaries[k] = k + 0.5;
+        }
+
+        assertArrayEquals(exact, sketch.getHistogram(boundaries));
+        assertThrows(IllegalArgumentException.class, () -> sketch.getHistogram(new double[]{1.0, 1.0}));
+    }
+
+    @Test
+    void testBernoulliObservations() {
+        QuantileCollector sketch = new QuantileCollector();
+        sketch.addBernoulli(1000, 300);
+        sketch.add(1.0);
+
+        assertEquals(1001, sketch.getNumberOfObs());
+        assertEquals(301.0 / 1001, sketch.getAverage(), 1e-12);
+        assertEquals(0.0, sketch.getQuantile(0.5));
+        assertEquals(1.0, sketch.getQuantile(0.9), 0.01);
+        assertArrayEquals(new long[]{700, 301}, sketch.getHistogram(new double[]{-0.5, 0.5, 1.5}));
+        assertThrows(IllegalArgumentException.class, () -> sketch.add(Double.NaN));
+
+        sketch.init();
+        assertEquals(0, sketch.getNumberOfObs());
+        assertTrue(Double.isNaN(sketch.getQuantile(0.5)));
+    }
+}